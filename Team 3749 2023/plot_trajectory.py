@@ -10,15 +10,13 @@ from matplotlib.collections import LineCollection
 plt.rcParams["figure.figsize"] = [7.50, 3.50]
 plt.rcParams["figure.autolayout"] = True
 
-# set csv headers
-headers = ['x', 'y']
+# read data.csv using pandas, columns are named in its header row:
+# timestamp, x, y, measured_x, measured_y, shoulder_voltage, elbow_voltage
+df = pd.read_csv('data.csv')
 
-# read data.csv using pandas
-df = pd.read_csv('data.csv', names=headers)
-
-# set axis
-x = df.set_index('y')
-y = df.set_index('x')
+# set axis (plots the trajectory setpoints, use measured_x/measured_y for the real arm)
+x = df[['x']]
+y = df[['y']]
 cols = np.linspace(0,1,len(x))
 
 # reshape points for gradient
@@ -0,0 +1,49 @@
+package frc.robot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.wpi.first.math.VecBuilder;
+import frc.robot.subsystems.arm.ArmDynamics;
+
+/**
+ * ArmDynamics feedforward through the Vector API and the primitive path
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArmDynamicsBenchmark {
+    private final ArmDynamics dynamics = new ArmDynamics();
+    private final double[] out = new double[2];
+
+    private double shoulder = 1.2;
+    private double elbow = -2.1;
+
+    @Benchmark
+    public Object feedforwardVector() {
+        shoulder += 1e-6;
+        return dynamics.feedforward(VecBuilder.fill(shoulder, elbow), VecBuilder.fill(0.5, -0.3),
+                VecBuilder.fill(1.0, 2.0));
+    }
+
+    @Benchmark
+    public void feedforwardPrimitive(Blackhole blackhole) {
+        shoulder += 1e-6;
+        dynamics.feedforward(shoulder, elbow, 0.5, -0.3, 1.0, 2.0, out);
+        blackhole.consume(out[0]);
+        blackhole.consume(out[1]);
+    }
+}
@@ -0,0 +1,85 @@
+package frc.robot.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import frc.robot.subsystems.arm.ArmKinematics;
+import frc.robot.utils.Constants;
+
+/**
+ * ArmKinematics forward, closed form inverse and grid inverse over random
+ * reachable points
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArmKinematicsBenchmark {
+    private static final int POINTS = 1024;
+
+    private final double[] x = new double[POINTS];
+    private final double[] y = new double[POINTS];
+    private final double[] shoulder = new double[POINTS];
+    private final double[] elbow = new double[POINTS];
+    private final double[] out = new double[2];
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(3749);
+        double reach = Constants.Arm.shoulder_length + Constants.Arm.elbow_length;
+        double innerReach = Math.abs(Constants.Arm.shoulder_length - Constants.Arm.elbow_length);
+        for (int i = 0; i < POINTS; i++) {
+            double px;
+            double py;
+            do {
+                px = random.nextDouble() * reach;
+                py = (random.nextDouble() * 2 - 1) * reach;
+            } while (px == 0 || px * px + py * py > reach * reach
+                    || px * px + py * py < innerReach * innerReach);
+            x[i] = px;
+            y[i] = py;
+            shoulder[i] = Math.toRadians(30 + random.nextDouble() * 110);
+            elbow[i] = Math.toRadians(-180 + random.nextDouble() * 180);
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (POINTS - 1);
+        return index;
+    }
+
+    @Benchmark
+    public Object forward() {
+        int i = next();
+        return ArmKinematics.forward(shoulder[i], elbow[i]);
+    }
+
+    @Benchmark
+    public Object inverseClosedForm() throws Exception {
+        int i = next();
+        return ArmKinematics.inverse(x[i], y[i]);
+    }
+
+    @Benchmark
+    public void inverseGrid(Blackhole blackhole) {
+        int i = next();
+        blackhole.consume(ArmKinematics.inverse(x[i], y[i], out));
+        blackhole.consume(out[0]);
+        blackhole.consume(out[1]);
+    }
+}
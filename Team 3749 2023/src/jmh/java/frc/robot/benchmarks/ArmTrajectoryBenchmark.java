@@ -0,0 +1,69 @@
+package frc.robot.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import frc.robot.subsystems.arm.ArmTrajectoryTable;
+import frc.robot.utils.Constants;
+import frc.robot.utils.Constants.Arm.ArmSetpoints;
+
+/**
+ * Sampling an arm path as a WPILib Trajectory (what MoveArm used to do) and as
+ * a compiled ArmTrajectoryTable. The path is the same stow to sting path as
+ * ArmTrajectories.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArmTrajectoryBenchmark {
+    private Trajectory trajectory;
+    private ArmTrajectoryTable table;
+    private final double[] out = new double[ArmTrajectoryTable.SAMPLE_SIZE];
+    private double time = 0;
+
+    @Setup
+    public void setup() {
+        trajectory = TrajectoryGenerator.generateTrajectory(
+                List.of(ArmSetpoints.STOW.toPose2d(Math.PI / 4), ArmSetpoints.STING.toPose2d(Math.PI / 2)),
+                new TrajectoryConfig(Constants.Arm.maxSpeedMPS, Constants.Arm.maxAccelerationMPS));
+        table = new ArmTrajectoryTable(trajectory);
+    }
+
+    private double nextTime() {
+        time += 0.02;
+        if (time > trajectory.getTotalTimeSeconds()) {
+            time = 0;
+        }
+        return time;
+    }
+
+    @Benchmark
+    public Object trajectorySample() {
+        return trajectory.sample(nextTime());
+    }
+
+    @Benchmark
+    public void tableSample(Blackhole blackhole) {
+        table.sample(nextTime(), out);
+        blackhole.consume(out[ArmTrajectoryTable.X]);
+        blackhole.consume(out[ArmTrajectoryTable.Y]);
+    }
+}
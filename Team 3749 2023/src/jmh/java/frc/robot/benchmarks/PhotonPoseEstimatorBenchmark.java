@@ -0,0 +1,89 @@
+package frc.robot.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.photonvision.PhotonPoseEstimator;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PhotonTrackedTarget;
+import org.photonvision.targeting.TargetCorner;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import frc.robot.utils.Constants;
+
+/**
+ * PhotonPoseEstimator.update with the same strategy and camera transform as
+ * Limelight, on pipeline results built from what the camera would see in front
+ * of the blue grid
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhotonPoseEstimatorBenchmark {
+    private static final int[] GRID_TAGS = { 6, 7, 8 };
+
+    private PhotonPoseEstimator estimator;
+    private final List<PhotonPipelineResult> results = new ArrayList<>();
+    private final List<Pose2d> referencePoses = new ArrayList<>();
+    private int index = 0;
+    private double timestamp = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        AprilTagFieldLayout layout = AprilTagFieldLayout
+                .loadFromResource(AprilTagFields.k2023ChargedUp.m_resourceFile);
+        // the camera is only needed by update() without a result
+        estimator = new PhotonPoseEstimator(layout, PoseStrategy.CLOSEST_TO_REFERENCE_POSE, null,
+                Constants.VisionConstants.robot_to_cam);
+
+        for (double y = 0.5; y <= 5.0; y += 0.25) {
+            Pose3d robotPose = new Pose3d(2.5, y, 0, new Rotation3d(0, 0, Math.PI));
+            Pose3d cameraPose = robotPose.transformBy(Constants.VisionConstants.robot_to_cam);
+
+            List<PhotonTrackedTarget> targets = new ArrayList<>();
+            for (int id : GRID_TAGS) {
+                Transform3d cameraToTag = new Transform3d(cameraPose, layout.getTagPose(id).get());
+                List<TargetCorner> corners = List.of(new TargetCorner(0, 0), new TargetCorner(1, 0),
+                        new TargetCorner(1, 1), new TargetCorner(0, 1));
+                targets.add(new PhotonTrackedTarget(0, 0, 1, 0, id, cameraToTag, cameraToTag, 0.1, corners,
+                        corners));
+            }
+
+            results.add(new PhotonPipelineResult(20, targets));
+            referencePoses.add(robotPose.toPose2d());
+        }
+    }
+
+    @Benchmark
+    public Object update() {
+        index = (index + 1) % results.size();
+        PhotonPipelineResult result = results.get(index);
+        // the estimator skips results with the timestamp it last saw
+        timestamp += 0.02;
+        result.setTimestampSeconds(timestamp);
+
+        estimator.setReferencePose(referencePoses.get(index));
+        return estimator.update(result);
+    }
+}
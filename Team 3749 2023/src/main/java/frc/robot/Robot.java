@@ -3,21 +3,34 @@ package frc.robot;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.utils.InputLog;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.Telemetry;
 
 public class Robot extends TimedRobot {
     private Command m_autonomousCommand;
 
     private RobotContainer m_robotContainer;
 
+    private final LoopProfiler.Section schedulerProfiler = LoopProfiler.register("Scheduler");
+
     @Override
     public void robotInit() {
+        InputLog.start();
         m_robotContainer = new RobotContainer();
+        LoopProfiler.instrumentCommands();
+        InputLog.startReplay();
     }
 
     @Override
     public void robotPeriodic() {
-
+        InputLog.beginLoop();
+        schedulerProfiler.start();
         CommandScheduler.getInstance().run();
+        schedulerProfiler.stop();
+
+        Telemetry.periodic();
+        LoopProfiler.periodic();
     }
 
     @Override
@@ -26,6 +39,7 @@ public class Robot extends TimedRobot {
 
     @Override
     public void disabledPeriodic() {
+        m_robotContainer.prebuildAutonomousCommand();
     }
 
     @Override
@@ -1,37 +1,53 @@
 package frc.robot;
 
-import java.io.FileWriter;
-import java.io.IOException;
+import java.util.List;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
 
 import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
 import frc.robot.subsystems.swerve.*;
 import frc.robot.subsystems.vision.Limelight;
+import frc.robot.subsystems.vision.LimelightIO;
+import frc.robot.subsystems.vision.LimelightIOPhoton;
 import frc.robot.subsystems.arm.*;
 import frc.robot.subsystems.intake.*;
 import frc.robot.commands.arm.MoveArm;
 import frc.robot.commands.swerve.AutoCommands;
+import frc.robot.commands.swerve.AutoPathFile;
+import frc.robot.commands.swerve.AutoRegistry;
 import frc.robot.subsystems.leds.LEDs;
 import frc.robot.utils.*;
 import frc.robot.utils.Constants;
 import frc.robot.utils.Constants.AutoConstants;
 import frc.robot.utils.Constants.Arm.ArmSetpoints;
+import frc.robot.utils.Constants.LEDs.LEDLayer;
+import frc.robot.utils.Constants.LEDs.LEDPattern;
+import frc.robot.utils.Constants.LEDs.LEDSegment;
 
 public class RobotContainer {
     private final Xbox pilot = new Xbox(0);
     private final Xbox operator = new Xbox(1);
 
     private final Swerve swerve = new Swerve();
-    private final ArmIntake armIntake = new ArmIntake();
-    private final Arm arm = new Arm();
+    private final ArmIntake armIntake = new ArmIntake(createArmIntakeIO());
+    private final Arm arm = new Arm(createArmIO());
     private final ArmTrajectories armTrajectories = new ArmTrajectories();
     private final LEDs leds = new LEDs();
-    private final Limelight limelight = new Limelight();
+    private final Limelight limelight = new Limelight(swerve,
+            InputLog.getMode() == InputLog.Mode.REPLAY ? new LimelightIO() {
+            } : new LimelightIOPhoton(Constants.VisionConstants.camera_name));
+
+    private final AutoRegistry autoRegistry = new AutoRegistry(AutoConstants.autoChooser);
 
     private final JoystickIO joystickIO = new JoystickIO(pilot, operator, swerve, limelight, leds, armIntake,
             arm, armTrajectories);
@@ -42,34 +58,44 @@ public class RobotContainer {
 
         configureButtonBindings();
         configureAuto();
+        configureLEDs();
         
-        AutoConstants.autoChooser.addOption("Top Two Piece", AutoCommands.getTopTwoPiece(swerve, arm, armTrajectories, armIntake, limelight, leds));
-        AutoConstants.autoChooser.addOption("Top Two Piece Charge", AutoCommands.getTopTwoPieceCharge(swerve, arm, armTrajectories, armIntake, limelight, leds));
-        AutoConstants.autoChooser.addOption("Bottom Two Piece", AutoCommands.getBottomTwoPiece(swerve, arm, armTrajectories, armIntake, limelight, leds));
-        AutoConstants.autoChooser.addOption("Bottom Two Piece Charge", AutoCommands.getBottomTwoPieceCharge(swerve, arm, armTrajectories, armIntake, limelight, leds));
-        AutoConstants.autoChooser.addOption("Bottom Two Piece", AutoCommands.getBottomTwoPiece(swerve, arm, armTrajectories, armIntake, limelight, leds));
-        // AutoConstants.autoChooser.addOption("Middle Right Charge", AutoCommands.getMiddleRightCharge(swerve, arm, armTrajectories, armIntake, limelight, leds));
-        AutoConstants.autoChooser.addOption("One Piece", AutoCommands.getOnePiece(swerve, arm, armTrajectories, armIntake, limelight, leds));
-        // AutoConstants.autoChooser.addOption("PRINT", new PrintCommand("ALIHFALSDGFHASGDJFH"));
-
-        AutoConstants.autoChooser.setDefaultOption("One Piece", AutoCommands.getOnePiece(swerve, arm, armTrajectories, armIntake, limelight, leds)   );
-
         DataLogManager.logNetworkTables(true);
         DriverStation.startDataLog(DataLogManager.getLog(), true);
 
-        try {
-            FileWriter writer = new FileWriter("data.csv", false);
-            writer.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
         RobotController.setBrownoutVoltage(7.0);
+        // logged so brownouts can be found after a match
+        Telemetry.addDouble("Robot/Battery Voltage", RobotController::getBatteryVoltage);
+        Telemetry.addBoolean("Robot/Browned Out", RobotController::isBrownedOut);
 
         ShuffleData.put("Swerve", AutoConstants.autoChooser);
 
     }
 
+    private static ArmIO createArmIO() {
+        switch (InputLog.getMode()) {
+            case REAL:
+                return new ArmIOReal();
+            case SIM:
+                return new ArmIOSim();
+            default:
+                return new ArmIO() {
+                };
+        }
+    }
+
+    private static ArmIntakeIO createArmIntakeIO() {
+        switch (InputLog.getMode()) {
+            case REAL:
+                return new ArmIntakeIOReal();
+            case SIM:
+                return new ArmIntakeIOSim();
+            default:
+                return new ArmIntakeIO() {
+                };
+        }
+    }
+
     /**
      * Set controller button bindings
      */
@@ -86,11 +112,47 @@ public class RobotContainer {
 
     }
 
+    /**
+     * Show the intake and alerts on their LED layers. The arm layer is set by
+     * MoveArm.
+     */
+    public void configureLEDs() {
+        new Trigger(() -> armIntake.getVoltage() > Constants.ArmIntake.idleVoltage)
+                .onTrue(Commands.runOnce(() -> leds.setLayer(LEDLayer.INTAKE, LEDPattern.GREEN, LEDSegment.RIGHT))
+                        .ignoringDisable(true))
+                .onFalse(Commands.runOnce(() -> leds.clearLayer(LEDLayer.INTAKE)).ignoringDisable(true));
+        new Trigger(RobotController::isBrownedOut)
+                .onTrue(Commands.runOnce(() -> leds.setLayer(LEDLayer.ALERT, LEDPattern.BLINK)).ignoringDisable(true))
+                .onFalse(Commands.runOnce(() -> leds.clearLayer(LEDLayer.ALERT)).ignoringDisable(true));
+    }
+
     /**
      * @return Autonomous Command
      */
     public Command getAutonomousCommand() {
-        return AutoCommands.getOnePieceTaxi(swerve, arm, armTrajectories, armIntake, limelight, leds);
+        return autoRegistry.getSelected();
+    }
+
+    /**
+     * Build the selected autonomous ahead of time, call while disabled
+     */
+    public void prebuildAutonomousCommand() {
+        autoRegistry.prebuild();
+    }
+
+    /**
+     * @return every autonomous routine, for tests that run them
+     */
+    AutoRegistry getAutoRegistry() {
+        return autoRegistry;
+    }
+
+    Swerve getSwerve() {
+        return swerve;
+    }
+
+    Arm getArm() {
+        return arm;
     }
 
     /**
@@ -118,5 +180,35 @@ public class RobotContainer {
                                 .withTimeout(2),
                         Commands.runOnce(() -> armIntake.setVoltage(Constants.ArmIntake.idleVoltage), armIntake)));
 
+        autoRegistry.add("Top Two Piece",
+                alliance -> AutoCommands.loadPathGroup(alliance, "TOP 2 Piece", new PathConstraints(2.5, 2.5)),
+                (alliance, paths) -> AutoCommands.getTopTwoPiece(paths, swerve, arm, armTrajectories, armIntake,
+                        limelight, leds));
+        autoRegistry.add("Top Two Piece Charge",
+                alliance -> AutoCommands.loadPathGroup(alliance, "TOP 2 Piece",
+                        alliance == Alliance.Red ? new PathConstraints(2, 2) : new PathConstraints(2.5, 2.5)),
+                (alliance, paths) -> AutoCommands.getTopTwoPieceCharge(paths, alliance, swerve, arm,
+                        armTrajectories, armIntake, limelight, leds));
+        autoRegistry.add("Bottom Two Piece",
+                alliance -> AutoCommands.loadPathGroup(alliance, "BOTTOM 2 Piece", new PathConstraints(3, 3)),
+                (alliance, paths) -> AutoCommands.getBottomTwoPiece(paths, alliance, swerve, arm, armTrajectories,
+                        armIntake, limelight, leds));
+        autoRegistry.add("Bottom Two Piece Charge",
+                alliance -> AutoCommands.loadPathGroup(alliance, "BOTTOM 2 Piece", new PathConstraints(3, 3)),
+                (alliance, paths) -> AutoCommands.getBottomTwoPieceCharge(paths, alliance, swerve, arm,
+                        armTrajectories, armIntake, limelight, leds));
+        // the taxi paths are drawn on the blue side, mirrored for red like the
+        // path groups
+        autoRegistry.add("One Piece Taxi",
+                alliance -> {
+                    PathPlannerTrajectory path = PathPlanner.loadPath("TAXI Top", new PathConstraints(1.5, 1.5));
+                    return List.of(alliance == Alliance.Red ? AutoPathFile.mirror(path) : path);
+                },
+                (alliance, paths) -> AutoCommands.getOnePieceTaxi(paths.get(0), swerve, arm, armTrajectories,
+                        armIntake, limelight, leds));
+        autoRegistry.add("One Piece",
+                (alliance, paths) -> AutoCommands.getOnePiece(swerve, arm, armTrajectories, armIntake, limelight,
+                        leds));
+        autoRegistry.setDefault("One Piece");
     }
 }
\ No newline at end of file
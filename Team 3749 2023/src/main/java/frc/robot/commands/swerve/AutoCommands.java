@@ -1,5 +1,6 @@
 package frc.robot.commands.swerve;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -11,7 +12,6 @@ import com.pathplanner.lib.commands.PPSwerveControllerCommand;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
@@ -82,6 +82,36 @@ public final class AutoCommands {
                 ));
     }
 
+    /***
+     * @param alliance    red uses the group's "RED - " .path file, tuned on the
+     *                    red side, or the blue one mirrored if there isn't one
+     * @param name        path group name without the alliance prefix
+     * @param constraints max velocity and acceleration
+     * @return the trajectories from the pregenerated AutoPathFile, or generated
+     *         from the .path file if they aren't in it. Loaded off the main
+     *         thread by AutoRegistry.
+     */
+    public static List<PathPlannerTrajectory> loadPathGroup(Alliance alliance, String name,
+            PathConstraints constraints) {
+        boolean red = alliance == Alliance.Red;
+        boolean redSource = red && AutoPathFile.hasRedSource(name);
+        String file = (redSource ? AutoPathFile.RED_PREFIX : AutoPathFile.BLUE_PREFIX) + name;
+
+        List<PathPlannerTrajectory> pathGroup = AutoPathFile.get(file, constraints);
+        if (pathGroup == null) {
+            System.out.println("Generating path group " + file + ", it isn't in the pregenerated path file");
+            pathGroup = PathPlanner.loadPathGroup(file, constraints);
+        }
+        if (!red || redSource) {
+            return pathGroup;
+        }
+        List<PathPlannerTrajectory> mirrored = new ArrayList<>(pathGroup.size());
+        for (PathPlannerTrajectory path : pathGroup) {
+            mirrored.add(AutoPathFile.mirror(path));
+        }
+        return mirrored;
+    }
+
     public static Command getPlaceTop(Arm arm, ArmTrajectories armTrajectories, ArmIntake armIntake, LEDs leds) {
         return new SequentialCommandGroup(
                 Commands.waitSeconds(0.1),
@@ -92,18 +122,11 @@ public final class AutoCommands {
                 Commands.runOnce(() -> armIntake.setVoltage(Constants.ArmIntake.idleVoltage)).withTimeout(0.1));
     }
 
-    public static Command getBottomTwoPiece(Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
+    public static Command getBottomTwoPiece(List<PathPlannerTrajectory> pathGroup, Alliance alliance,
+            Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
             ArmIntake armIntake,
             Limelight limelight,
             LEDs leds) {
-        List<PathPlannerTrajectory> pathGroup = null;
-
-        if (DriverStation.getAlliance() == Alliance.Blue) {
-            pathGroup = PathPlanner.loadPathGroup("BLUE - BOTTOM 2 Piece", new PathConstraints(3, 3));
-
-        } else if (DriverStation.getAlliance() == Alliance.Red) {
-            pathGroup = PathPlanner.loadPathGroup("RED - BOTTOM 2 Piece", new PathConstraints(3, 3));
-        }
         Command path_1 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(0), true, swerve),
                 pathGroup.get(0).getMarkers(), Constants.AutoConstants.eventMap);
         Command path_2 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(1), false, swerve),
@@ -111,7 +134,7 @@ public final class AutoCommands {
         Pose2d midPose = pathGroup.get(1).getInitialHolonomicPose();
 
         return new SequentialCommandGroup(
-                new PrintCommand(DriverStation.getAlliance().toString() + " bottom two piece"),
+                new PrintCommand(alliance.toString() + " bottom two piece"),
                 getPlaceTop(arm, armTrajectories, armIntake, leds),
                 path_1,
                 new AlignPiece(swerve, limelight).withTimeout(1.75),
@@ -125,18 +148,11 @@ public final class AutoCommands {
 
     }
 
-    public static Command getTopTwoPiece(Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
+    public static Command getTopTwoPiece(List<PathPlannerTrajectory> pathGroup,
+            Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
             ArmIntake armIntake,
             Limelight limelight,
             LEDs leds) {
-        List<PathPlannerTrajectory> pathGroup = null;
-
-        if (DriverStation.getAlliance() == Alliance.Blue) {
-            pathGroup = PathPlanner.loadPathGroup("BLUE - TOP 2 Piece", new PathConstraints(2.5, 2.5));
-
-        } else if (DriverStation.getAlliance() == Alliance.Red) {
-            pathGroup = PathPlanner.loadPathGroup("RED - TOP 2 Piece", new PathConstraints(2.5, 2.5));
-        }
         Command path_1 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(0), true, swerve),
                 pathGroup.get(0).getMarkers(), Constants.AutoConstants.eventMap);
         Command path_2 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(1), false, swerve),
@@ -156,24 +172,17 @@ public final class AutoCommands {
                 new MoveArm(arm, armTrajectories, armIntake, leds, ArmSetpoints.STOW));
     }
 
-    public static Command getTopTwoPieceCharge(Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
+    public static Command getTopTwoPieceCharge(List<PathPlannerTrajectory> pathGroup, Alliance alliance,
+            Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
             ArmIntake armIntake, Limelight limelight,
             LEDs leds) {
-        List<PathPlannerTrajectory> pathGroup = null;
-
-        if (DriverStation.getAlliance() == Alliance.Blue) {
-            pathGroup = PathPlanner.loadPathGroup("BLUE - TOP 2 Piece", new PathConstraints(2.5, 2.5));
-
-        } else if (DriverStation.getAlliance() == Alliance.Red) {
-            pathGroup = PathPlanner.loadPathGroup("RED - TOP 2 Piece", new PathConstraints(2, 2));
-        }
         Command path_1 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(0), true, swerve),
                 pathGroup.get(0).getMarkers(), Constants.AutoConstants.eventMap);
         Command path_2 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(1), false, swerve),
                 pathGroup.get(1).getMarkers(), Constants.AutoConstants.eventMap);
         Command path_3 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(2), false, swerve),
                 pathGroup.get(2).getMarkers(), Constants.AutoConstants.eventMap);
-        double goalHeading = DriverStation.getAlliance() == Alliance.Blue ? 180 : 0;
+        double goalHeading = alliance == Alliance.Blue ? 180 : 0;
 
         Pose2d midPose = pathGroup.get(1).getInitialHolonomicPose();
 
@@ -196,16 +205,8 @@ public final class AutoCommands {
     // ArmIntake armIntake,
     // Limelight limelight,
     // LEDs leds) {
-    // List<PathPlannerTrajectory> pathGroup = null;
-
-    // if (DriverStation.getAlliance() == Alliance.Blue) {
-    // pathGroup = PathPlanner.loadPathGroup("BLUE - MIDDLE LEFT Charge", new
-    // PathConstraints(2, 2));
-
-    // } else if (DriverStation.getAlliance() == Alliance.Red) {
-    // pathGroup = PathPlanner.loadPathGroup("RED - MIDDLE LEFT Charge", new
-    // PathConstraints(2, 2));
-    // }
+    // List<PathPlannerTrajectory> pathGroup = loadPathGroup(DriverStation.getAlliance(),
+    // "MIDDLE LEFT Charge", new PathConstraints(2, 2));
 
     // Command path_1 = new
     // FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(0), true, swerve),
@@ -263,18 +264,11 @@ public final class AutoCommands {
     // new AutoBalancingPID(swerve, goalHeading));
     // }
 
-    public static Command getBottomTwoPieceCharge(Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
+    public static Command getBottomTwoPieceCharge(List<PathPlannerTrajectory> pathGroup, Alliance alliance,
+            Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
             ArmIntake armIntake,
             Limelight limelight,
             LEDs leds) {
-        List<PathPlannerTrajectory> pathGroup = null;
-
-        if (DriverStation.getAlliance() == Alliance.Blue) {
-            pathGroup = PathPlanner.loadPathGroup("BLUE - BOTTOM 2 Piece", new PathConstraints(3, 3));
-
-        } else if (DriverStation.getAlliance() == Alliance.Red) {
-            pathGroup = PathPlanner.loadPathGroup("RED - BOTTOM 2 Piece", new PathConstraints(3, 3));
-        }
         Command path_1 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(0), true, swerve),
                 pathGroup.get(0).getMarkers(), Constants.AutoConstants.eventMap);
         Command path_2 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(1), false, swerve),
@@ -285,7 +279,7 @@ public final class AutoCommands {
 
         Pose2d midPose = pathGroup.get(1).getInitialHolonomicPose();
 
-        double goalHeading = DriverStation.getAlliance() == Alliance.Blue ? 0 : 180;
+        double goalHeading = alliance == Alliance.Blue ? 0 : 180;
         return new SequentialCommandGroup(
                 getPlaceTop(arm, armTrajectories, armIntake, leds),
                 path_1);
@@ -302,17 +296,10 @@ public final class AutoCommands {
         // new AutoBalancingPID(swerve, goalHeading));
     }
 
-    public static Command getTopThreePiece(Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
+    public static Command getTopThreePiece(List<PathPlannerTrajectory> pathGroup,
+            Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
             ArmIntake armIntake, Limelight limelight,
             LEDs leds) {
-        List<PathPlannerTrajectory> pathGroup = null;
-
-        if (DriverStation.getAlliance() == Alliance.Blue) {
-            pathGroup = PathPlanner.loadPathGroup("BLUE - TOP 3 Piece", new PathConstraints(3, 3));
-
-        } else if (DriverStation.getAlliance() == Alliance.Red) {
-            pathGroup = PathPlanner.loadPathGroup("RED - TOP 3 Piece", new PathConstraints(3, 3));
-        }
         Command path_1 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(0), true, swerve),
                 pathGroup.get(0).getMarkers(), Constants.AutoConstants.eventMap);
         Command path_2 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(1), false, swerve),
@@ -350,17 +337,11 @@ public final class AutoCommands {
                 new MoveArm(arm, armTrajectories, armIntake, leds, ArmSetpoints.STOW));
     }
 
-    public static Command getOnePieceTaxi(Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
+    public static Command getOnePieceTaxi(PathPlannerTrajectory path, Swerve swerve, Arm arm,
+            ArmTrajectories armTrajectories,
             ArmIntake armIntake,
             Limelight limelight,
             LEDs leds) {
-        PathPlannerTrajectory path;
-        if (DriverStation.getAlliance() == Alliance.Blue) {
-            path = PathPlanner.loadPath("TAXI Blue", new PathConstraints(1.5, 1.5));
-        } else {
-            path = PathPlanner.loadPath("TAXI Red", new PathConstraints(1.5, 1.5));
-        }
-
         Command pathCommand = new FollowPathWithEvents(followTrajectoryCommand(path, true, swerve), path.getMarkers(),
                 Constants.AutoConstants.eventMap);
         return new SequentialCommandGroup(
@@ -379,18 +360,11 @@ public final class AutoCommands {
                 getPlaceTop(arm, armTrajectories, armIntake, leds));
     }
 
-    public static Command getPieceAlign(Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
+    public static Command getPieceAlign(List<PathPlannerTrajectory> pathGroup,
+            Swerve swerve, Arm arm, ArmTrajectories armTrajectories,
             ArmIntake armIntake,
             Limelight limelight,
             LEDs leds) {
-        List<PathPlannerTrajectory> pathGroup = null;
-
-        if (DriverStation.getAlliance() == Alliance.Blue) {
-            pathGroup = PathPlanner.loadPathGroup("BLUE - Align Piece Test", new PathConstraints(1, 1));
-
-        } else if (DriverStation.getAlliance() == Alliance.Red) {
-            pathGroup = PathPlanner.loadPathGroup("RED - Align Piece Test", new PathConstraints(1, 1));
-        }
         Command path_1 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(0), true, swerve),
                 pathGroup.get(0).getMarkers(), Constants.AutoConstants.eventMap);
         Command path_2 = new FollowPathWithEvents(followTrajectoryCommand(pathGroup.get(1), false, swerve),
@@ -0,0 +1,457 @@
+package frc.robot.commands.swerve;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.EventMarker;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.PathPlannerTrajectory.StopEvent;
+import com.pathplanner.lib.PathPlannerTrajectory.StopEvent.ExecutionBehavior;
+import com.pathplanner.lib.PathPlannerTrajectory.StopEvent.WaitBehavior;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.utils.Constants.AutoConstants;
+
+/**
+ * Binary file of pregenerated PathPlanner path groups. The generateAutoPaths
+ * Gradle task (which runs main below) generates every group in SPECS from its
+ * blue .path file, and from its red one if there is one, and writes the
+ * states, event markers and stop events out. The robot memory maps the file
+ * and only decodes a group when an auto asks for it, so no path is parsed or
+ * generated on the roboRIO. A group with no red .path file is driven on red
+ * as the blue one mirrored.
+ *
+ * Each group stores a hash of the .path file it was generated from. If the
+ * deployed .path file has changed since, the group is stale and the caller
+ * falls back to generating it.
+ *
+ * Layout, big endian:
+ * magic, version, group count, then for each group its name, constraints,
+ * source hash and path count, and for each path its states, markers and stop
+ * events.
+ */
+public class AutoPathFile {
+    private static final int MAGIC = 0x50415448; // "PATH"
+
+    // bump this whenever the layout changes
+    private static final int VERSION = 2;
+
+    public static final String BLUE_PREFIX = "BLUE - ";
+    public static final String RED_PREFIX = "RED - ";
+
+    private static final String DEPLOY_NAME = "paths/paths.bin";
+
+    // time, velocity, acceleration, x, y, heading, curvature, angular velocity,
+    // holonomic rotation, holonomic angular velocity
+    private static final int STATE_SIZE = 10;
+
+    /**
+     * A path group and the constraints it is loaded with
+     */
+    public static class Spec {
+        public final String name;
+        public final PathConstraints constraints;
+
+        /**
+         * @param name        path group name without the alliance prefix
+         * @param constraints max velocity and acceleration
+         */
+        public Spec(String name, PathConstraints constraints) {
+            this.name = name;
+            this.constraints = constraints;
+        }
+    }
+
+    /**
+     * Every path group the autos load. A group that isn't here still works, it
+     * is just generated on the robot.
+     */
+    public static final List<Spec> SPECS = List.of(
+            new Spec("TOP 2 Piece", new PathConstraints(2.5, 2.5)),
+            new Spec("TOP 2 Piece", new PathConstraints(2, 2)),
+            new Spec("BOTTOM 2 Piece", new PathConstraints(3, 3)),
+            new Spec("TOP 3 Piece", new PathConstraints(3, 3)),
+            new Spec("Align Piece Test", new PathConstraints(1, 1)));
+
+    private static MappedByteBuffer mapped;
+    // group key to the offset of its paths in the mapped file
+    private static Map<String, Integer> offsets;
+    private static Map<String, Long> sourceHashes;
+
+    /**
+     * @return where the file lives in the deploy directory
+     */
+    public static Path getDeployPath() {
+        return Filesystem.getDeployDirectory().toPath().resolve(DEPLOY_NAME);
+    }
+
+    /**
+     * @param file path group name with the alliance prefix
+     * @return the .path file the group is generated from
+     */
+    public static Path getSourcePath(String file) {
+        return Filesystem.getDeployDirectory().toPath().resolve("pathplanner").resolve(file + ".path");
+    }
+
+    /**
+     * @param name path group name without the alliance prefix
+     * @return if the group has its own red .path file, tuned separately from the
+     *         blue one
+     */
+    public static boolean hasRedSource(String name) {
+        return Files.exists(getSourcePath(RED_PREFIX + name));
+    }
+
+    /**
+     * Load a path group from the deployed file
+     *
+     * @param name        path group name with the alliance prefix
+     * @param constraints
+     * @return the group, or null if it isn't in the file or is stale
+     */
+    public static synchronized List<PathPlannerTrajectory> get(String name, PathConstraints constraints) {
+        if (offsets == null) {
+            map(getDeployPath());
+        }
+        String key = key(name, constraints);
+        Integer offset = offsets.get(key);
+        if (offset == null || sourceHashes.get(key) != sourceHash(getSourcePath(name))) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = mapped.duplicate();
+            buffer.position(offset);
+            return readGroup(buffer);
+        } catch (RuntimeException e) {
+            System.out.println(e);
+            return null;
+        }
+    }
+
+    /**
+     * Mirror a blue trajectory to the red side of the field. The field is
+     * mirrored about its middle, so x and every heading flip and y stays.
+     *
+     * @param trajectory
+     * @return the red trajectory
+     */
+    public static PathPlannerTrajectory mirror(PathPlannerTrajectory trajectory) {
+        double length = AutoConstants.field_length;
+
+        List<Trajectory.State> states = new ArrayList<>(trajectory.getStates().size());
+        for (Trajectory.State blue : trajectory.getStates()) {
+            PathPlannerState state = (PathPlannerState) blue;
+            PathPlannerState red = new PathPlannerState();
+            red.timeSeconds = state.timeSeconds;
+            red.velocityMetersPerSecond = state.velocityMetersPerSecond;
+            red.accelerationMetersPerSecondSq = state.accelerationMetersPerSecondSq;
+            red.poseMeters = new Pose2d(length - state.poseMeters.getX(), state.poseMeters.getY(),
+                    mirror(state.poseMeters.getRotation()));
+            red.curvatureRadPerMeter = -state.curvatureRadPerMeter;
+            red.angularVelocityRadPerSec = -state.angularVelocityRadPerSec;
+            red.holonomicRotation = mirror(state.holonomicRotation);
+            red.holonomicAngularVelocityRadPerSec = -state.holonomicAngularVelocityRadPerSec;
+            states.add(red);
+        }
+
+        List<EventMarker> markers = new ArrayList<>(trajectory.getMarkers().size());
+        for (EventMarker blue : trajectory.getMarkers()) {
+            EventMarker red = new EventMarker(blue.names, blue.waypointRelativePos);
+            red.timeSeconds = blue.timeSeconds;
+            red.positionMeters = new Translation2d(length - blue.positionMeters.getX(), blue.positionMeters.getY());
+            markers.add(red);
+        }
+
+        return new PathPlannerTrajectory(states, markers, trajectory.getStartStopEvent(),
+                trajectory.getEndStopEvent(), trajectory.fromGUI);
+    }
+
+    private static Rotation2d mirror(Rotation2d rotation) {
+        return new Rotation2d(-rotation.getCos(), rotation.getSin());
+    }
+
+    /**
+     * Generate every group in SPECS and write them out, replacing the file if
+     * it exists
+     *
+     * @param path
+     * @return number of groups written
+     * @throws IOException
+     */
+    public static int write(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        buffer = putInt(buffer, MAGIC);
+        buffer = putInt(buffer, VERSION);
+
+        List<String> files = new ArrayList<>();
+        List<PathConstraints> constraints = new ArrayList<>();
+        for (Spec spec : SPECS) {
+            files.add(BLUE_PREFIX + spec.name);
+            constraints.add(spec.constraints);
+            if (hasRedSource(spec.name)) {
+                files.add(RED_PREFIX + spec.name);
+                constraints.add(spec.constraints);
+            }
+        }
+        buffer = putInt(buffer, files.size());
+
+        for (int i = 0; i < files.size(); i++) {
+            String file = files.get(i);
+            List<PathPlannerTrajectory> group = PathPlanner.loadPathGroup(file, constraints.get(i));
+            if (group == null || group.isEmpty()) {
+                throw new IOException("Couldn't generate path group " + file);
+            }
+            buffer = putString(buffer, file);
+            buffer = putDouble(buffer, constraints.get(i).maxVelocity);
+            buffer = putDouble(buffer, constraints.get(i).maxAcceleration);
+            buffer = putLong(buffer, sourceHash(getSourcePath(file)));
+            buffer = putInt(buffer, group.size());
+            for (PathPlannerTrajectory trajectory : group) {
+                buffer = putTrajectory(buffer, trajectory);
+            }
+        }
+        buffer.flip();
+
+        Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return files.size();
+    }
+
+    /**
+     * Memory map a file and index its groups, leaving the index empty if the
+     * file is missing, corrupt or from another version
+     */
+    private static void map(Path path) {
+        offsets = new HashMap<>();
+        sourceHashes = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer buffer = mapped.duplicate();
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return;
+            }
+
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                String name = getString(buffer);
+                PathConstraints constraints = new PathConstraints(buffer.getDouble(), buffer.getDouble());
+                String key = key(name, constraints);
+                sourceHashes.put(key, buffer.getLong());
+                offsets.put(key, buffer.position());
+                // skip over the group
+                readGroup(buffer);
+            }
+        } catch (NoSuchFileException e) {
+            offsets.clear();
+        } catch (IOException | RuntimeException e) {
+            System.out.println(e);
+            offsets.clear();
+        }
+    }
+
+    private static List<PathPlannerTrajectory> readGroup(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<PathPlannerTrajectory> group = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            group.add(getTrajectory(buffer));
+        }
+        return group;
+    }
+
+    private static PathPlannerTrajectory getTrajectory(ByteBuffer buffer) {
+        int stateCount = buffer.getInt();
+        double[] data = new double[stateCount * STATE_SIZE];
+        buffer.asDoubleBuffer().get(data);
+        buffer.position(buffer.position() + data.length * 8);
+
+        List<Trajectory.State> states = new ArrayList<>(stateCount);
+        for (int i = 0; i < data.length; i += STATE_SIZE) {
+            PathPlannerState state = new PathPlannerState();
+            state.timeSeconds = data[i];
+            state.velocityMetersPerSecond = data[i + 1];
+            state.accelerationMetersPerSecondSq = data[i + 2];
+            state.poseMeters = new Pose2d(data[i + 3], data[i + 4], new Rotation2d(data[i + 5]));
+            state.curvatureRadPerMeter = data[i + 6];
+            state.angularVelocityRadPerSec = data[i + 7];
+            state.holonomicRotation = new Rotation2d(data[i + 8]);
+            state.holonomicAngularVelocityRadPerSec = data[i + 9];
+            states.add(state);
+        }
+
+        int markerCount = buffer.getInt();
+        List<EventMarker> markers = new ArrayList<>(markerCount);
+        for (int i = 0; i < markerCount; i++) {
+            EventMarker marker = new EventMarker(getStrings(buffer), buffer.getDouble());
+            marker.timeSeconds = buffer.getDouble();
+            marker.positionMeters = new Translation2d(buffer.getDouble(), buffer.getDouble());
+            markers.add(marker);
+        }
+
+        StopEvent start = getStopEvent(buffer);
+        StopEvent end = getStopEvent(buffer);
+        return new PathPlannerTrajectory(states, markers, start, end, true);
+    }
+
+    private static ByteBuffer putTrajectory(ByteBuffer buffer, PathPlannerTrajectory trajectory) {
+        List<Trajectory.State> states = trajectory.getStates();
+        buffer = putInt(buffer, states.size());
+        for (Trajectory.State s : states) {
+            PathPlannerState state = (PathPlannerState) s;
+            buffer = putDouble(buffer, state.timeSeconds);
+            buffer = putDouble(buffer, state.velocityMetersPerSecond);
+            buffer = putDouble(buffer, state.accelerationMetersPerSecondSq);
+            buffer = putDouble(buffer, state.poseMeters.getX());
+            buffer = putDouble(buffer, state.poseMeters.getY());
+            buffer = putDouble(buffer, state.poseMeters.getRotation().getRadians());
+            buffer = putDouble(buffer, state.curvatureRadPerMeter);
+            buffer = putDouble(buffer, state.angularVelocityRadPerSec);
+            buffer = putDouble(buffer, state.holonomicRotation.getRadians());
+            buffer = putDouble(buffer, state.holonomicAngularVelocityRadPerSec);
+        }
+
+        buffer = putInt(buffer, trajectory.getMarkers().size());
+        for (EventMarker marker : trajectory.getMarkers()) {
+            buffer = putStrings(buffer, marker.names);
+            buffer = putDouble(buffer, marker.waypointRelativePos);
+            buffer = putDouble(buffer, marker.timeSeconds);
+            buffer = putDouble(buffer, marker.positionMeters.getX());
+            buffer = putDouble(buffer, marker.positionMeters.getY());
+        }
+
+        buffer = putStopEvent(buffer, trajectory.getStartStopEvent());
+        return putStopEvent(buffer, trajectory.getEndStopEvent());
+    }
+
+    private static StopEvent getStopEvent(ByteBuffer buffer) {
+        List<String> names = getStrings(buffer);
+        ExecutionBehavior executionBehavior = ExecutionBehavior.values()[buffer.getInt()];
+        WaitBehavior waitBehavior = WaitBehavior.values()[buffer.getInt()];
+        return new StopEvent(names, executionBehavior, waitBehavior, buffer.getDouble());
+    }
+
+    private static ByteBuffer putStopEvent(ByteBuffer buffer, StopEvent event) {
+        buffer = putStrings(buffer, event.names);
+        buffer = putInt(buffer, event.executionBehavior.ordinal());
+        buffer = putInt(buffer, event.waitBehavior.ordinal());
+        return putDouble(buffer, event.waitTime);
+    }
+
+    private static List<String> getStrings(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add(getString(buffer));
+        }
+        return strings;
+    }
+
+    private static ByteBuffer putStrings(ByteBuffer buffer, List<String> strings) {
+        buffer = putInt(buffer, strings.size());
+        for (String string : strings) {
+            buffer = putString(buffer, string);
+        }
+        return buffer;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        buffer = ensure(buffer, 2 + bytes.length);
+        buffer.putShort((short) bytes.length);
+        return buffer.put(bytes);
+    }
+
+    private static ByteBuffer putInt(ByteBuffer buffer, int value) {
+        return ensure(buffer, 4).putInt(value);
+    }
+
+    private static ByteBuffer putLong(ByteBuffer buffer, long value) {
+        return ensure(buffer, 8).putLong(value);
+    }
+
+    private static ByteBuffer putDouble(ByteBuffer buffer, double value) {
+        return ensure(buffer, 8).putDouble(value);
+    }
+
+    /**
+     * @return the buffer, or a copy twice as large if it doesn't have room
+     */
+    private static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        return larger.put(buffer);
+    }
+
+    private static String key(String name, PathConstraints constraints) {
+        return name + "@" + constraints.maxVelocity + "/" + constraints.maxAcceleration;
+    }
+
+    /**
+     * @return 64 bit FNV-1a hash of the file, or 0 if it can't be read
+     */
+    private static long sourceHash(Path path) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (IOException e) {
+            return 0;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Generate every path group and write them out. Run by the
+     * generateAutoPaths Gradle task.
+     *
+     * @param args output path, defaults to src/main/deploy
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = args.length > 0 ? Paths.get(args[0]) : Paths.get("src", "main", "deploy", DEPLOY_NAME);
+
+        long start = System.nanoTime();
+        int groups = write(path);
+
+        System.out.printf("Wrote %d path groups to %s in %.0f ms%n", groups, path,
+                (System.nanoTime() - start) / 1e6);
+
+        // the ShuffleData in Constants can leave NetworkTables threads running
+        System.exit(0);
+    }
+}
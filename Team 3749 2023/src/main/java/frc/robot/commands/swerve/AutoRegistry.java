@@ -0,0 +1,190 @@
+package frc.robot.commands.swerve;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj2.command.Command;
+
+/**
+ * Autonomous routines by name, built only when they are needed and then kept.
+ * Routines are cached per name and alliance, since the paths are different
+ * for each alliance.
+ *
+ * Building a routine has two steps. Loading its paths (parsing the
+ * PathPlanner files and generating the trajectories) is the slow part and
+ * runs on a background thread. Composing the commands is quick but registers
+ * them with the CommandScheduler, which isn't thread safe, so it runs on the
+ * main thread. Calling prebuild() every disabled loop loads the selected
+ * routine as soon as the selection or alliance changes, so autonomousInit
+ * gets an already built command.
+ *
+ * Only call the methods from the main robot thread.
+ */
+public class AutoRegistry {
+    /**
+     * Loads the paths of a routine, called on the background thread
+     */
+    @FunctionalInterface
+    public interface PathLoader {
+        List<PathPlannerTrajectory> load(Alliance alliance);
+    }
+
+    /**
+     * Composes a routine from its loaded paths, called on the main thread
+     */
+    @FunctionalInterface
+    public interface Routine {
+        Command build(Alliance alliance, List<PathPlannerTrajectory> paths);
+    }
+
+    private static class Entry {
+        final PathLoader loader;
+        final Routine routine;
+
+        Entry(PathLoader loader, Routine routine) {
+            this.loader = loader;
+            this.routine = routine;
+        }
+    }
+
+    private final SendableChooser<String> chooser;
+    private final Map<String, Entry> entries = new HashMap<>();
+    // keyed by name and alliance
+    private final Map<String, Command> built = new HashMap<>();
+    private final Map<String, Future<List<PathPlannerTrajectory>>> loading = new HashMap<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "AutoPrebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param chooser dashboard chooser, an option is added for every routine
+     */
+    public AutoRegistry(SendableChooser<String> chooser) {
+        this.chooser = chooser;
+    }
+
+    /**
+     * Add a routine that doesn't follow any paths
+     *
+     * @param name    chooser option
+     * @param routine
+     */
+    public void add(String name, Routine routine) {
+        add(name, alliance -> List.of(), routine);
+    }
+
+    /**
+     * @param name    chooser option
+     * @param loader  loads the paths given to the routine
+     * @param routine
+     */
+    public void add(String name, PathLoader loader, Routine routine) {
+        entries.put(name, new Entry(loader, routine));
+        chooser.addOption(name, name);
+    }
+
+    /**
+     * @param name a routine that has already been added
+     */
+    public void setDefault(String name) {
+        chooser.setDefaultOption(name, name);
+    }
+
+    /**
+     * Start loading the selected routine if it hasn't been yet, and compose it
+     * once its paths are loaded. Call every loop while disabled.
+     */
+    public void prebuild() {
+        String name = chooser.getSelected();
+        Alliance alliance = DriverStation.getAlliance();
+        // the alliance isn't known until the driver station connects
+        if (name == null || !entries.containsKey(name) || alliance == Alliance.Invalid) {
+            return;
+        }
+        String key = key(name, alliance);
+        if (built.containsKey(key)) {
+            return;
+        }
+
+        Future<List<PathPlannerTrajectory>> paths = loading.get(key);
+        if (paths == null) {
+            Entry entry = entries.get(name);
+            loading.put(key, executor.submit(() -> entry.loader.load(alliance)));
+        } else if (paths.isDone()) {
+            build(name, alliance);
+        }
+    }
+
+    /**
+     * @return the selected routine, built now if it wasn't prebuilt, or null if
+     *         it couldn't be built
+     */
+    public Command getSelected() {
+        String name = chooser.getSelected();
+        return name == null ? null : get(name);
+    }
+
+    /**
+     * @param name
+     * @return the routine for the current alliance, built now if it wasn't
+     *         prebuilt, or null if there's no such routine or it couldn't be
+     *         built
+     */
+    public Command get(String name) {
+        if (!entries.containsKey(name)) {
+            return null;
+        }
+        Alliance alliance = DriverStation.getAlliance();
+        String key = key(name, alliance);
+        if (built.containsKey(key)) {
+            return built.get(key);
+        }
+        return build(name, alliance);
+    }
+
+    /**
+     * @return the name of every routine
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * A routine that fails to build is cached as null, so it isn't retried
+     * every loop
+     */
+    private Command build(String name, Alliance alliance) {
+        String key = key(name, alliance);
+        Entry entry = entries.get(name);
+        Command command = null;
+        try {
+            Future<List<PathPlannerTrajectory>> paths = loading.remove(key);
+            command = entry.routine.build(alliance, paths != null ? paths.get() : entry.loader.load(alliance));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            System.out.println(e);
+        }
+        built.put(key, command);
+        return command;
+    }
+
+    private static String key(String name, Alliance alliance) {
+        return name + "/" + alliance.name();
+    }
+}
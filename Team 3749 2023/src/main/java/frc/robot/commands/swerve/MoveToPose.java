@@ -12,7 +12,7 @@ import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.swerve.Swerve;
 import frc.robot.utils.Constants;
-import frc.robot.utils.SmartData;
+import frc.robot.utils.SmartDouble;
 
 public class MoveToPose extends CommandBase {
     private final Swerve swerve;
@@ -26,11 +26,11 @@ public class MoveToPose extends CommandBase {
     private final ProfiledPIDController turnController = new ProfiledPIDController(
             0.0, 0.0, 0.0, new TrapezoidProfile.Constraints(0.0, 0.0));
 
-    private SmartData<Double> turnKP = new SmartData<Double>("Turn KP", 2.6);
-    private SmartData<Double> drivekP = new SmartData<Double>("Drive KP", 2.5);
+    private SmartDouble turnKP = new SmartDouble("Turn KP", 2.6);
+    private SmartDouble drivekP = new SmartDouble("Drive KP", 2.5);
 
-    private SmartData<Double> turnTolerance = new SmartData<Double>("Turn tolerance", 0.1);
-    private SmartData<Double> driveTolerance = new SmartData<Double>("Drive tolerance", 0.0);
+    private SmartDouble turnTolerance = new SmartDouble("Turn tolerance", 0.1);
+    private SmartDouble driveTolerance = new SmartDouble("Drive tolerance", 0.0);
 
     public MoveToPose(Swerve swerve, Pose2d targetPose) {
         this.swerve = swerve;
@@ -52,8 +52,8 @@ public class MoveToPose extends CommandBase {
     @Override
     public void execute() {
 
-        driveController.setP(drivekP.get());
-        turnController.setP(turnKP.get());
+        drivekP.ifChanged(driveController::setP);
+        turnKP.ifChanged(turnController::setP);
 
         Pose2d currentPose = swerve.getPose();
         double currentDistance = currentPose.getTranslation().getDistance(targetPose.getTranslation());
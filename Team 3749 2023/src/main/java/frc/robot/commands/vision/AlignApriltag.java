@@ -1,7 +1,7 @@
 package frc.robot.commands.vision;
 
 import frc.robot.utils.Constants;
-import frc.robot.utils.SmartData;
+import frc.robot.utils.SmartDouble;
 import frc.robot.utils.Constants.VisionConstants;
 import frc.robot.utils.Constants.VisionConstants.Pipelines;
 
@@ -45,11 +45,11 @@ public class AlignApriltag extends CommandBase {
     private final ProfiledPIDController turnController = new ProfiledPIDController(
             0.0, 0.0, 0.0, new TrapezoidProfile.Constraints(0.0, 0.0));
 
-    private SmartData<Double> driveKP = new SmartData<Double>("Driving KP", 2.0); // 2.3
-    private SmartData<Double> turnKP = new SmartData<Double>("Turning KP", 1.5); // 2.6
+    private SmartDouble driveKP = new SmartDouble("Driving KP", 2.0); // 2.3
+    private SmartDouble turnKP = new SmartDouble("Turning KP", 1.5); // 2.6
 
-    private SmartData<Double> driveTolerance = new SmartData<Double>("Driving tolerance", 0.0); // 0.075
-    private SmartData<Double> turnTolerance = new SmartData<Double>("Turning tolerance", 0.0); // 0.1
+    private SmartDouble driveTolerance = new SmartDouble("Driving tolerance", 0.0); // 0.075
+    private SmartDouble turnTolerance = new SmartDouble("Turning tolerance", 0.0); // 0.1
 
     private PhotonTrackedTarget lastTarget;
 
@@ -121,7 +121,6 @@ public class AlignApriltag extends CommandBase {
     public void execute() {
         System.out.println(atGoal());
 
-        limelight.updatePoseAprilTags(swerve.getPoseEstimator());
         if (goalPose == null) {
             updateGoalPose();
             System.out.println("Goal Pose Is Null");
@@ -197,25 +196,27 @@ public class AlignApriltag extends CommandBase {
 
     private void updateGoalPose() {
 
-        driveController.setP(driveKP.get());
-        turnController.setP(turnKP.get());
+        driveKP.ifChanged(driveController::setP);
+        turnKP.ifChanged(turnController::setP);
 
         lastTarget = null;
 
         var robotPose2d = swerve.getPose();
 
         turnController.reset(robotPose2d.getRotation().getRadians());
-        driveController.setTolerance(driveTolerance.get());
-        turnController.setTolerance(turnTolerance.get());
-
-        var robotPose3d = new Pose3d(
-                robotPose2d.getX(),
-                robotPose2d.getY(),
-                0.0,
-                new Rotation3d(0.0, 0.0, robotPose2d.getRotation().getRadians()));
+        driveTolerance.ifChanged(driveController::setTolerance);
+        turnTolerance.ifChanged(turnController::setTolerance);
 
         var res = limelight.getLatestResult();
         if (res.hasTargets()) {
+            // where the robot was when the frame was captured, not where it is now
+            var capturePose2d = swerve.getPoseAt(res.getTimestampSeconds());
+            var robotPose3d = new Pose3d(
+                    capturePose2d.getX(),
+                    capturePose2d.getY(),
+                    0.0,
+                    new Rotation3d(0.0, 0.0, capturePose2d.getRotation().getRadians()));
+
             // Find the tag we want to chase
             // var targetOpt = res.getTargets().stream()
             // .filter(t -> !t.equals(lastTarget) && t.getPoseAmbiguity() <= .2 &&
@@ -17,7 +17,7 @@ import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.swerve.Swerve;
 import frc.robot.subsystems.vision.Limelight;
 import frc.robot.utils.Constants;
-import frc.robot.utils.SmartData;
+import frc.robot.utils.SmartDouble;
 import frc.robot.utils.Constants.VisionConstants.Pipelines;
 
 /**
@@ -33,7 +33,7 @@ public class AlignPiece extends CommandBase {
     private double error;
     private PhotonTrackedTarget lastTarget;
     private boolean hasTarget = false;
-    private SmartData<Double> yKP = new SmartData<Double>("Y KP", .05);
+    private SmartDouble yKP = new SmartDouble("Y KP", .05);
 
     private final PIDController yController = new PIDController(yKP.get(), 0, 0);
     private final ProfiledPIDController thetaController = new ProfiledPIDController(
@@ -61,7 +61,7 @@ public class AlignPiece extends CommandBase {
 
     @Override
     public void execute() {
-        yController.setP(yKP.get());
+        yKP.ifChanged(yController::setP);
 
         getError();
 
@@ -14,7 +14,7 @@ import edu.wpi.first.wpilibj2.command.CommandBase;
 import frc.robot.subsystems.swerve.Swerve;
 import frc.robot.subsystems.vision.Limelight;
 import frc.robot.utils.Constants;
-import frc.robot.utils.SmartData;
+import frc.robot.utils.SmartDouble;
 import frc.robot.utils.Constants.VisionConstants.Node;
 
 /**
@@ -32,8 +32,8 @@ public class AlignRetro extends CommandBase {
 
     private PhotonTrackedTarget lastTarget;
 
-    private SmartData<Double> xKP = new SmartData<Double>("X KP", 1.0);
-    private SmartData<Double> yKP = new SmartData<Double>("Y KP", 1.0);
+    private SmartDouble xKP = new SmartDouble("X KP", 1.0);
+    private SmartDouble yKP = new SmartDouble("Y KP", 1.0);
 
     private final PIDController xController = new PIDController(0.0, 0, 0);
     private final PIDController yController = new PIDController(0.0, 0, 0);
@@ -69,8 +69,8 @@ public class AlignRetro extends CommandBase {
 
     @Override
     public void execute() {
-        xController.setP(xKP.get());
-        yController.setP(yKP.get());
+        xKP.ifChanged(xController::setP);
+        yKP.ifChanged(yController::setP);
 
         var res = limelight.getLatestResult();
         if (res.hasTargets()) {
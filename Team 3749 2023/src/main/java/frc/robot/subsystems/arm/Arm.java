@@ -1,20 +1,18 @@
 package frc.robot.subsystems.arm;
-import com.revrobotics.CANSparkMax;
 import com.revrobotics.CANSparkMax.IdleMode;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.wpilibj.DutyCycleEncoder;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.utils.Constants;
-import frc.robot.utils.ShuffleData;
+import frc.robot.utils.InputLog;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.Telemetry;
 import frc.robot.utils.Constants.Arm.ArmSetpoints;
 
 /**
  * Double jointed arm subsystem built with 2 CANSparkMaxes at each joint and REV
- * Through Bore Encoders
+ * Through Bore Encoders, read and driven through an ArmIO
  * 
  * @author Noah Simon
  * @author Rohin Sood
@@ -23,55 +21,57 @@ import frc.robot.utils.Constants.Arm.ArmSetpoints;
 
 public class Arm extends SubsystemBase {
 
+    private final LoopProfiler.Section profiler = LoopProfiler.register("Arm");
+
     private final ArmDynamics dynamics = new ArmDynamics();
+    private final double[] feedForwardOutput = new double[2];
+    private final double[] jointAngles = new double[2];
 
-    // Shoulder motor
-    private final CANSparkMax shoulderMotor = new CANSparkMax(Constants.Arm.right_shoulder_id, MotorType.kBrushless);
-    private final DutyCycleEncoder shoulderAbsoluteEncoder = new DutyCycleEncoder(9);
-    private final PIDController shoulderPIDController = new PIDController(Constants.Arm.shoulder_kP, 0, 0);
+    private final ArmIO io;
+    private final ArmIO.ArmInputs inputs = new ArmIO.ArmInputs();
 
-    // Elbow motor
-    private final CANSparkMax elbowMotor = new CANSparkMax(Constants.Arm.left_elbow_id, MotorType.kBrushless);
-    private final DutyCycleEncoder elbowAbsoluteEncoder = new DutyCycleEncoder(8);
+    private final PIDController shoulderPIDController = new PIDController(Constants.Arm.shoulder_kP, 0, 0);
     private final PIDController elbowPIDController = new PIDController(Constants.Arm.elbow_kP, 0, 0);
 
     // safety stow
-    private Translation2d position = new Translation2d(0.3, -0.2);
+    private double positionX = 0.3;
+    private double positionY = -0.2;
     private ArmSetpoints currentSetpoint = ArmSetpoints.STOW;
 
-    private ShuffleData<Double> armCacheX = new ShuffleData<Double>("Arm", "Arm Cache X", 0.0);
-    private ShuffleData<Double> armCacheY = new ShuffleData<Double>("Arm", "Arm Cache Y", 0.0);
-    private ShuffleData<Double> armX = new ShuffleData<Double>("Arm", "Arm X", 0.0);
-    private ShuffleData<Double> armY = new ShuffleData<Double>("Arm", "Arm Y", 0.0);
-    private ShuffleData<Double> shoulderVoltage = new ShuffleData<Double>("Arm", "Shoulder Voltage", 0.0);
-    private ShuffleData<Double> shoulderFF = new ShuffleData<Double>("Arm", "Shoulder FF Output", 0.0);
-    private ShuffleData<Double> shoulderPID = new ShuffleData<Double>("Arm", "Shoulder PID Output", 0.0);
-    private ShuffleData<Double> shoulderAngle = new ShuffleData<Double>("Arm", "Shoulder Angle", 0.0);
-    private ShuffleData<Double> elbowVoltage = new ShuffleData<Double>("Arm", "Elbow Voltage", 0.0);
-    private ShuffleData<Double> elbowFF = new ShuffleData<Double>("Arm", "Elbow PID Output", 0.0);
-    private ShuffleData<Double> elbowPID = new ShuffleData<Double>("Arm", "Elbow FF Output", 0.0);
-    private ShuffleData<Double> elbowAngle = new ShuffleData<Double>("Arm", "Elbow Angle", 0.0);
+    // latest outputs, for telemetry
+    private double shoulderPIDOutput = 0;
+    private double elbowPIDOutput = 0;
+    private double measuredShoulderAngle = 0;
+    private double measuredElbowAngle = 0;
+    private double measuredX = 0;
+    private double measuredY = 0;
 
     private boolean kill = false;
 
-    public Arm() {
-        shoulderMotor.restoreFactoryDefaults();
-        elbowMotor.restoreFactoryDefaults();
-        
-        // elbow offset is done in the get angle method
-        shoulderAbsoluteEncoder.setPositionOffset(Constants.Arm.shoulder_offset);
-        shoulderAbsoluteEncoder.setDistancePerRotation(360);
-        elbowAbsoluteEncoder.setDistancePerRotation(360);
-
-        elbowMotor.setInverted(true);
-        shoulderMotor.setInverted(false);
+    /**
+     * @param io ArmIOReal on the robot, ArmIOSim in simulation
+     */
+    public Arm(ArmIO io) {
+        this.io = io;
+
+        Telemetry.addDouble("Arm/Shoulder Angle", "/Shuffleboard/Arm/Shoulder Angle", () -> measuredShoulderAngle);
+        Telemetry.addDouble("Arm/Elbow Angle", "/Shuffleboard/Arm/Elbow Angle", () -> measuredElbowAngle);
+        Telemetry.addDouble("Arm/Arm Cache X", "/Shuffleboard/Arm/Arm Cache X", () -> positionX);
+        Telemetry.addDouble("Arm/Arm Cache Y", "/Shuffleboard/Arm/Arm Cache Y", () -> positionY);
+        Telemetry.addDouble("Arm/Arm X", "/Shuffleboard/Arm/Arm X", () -> measuredX);
+        Telemetry.addDouble("Arm/Arm Y", "/Shuffleboard/Arm/Arm Y", () -> measuredY);
+        Telemetry.addDouble("Arm/Shoulder Voltage", "/Shuffleboard/Arm/Shoulder Voltage", this::getShoulderVoltage);
+        Telemetry.addDouble("Arm/Elbow Voltage", "/Shuffleboard/Arm/Elbow Voltage", this::getElbowVoltage);
+        Telemetry.addDouble("Arm/Shoulder PID Output", "/Shuffleboard/Arm/Shoulder PID Output",
+                () -> shoulderPIDOutput);
+        Telemetry.addDouble("Arm/Elbow PID Output", "/Shuffleboard/Arm/Elbow PID Output", () -> elbowPIDOutput);
+        Telemetry.addDouble("Arm/Shoulder FF Output", "/Shuffleboard/Arm/Shoulder FF Output",
+                () -> feedForwardOutput[0]);
+        Telemetry.addDouble("Arm/Elbow FF Output", "/Shuffleboard/Arm/Elbow FF Output", () -> feedForwardOutput[1]);
 
         shoulderPIDController.setTolerance(0);
         elbowPIDController.setTolerance(0);
 
-        shoulderMotor.setSmartCurrentLimit(35, 60);
-        elbowMotor.setSmartCurrentLimit(35, 60);
-
         setIdleMode(IdleMode.kCoast);
     }
 
@@ -81,11 +81,7 @@ public class Arm extends SubsystemBase {
      * @param voltage
      */
     public void setShoulderVoltage(double voltage) {
-        if (kill) {
-            shoulderMotor.setVoltage(0);
-        } else {
-            shoulderMotor.setVoltage(voltage);
-        }
+        io.setShoulderVoltage(kill ? 0 : voltage);
     }
     
     /**
@@ -94,33 +90,29 @@ public class Arm extends SubsystemBase {
      * @param voltage
      */
     public void setElbowVoltage(double voltage) {
-        if (kill) {
-            elbowMotor.setVoltage(0);
-        } else {
-            elbowMotor.setVoltage(voltage);
-        }
+        io.setElbowVoltage(kill ? 0 : voltage);
     }
 
     /**
      * Stop both arm motors
      */
     public void stop() {
-        elbowMotor.stopMotor();
-        shoulderMotor.stopMotor();
+        io.setShoulderVoltage(0);
+        io.setElbowVoltage(0);
     }
 
     /**
      * Stop shoulder motor
      */
     public void stopShoulder() {
-        shoulderMotor.stopMotor();
+        io.setShoulderVoltage(0);
     }
 
     /**
      * Stop elbow motor
      */
     public void stopElbow() {
-        elbowMotor.stopMotor();
+        io.setElbowVoltage(0);
     }
 
     /**
@@ -129,7 +121,7 @@ public class Arm extends SubsystemBase {
      * @return shoulder angle as double
      */
     public double getShoulderAngle() {
-        return (shoulderAbsoluteEncoder.getAbsolutePosition()-Constants.Arm.shoulder_offset) * 360 ;
+        return (inputs.shoulderAbsolutePosition - Constants.Arm.shoulder_offset) * 360;
         // return (shoulderAbsoluteEncoder.getAbsolutePosition() * 360.0 );
     }
 
@@ -139,42 +131,70 @@ public class Arm extends SubsystemBase {
      * @return elbow angle as double
      */
     public double getElbowAngle() {
-        return new Rotation2d(Math.toRadians(elbowAbsoluteEncoder.getAbsolutePosition() * 360 - 180))
+        return new Rotation2d(Math.toRadians(inputs.elbowAbsolutePosition * 360 - 180))
                 .rotateBy(new Rotation2d(Math.toRadians(180))).getDegrees() - Constants.Arm.elbow_offset;
         // return new Rotation2d(Math.toRadians(elbowAbsoluteEncoder.getAbsolutePosition() * 360 - 180))
         //     .rotateBy(new Rotation2d(Math.toRadians(180))).getDegrees();
     }
 
+    /**
+     * Get voltage currently applied to the shoulder motor
+     * 
+     * @return shoulder voltage
+     */
+    public double getShoulderVoltage() {
+        return inputs.shoulderAppliedVoltage;
+    }
+
+    /**
+     * Get voltage currently applied to the elbow motor
+     * 
+     * @return elbow voltage
+     */
+    public double getElbowVoltage() {
+        return inputs.elbowAppliedVoltage;
+    }
+
     /**
      * Set arm to Translation2d position
      * 
      * @param pos
      */
     public void setArmPosition(Translation2d pos) {
-        position = pos;
+        setArmPosition(pos.getX(), pos.getY());
+    }
+
+    /**
+     * Set arm to an XY position without allocating a Translation2d
+     * 
+     * @param x
+     * @param y
+     */
+    public void setArmPosition(double x, double y) {
+        positionX = x;
+        positionY = y;
     }
 
 
     /**
      * Move arm to set position using PID and DJ FF
-     * 
-     * @throws Exception
      */
     
-    private void moveArm() throws Exception {
-        double shoulderAngle = ArmKinematics.inverse(position.getX(), position.getY()).getFirst();
-        double elbowAngle = ArmKinematics.inverse(position.getX(), position.getY()).getSecond();
-
-        double[] feedForwardOutput = dynamics.feedforward(VecBuilder.fill(shoulderAngle, elbowAngle)).getData();
+    private void moveArm() {
+        if (ArmKinematics.inverse(positionX, positionY, jointAngles) != ArmKinematics.OK) {
+            System.out.println("invalid x and y, exceeds arm radius");
+            return;
+        }
+        double shoulderAngle = jointAngles[0];
+        double elbowAngle = jointAngles[1];
 
-        setShoulderVoltage(shoulderPIDController.calculate(getShoulderAngle(), shoulderAngle) + feedForwardOutput[0]);
-        setElbowVoltage(elbowPIDController.calculate(getElbowAngle(), elbowAngle) + feedForwardOutput[1]);
+        dynamics.feedforward(shoulderAngle, elbowAngle, 0, 0, 0, 0, feedForwardOutput);
 
-        shoulderPID.set(shoulderPIDController.calculate(getShoulderAngle(), shoulderAngle));
-        shoulderFF.set(feedForwardOutput[0]);
+        shoulderPIDOutput = shoulderPIDController.calculate(getShoulderAngle(), shoulderAngle);
+        elbowPIDOutput = elbowPIDController.calculate(getElbowAngle(), elbowAngle);
 
-        elbowPID.set(elbowPIDController.calculate(getElbowAngle(), elbowAngle));
-        elbowFF.set(feedForwardOutput[1]);
+        setShoulderVoltage(shoulderPIDOutput + feedForwardOutput[0]);
+        setElbowVoltage(elbowPIDOutput + feedForwardOutput[1]);
     }
 
 
@@ -220,43 +240,36 @@ public class Arm extends SubsystemBase {
      * @throws Exception Terminates the process in the event the XY exceeds the arm radius
      */
     public void ffTesting(double x, double y) throws Exception {
-        double shoulderAngle = ArmKinematics.inverse(x, y).getFirst();
-        double elbowAngle = ArmKinematics.inverse(x, y).getSecond();
-
-        double[] feedForwardOutput = dynamics.feedforward(VecBuilder.fill(shoulderAngle, elbowAngle)).getData();
+        if (ArmKinematics.inverse(x, y, jointAngles) != ArmKinematics.OK) {
+            throw new Exception("invalid x and y, exceeds arm radius");
+        }
 
-        shoulderFF.set(feedForwardOutput[0]);
-        elbowFF.set(feedForwardOutput[1]);
+        dynamics.feedforward(jointAngles[0], jointAngles[1], 0, 0, 0, 0, feedForwardOutput);
     }
 
     /**
      * @param mode IdleMode of the arm
      */
     public void setIdleMode(IdleMode mode){
-        shoulderMotor.setIdleMode(mode);
-        elbowMotor.setIdleMode(mode);
+        io.setBrakeMode(mode == IdleMode.kBrake);
     }
 
     @Override
     public void periodic() {
-        try {
-            moveArm();
-        } catch (Exception e) {
-            System.out.println(e);
-        }
-        
-        shoulderAngle.set(getShoulderAngle());
-        elbowAngle.set(getElbowAngle());
+        profiler.start();
+        io.updateInputs(inputs);
+        InputLog.process("Arm", inputs);
 
-        armCacheX.set(position.getX());
-        armCacheY.set(position.getY());
+        moveArm();
 
-        var kinematicsOutput = ArmKinematics.forward(Math.toRadians(getShoulderAngle()), Math.toRadians(getElbowAngle()));
+        measuredShoulderAngle = getShoulderAngle();
+        measuredElbowAngle = getElbowAngle();
 
-        armX.set(kinematicsOutput.getX());
-        armY.set(kinematicsOutput.getY());
+        var kinematicsOutput = ArmKinematics.forward(Math.toRadians(measuredShoulderAngle),
+                Math.toRadians(measuredElbowAngle));
+        measuredX = kinematicsOutput.getX();
+        measuredY = kinematicsOutput.getY();
 
-        shoulderVoltage.set(shoulderMotor.getBusVoltage() * shoulderMotor.getAppliedOutput());
-        elbowVoltage.set(elbowMotor.getBusVoltage() * elbowMotor.getAppliedOutput());
+        profiler.stop();
     }
 }
\ No newline at end of file
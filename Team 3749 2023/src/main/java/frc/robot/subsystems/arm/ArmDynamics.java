@@ -10,7 +10,6 @@ package frc.robot.subsystems.arm;
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.Vector;
-import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N2;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.math.system.plant.DCMotor;
@@ -35,6 +34,27 @@ public class ArmDynamics {
     private static final DCMotor shoulderDCMotor = DCMotor.getNEO(1).withReduction(250);
     private static final DCMotor elbowDCMotor = DCMotor.getNEO(1).withReduction(200);
 
+    // constant parts of the M, C and Tg matrices, computed once
+    private static final double shoulderInertia = Constants.Arm.shoulder_mass
+            * Math.pow(Constants.Arm.shoulder_cg_radius, 2.0)
+            + Constants.Arm.elbow_mass * (Math.pow(Constants.Arm.shoulder_length, 2.0)
+                    + Math.pow(Constants.Arm.elbow_cg_radius, 2.0))
+            + Constants.Arm.shoulder_moi
+            + Constants.Arm.elbow_moi;
+    private static final double elbowInertia = Constants.Arm.elbow_mass * Math.pow(Constants.Arm.elbow_cg_radius, 2.0)
+            + Constants.Arm.elbow_moi;
+    private static final double coupling = Constants.Arm.elbow_mass * Constants.Arm.shoulder_length
+            * Constants.Arm.elbow_cg_radius;
+    private static final double shoulderGravity = (Constants.Arm.shoulder_mass * Constants.Arm.shoulder_cg_radius
+            + Constants.Arm.elbow_mass * Constants.Arm.shoulder_length) * g;
+    private static final double elbowGravity = Constants.Arm.elbow_mass * Constants.Arm.elbow_cg_radius * g;
+
+    // DCMotor.getVoltage(torque, speed) split into its two constant factors
+    private static final double shoulderVoltsPerTorque = shoulderDCMotor.rOhms / shoulderDCMotor.KtNMPerAmp;
+    private static final double shoulderVoltsPerSpeed = 1.0 / shoulderDCMotor.KvRadPerSecPerVolt;
+    private static final double elbowVoltsPerTorque = elbowDCMotor.rOhms / elbowDCMotor.KtNMPerAmp;
+    private static final double elbowVoltsPerSpeed = 1.0 / elbowDCMotor.KvRadPerSecPerVolt;
+
     public ArmDynamics() {
     }
 
@@ -61,95 +81,95 @@ public class ArmDynamics {
      * (feedforward).
      */
     public Vector<N2> feedforward(Vector<N2> position, Vector<N2> velocity, Vector<N2> acceleration) {
-        var torque = M(position)
-                .times(acceleration)
-                .plus(C(position, velocity).times(velocity))
-                .plus(Tg(position));
-        return VecBuilder.fill(
-                -shoulderDCMotor.getVoltage(torque.get(0, 0), velocity.get(0, 0)),
-                elbowDCMotor.getVoltage(torque.get(1, 0), velocity.get(1, 0)));
+        double[] out = new double[2];
+        feedforward(
+                position.get(0, 0), position.get(1, 0),
+                velocity.get(0, 0), velocity.get(1, 0),
+                acceleration.get(0, 0), acceleration.get(1, 0),
+                out);
+        return VecBuilder.fill(out[0], out[1]);
     }
 
-    private Matrix<N2, N2> M(Vector<N2> position) {
-        var M = new Matrix<>(N2.instance, N2.instance);
-        M.set(
-                0,
-                0,
-                Constants.Arm.shoulder_mass * Math.pow(Constants.Arm.shoulder_cg_radius, 2.0)
-                        + Constants.Arm.elbow_mass * (Math.pow(Constants.Arm.shoulder_length, 2.0)
-                                + Math.pow(Constants.Arm.elbow_cg_radius, 2.0))
-                        + Constants.Arm.shoulder_moi
-                        + Constants.Arm.elbow_moi
-                        + 2
-                                * Constants.Arm.elbow_mass
-                                * Constants.Arm.shoulder_length
-                                * Constants.Arm.elbow_cg_radius
-                                * Math.cos(position.get(1, 0)));
-        M.set(
-                1,
-                0,
-                Constants.Arm.elbow_mass * Math.pow(Constants.Arm.elbow_cg_radius, 2.0)
-                        + Constants.Arm.elbow_moi
-                        + Constants.Arm.elbow_mass * Constants.Arm.shoulder_length * Constants.Arm.elbow_cg_radius
-                                * Math.cos(position.get(1, 0)));
-        M.set(
-                0,
-                1,
-                Constants.Arm.elbow_mass * Math.pow(Constants.Arm.elbow_cg_radius, 2.0)
-                        + Constants.Arm.elbow_moi
-                        + Constants.Arm.elbow_mass * Constants.Arm.shoulder_length * Constants.Arm.elbow_cg_radius
-                                * Math.cos(position.get(1, 0)));
-        M.set(1, 1, Constants.Arm.elbow_mass * Math.pow(Constants.Arm.elbow_cg_radius, 2.0) + Constants.Arm.elbow_moi);
-        return M;
-    }
+    /**
+     * Calculates the joint voltages based on the full joint states without
+     * allocating (feedforward). The 2x2 mass, coriolis and gravity terms are
+     * expanded by hand so this is safe to call every loop.
+     * 
+     * @param theta1 shoulder position
+     * @param theta2 elbow position
+     * @param w1     shoulder velocity
+     * @param w2     elbow velocity
+     * @param a1     shoulder acceleration
+     * @param a2     elbow acceleration
+     * @param out    array of at least 2 to write the shoulder and elbow voltages
+     *               into
+     */
+    public void feedforward(double theta1, double theta2, double w1, double w2, double a1, double a2,
+            double[] out) {
+        double cos2 = Math.cos(theta2);
+        double sin2 = Math.sin(theta2);
+        double cos1 = Math.cos(theta1);
+        double cos12 = Math.cos(theta1 + theta2);
+
+        // M * a
+        double m01 = elbowInertia + coupling * cos2;
+        double torque1 = (shoulderInertia + 2 * coupling * cos2) * a1 + m01 * a2;
+        double torque2 = m01 * a1 + elbowInertia * a2;
+
+        // C * w
+        torque1 -= coupling * sin2 * (w2 * w1 + (w1 + w2) * w2);
+        torque2 += coupling * sin2 * w1 * w1;
 
-    private Matrix<N2, N2> C(Vector<N2> position, Vector<N2> velocity) {
-        var C = new Matrix<>(N2.instance, N2.instance);
-        C.set(
-                0,
-                0,
-                -Constants.Arm.elbow_mass
-                        * Constants.Arm.shoulder_length
-                        * Constants.Arm.elbow_cg_radius
-                        * Math.sin(position.get(1, 0))
-                        * velocity.get(1, 0));
-        C.set(
-                1,
-                0,
-                Constants.Arm.elbow_mass
-                        * Constants.Arm.shoulder_length
-                        * Constants.Arm.elbow_cg_radius
-                        * Math.sin(position.get(1, 0))
-                        * velocity.get(0, 0));
-        C.set(
-                0,
-                1,
-                -Constants.Arm.elbow_mass
-                        * Constants.Arm.shoulder_length
-                        * Constants.Arm.elbow_cg_radius
-                        * Math.sin(position.get(1, 0))
-                        * (velocity.get(0, 0) + velocity.get(1, 0)));
-        return C;
+        // Tg
+        torque1 += shoulderGravity * cos1 + elbowGravity * cos12;
+        torque2 += elbowGravity * cos12;
+
+        // the shoulder voltage is negated, which is what Arm has always sent
+        out[0] = -(torque1 * shoulderVoltsPerTorque + w1 * shoulderVoltsPerSpeed);
+        out[1] = torque2 * elbowVoltsPerTorque + w2 * elbowVoltsPerSpeed;
     }
 
-    private Matrix<N2, N1> Tg(Vector<N2> position) {
-        var Tg = new Matrix<>(N2.instance, N1.instance);
-        Tg.set(
-                0,
-                0,
-                (Constants.Arm.shoulder_mass * Constants.Arm.shoulder_cg_radius
-                        + Constants.Arm.elbow_mass * Constants.Arm.shoulder_length)
-                        * g
-                        * Math.cos(position.get(0, 0))
-                        + Constants.Arm.elbow_mass
-                                * Constants.Arm.elbow_cg_radius
-                                * g
-                                * Math.cos(position.get(0, 0) + position.get(1, 0)));
-        Tg.set(
-                1,
-                0,
-                Constants.Arm.elbow_mass * Constants.Arm.elbow_cg_radius * g
-                        * Math.cos(position.get(0, 0) + position.get(1, 0)));
-        return Tg;
+    /**
+     * Calculates the joint accelerations from the joint states and motor
+     * voltages (forward dynamics). Used by ArmSim, doesn't allocate.
+     * 
+     * A positive shoulder voltage raises the arm here, the direction Arm's PID
+     * drives it, so this is the inverse of feedforward with the shoulder
+     * voltage's sign flipped.
+     * 
+     * @param theta1 shoulder position
+     * @param theta2 elbow position
+     * @param w1     shoulder velocity
+     * @param w2     elbow velocity
+     * @param v1     shoulder voltage
+     * @param v2     elbow voltage
+     * @param out    array of at least 2 to write the shoulder and elbow
+     *               accelerations into
+     */
+    public void accelerations(double theta1, double theta2, double w1, double w2, double v1, double v2,
+            double[] out) {
+        double cos2 = Math.cos(theta2);
+        double sin2 = Math.sin(theta2);
+        double cos1 = Math.cos(theta1);
+        double cos12 = Math.cos(theta1 + theta2);
+
+        // motor torques
+        double torque1 = (v1 - w1 * shoulderVoltsPerSpeed) / shoulderVoltsPerTorque;
+        double torque2 = (v2 - w2 * elbowVoltsPerSpeed) / elbowVoltsPerTorque;
+
+        // - C * w
+        torque1 += coupling * sin2 * (w2 * w1 + (w1 + w2) * w2);
+        torque2 -= coupling * sin2 * w1 * w1;
+
+        // - Tg
+        torque1 -= shoulderGravity * cos1 + elbowGravity * cos12;
+        torque2 -= elbowGravity * cos12;
+
+        // solve M * a = torque
+        double m00 = shoulderInertia + 2 * coupling * cos2;
+        double m01 = elbowInertia + coupling * cos2;
+        double det = m00 * elbowInertia - m01 * m01;
+        out[0] = (elbowInertia * torque1 - m01 * torque2) / det;
+        out[1] = (m00 * torque2 - m01 * torque1) / det;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package frc.robot.subsystems.arm;
+
+import frc.robot.utils.LoggedInputs;
+
+/**
+ * Hardware the arm reads and drives. ArmIOReal talks to the Spark MAXes and
+ * through bore encoders, ArmIOSim to an ArmSim, and the default methods do
+ * nothing, which is what a log replay uses.
+ */
+public interface ArmIO {
+    /**
+     * Everything Arm reads from its hardware in one loop
+     */
+    public static class ArmInputs implements LoggedInputs {
+        // raw absolute encoder positions, rotations from 0 to 1
+        public double shoulderAbsolutePosition = 0;
+        public double elbowAbsolutePosition = 0;
+        public double shoulderAppliedVoltage = 0;
+        public double elbowAppliedVoltage = 0;
+        public double shoulderCurrent = 0;
+        public double elbowCurrent = 0;
+
+        @Override
+        public int capacity() {
+            return 6;
+        }
+
+        @Override
+        public void toArray(double[] out) {
+            out[0] = shoulderAbsolutePosition;
+            out[1] = elbowAbsolutePosition;
+            out[2] = shoulderAppliedVoltage;
+            out[3] = elbowAppliedVoltage;
+            out[4] = shoulderCurrent;
+            out[5] = elbowCurrent;
+        }
+
+        @Override
+        public void fromArray(double[] in, int length) {
+            shoulderAbsolutePosition = in[0];
+            elbowAbsolutePosition = in[1];
+            shoulderAppliedVoltage = in[2];
+            elbowAppliedVoltage = in[3];
+            shoulderCurrent = in[4];
+            elbowCurrent = in[5];
+        }
+    }
+
+    /**
+     * @param inputs filled with the latest readings
+     */
+    public default void updateInputs(ArmInputs inputs) {
+    }
+
+    public default void setShoulderVoltage(double voltage) {
+    }
+
+    public default void setElbowVoltage(double voltage) {
+    }
+
+    /**
+     * @param brake true to brake when stopped, false to coast
+     */
+    public default void setBrakeMode(boolean brake) {
+    }
+}
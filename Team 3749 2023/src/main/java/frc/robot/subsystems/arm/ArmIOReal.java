@@ -0,0 +1,60 @@
+package frc.robot.subsystems.arm;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+
+import edu.wpi.first.wpilibj.DutyCycleEncoder;
+import frc.robot.utils.Constants;
+
+/**
+ * The arm's Spark MAXes and REV Through Bore Encoders
+ */
+public class ArmIOReal implements ArmIO {
+    private final CANSparkMax shoulderMotor = new CANSparkMax(Constants.Arm.right_shoulder_id, MotorType.kBrushless);
+    private final DutyCycleEncoder shoulderAbsoluteEncoder = new DutyCycleEncoder(
+            Constants.Arm.shoulder_encoder_channel);
+
+    private final CANSparkMax elbowMotor = new CANSparkMax(Constants.Arm.left_elbow_id, MotorType.kBrushless);
+    private final DutyCycleEncoder elbowAbsoluteEncoder = new DutyCycleEncoder(Constants.Arm.elbow_encoder_channel);
+
+    public ArmIOReal() {
+        shoulderMotor.restoreFactoryDefaults();
+        elbowMotor.restoreFactoryDefaults();
+
+        elbowMotor.setInverted(true);
+        shoulderMotor.setInverted(false);
+
+        shoulderMotor.setSmartCurrentLimit(35, 60);
+        elbowMotor.setSmartCurrentLimit(35, 60);
+
+        setBrakeMode(false);
+    }
+
+    @Override
+    public void updateInputs(ArmInputs inputs) {
+        inputs.shoulderAbsolutePosition = shoulderAbsoluteEncoder.getAbsolutePosition();
+        inputs.elbowAbsolutePosition = elbowAbsoluteEncoder.getAbsolutePosition();
+        inputs.shoulderAppliedVoltage = shoulderMotor.getBusVoltage() * shoulderMotor.getAppliedOutput();
+        inputs.elbowAppliedVoltage = elbowMotor.getBusVoltage() * elbowMotor.getAppliedOutput();
+        inputs.shoulderCurrent = shoulderMotor.getOutputCurrent();
+        inputs.elbowCurrent = elbowMotor.getOutputCurrent();
+    }
+
+    @Override
+    public void setShoulderVoltage(double voltage) {
+        shoulderMotor.setVoltage(voltage);
+    }
+
+    @Override
+    public void setElbowVoltage(double voltage) {
+        elbowMotor.setVoltage(voltage);
+    }
+
+    @Override
+    public void setBrakeMode(boolean brake) {
+        IdleMode mode = brake ? IdleMode.kBrake : IdleMode.kCoast;
+        shoulderMotor.setIdleMode(mode);
+        elbowMotor.setIdleMode(mode);
+    }
+}
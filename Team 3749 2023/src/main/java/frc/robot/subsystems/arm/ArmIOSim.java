@@ -0,0 +1,61 @@
+package frc.robot.subsystems.arm;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.utils.Constants;
+import frc.robot.utils.Constants.Arm.ArmSetpoints;
+
+/**
+ * The arm simulated by an ArmSim, stepped by the time between reads
+ */
+public class ArmIOSim implements ArmIO {
+    private final ArmSim sim;
+    private final double[] jointAngles = new double[2];
+    private double shoulderVoltage = 0;
+    private double elbowVoltage = 0;
+    private double lastTime = Timer.getFPGATimestamp();
+
+    public ArmIOSim() {
+        // start stowed
+        ArmKinematics.inverse(ArmSetpoints.STOW.translation.getX(), ArmSetpoints.STOW.translation.getY(),
+                jointAngles);
+        sim = new ArmSim(jointAngles[0], jointAngles[1]);
+    }
+
+    @Override
+    public void updateInputs(ArmInputs inputs) {
+        double now = Timer.getFPGATimestamp();
+        sim.update(shoulderVoltage, elbowVoltage, now - lastTime);
+        lastTime = now;
+
+        // the readings the encoders would give, undoing the offsets Arm applies
+        inputs.shoulderAbsolutePosition = MathUtil.inputModulus(
+                sim.getShoulderAngle() / 360 + Constants.Arm.shoulder_offset, 0, 1);
+        inputs.elbowAbsolutePosition = MathUtil.inputModulus(
+                (sim.getElbowAngle() + Constants.Arm.elbow_offset) / 360, 0, 1);
+        inputs.shoulderAppliedVoltage = MathUtil.clamp(shoulderVoltage, -RobotController.getBatteryVoltage(),
+                RobotController.getBatteryVoltage());
+        inputs.elbowAppliedVoltage = MathUtil.clamp(elbowVoltage, -RobotController.getBatteryVoltage(),
+                RobotController.getBatteryVoltage());
+        inputs.shoulderCurrent = 0;
+        inputs.elbowCurrent = 0;
+    }
+
+    @Override
+    public void setShoulderVoltage(double voltage) {
+        shoulderVoltage = voltage;
+    }
+
+    @Override
+    public void setElbowVoltage(double voltage) {
+        elbowVoltage = voltage;
+    }
+
+    /**
+     * @return the simulation, e.g. to put the arm somewhere in a test
+     */
+    public ArmSim getSim() {
+        return sim;
+    }
+}
@@ -21,6 +21,44 @@ public class ArmKinematics {
 
     private static double elbowParallelToShoulderAngle = 180;
 
+    /** inverse(x, y, out) solved the point */
+    public static final int OK = 0;
+    /** inverse(x, y, out) was given a point outside the arm's reach */
+    public static final int UNREACHABLE = 1;
+
+    // inverse kinematics grid over x in (0, reach], y in [-reach, reach]
+    private static final double gridCellSize = 0.02;
+    private static final double reach = shoulderLength + elbowLength;
+    // points closer to the shoulder than this can't be reached with the links
+    // folded
+    private static final double innerReach = Math.abs(shoulderLength - elbowLength);
+    private static final int gridColumns = (int) Math.ceil(reach / gridCellSize) + 1;
+    private static final int gridRows = (int) Math.ceil(2 * reach / gridCellSize) + 1;
+    // shoulder and elbow angles in radians for each grid node, NaN where unreachable
+    private static final double[] gridShoulder = new double[gridColumns * gridRows];
+    private static final double[] gridElbow = new double[gridColumns * gridRows];
+    // within 20 degrees of the arm being straight or folded the solution changes
+    // too fast for one Newton step, so those points use the closed form
+    private static final double singularDet = shoulderLength * elbowLength * Math.sin(Math.toRadians(20));
+
+    static {
+        for (int row = 0; row < gridRows; row++) {
+            for (int column = 0; column < gridColumns; column++) {
+                int i = row * gridColumns + column;
+                double x = column * gridCellSize;
+                double y = row * gridCellSize - reach;
+                if (x > 0 && x * x + y * y <= reach * reach) {
+                    double dist = distance(x, y);
+                    gridShoulder[i] = Math.atan2(y, x) + lawOfCosines(dist, shoulderLength, elbowLength);
+                    gridElbow[i] = lawOfCosines(shoulderLength, elbowLength, dist) - Math.PI;
+                } else {
+                    gridShoulder[i] = Double.NaN;
+                    gridElbow[i] = Double.NaN;
+                }
+            }
+        }
+    }
+
     /***
      * @param thetaB Bicep angle in radians
      * @param thetaF forearm angle in radians
@@ -59,6 +97,9 @@ public class ArmKinematics {
         if (!validXYArgs(x, y)) {
             throw new Exception("invalid x and y, exceeds arm radius");
         }
+        if (distance(x, y) < innerReach) {
+            throw new Exception("invalid x and y, too close to the shoulder");
+        }
         double dist = distance(x, y);
         // the adjacent angle of the right triangle drawn from the origin to the x-y coordinate
         double D_1 = Math.atan2(y, x);
@@ -75,6 +116,98 @@ public class ArmKinematics {
 
     }
 
+    /***
+     * Inverse kinematics without allocating or throwing. Interpolates the
+     * precomputed grid and refines the answer with one Newton step, falling
+     * back to the closed form next to the edge of the workspace.
+     * 
+     * @param x   horizontal translation in meters
+     * @param y   vertical translation in meters
+     * @param out array of at least 2, the bicep angle in degrees is written
+     *            first and the forearm angle in degrees second
+     * @return OK, or UNREACHABLE if the coordinate is outside of the possible
+     *         range of the arm, farther than both links or closer than their
+     *         difference (out is left untouched)
+     */
+    public static int inverse(double x, double y, double[] out) {
+        if (!validXYArgs(x, y) || distance(x, y) < innerReach) {
+            return UNREACHABLE;
+        }
+        // the grid only covers in front of the shoulder
+        if (x < 0) {
+            return inverseClosedForm(x, y, out);
+        }
+
+        double gridX = x / gridCellSize;
+        double gridY = (y + reach) / gridCellSize;
+        int column = Math.min((int) gridX, gridColumns - 2);
+        int row = Math.min((int) gridY, gridRows - 2);
+        int i = row * gridColumns + column;
+
+        double s00 = gridShoulder[i];
+        double s10 = gridShoulder[i + 1];
+        double s01 = gridShoulder[i + gridColumns];
+        double s11 = gridShoulder[i + gridColumns + 1];
+        // any unreachable corner means this cell straddles the edge of the workspace
+        if (Double.isNaN(s00 + s10 + s01 + s11)) {
+            return inverseClosedForm(x, y, out);
+        }
+
+        double fx = gridX - column;
+        double fy = gridY - row;
+        double shoulder = bilinear(s00, s10, s01, s11, fx, fy);
+        double elbow = bilinear(gridElbow[i], gridElbow[i + 1], gridElbow[i + gridColumns],
+                gridElbow[i + gridColumns + 1], fx, fy);
+
+        // one Newton step on forward(shoulder, elbow) - (x, y)
+        double c1 = Math.cos(shoulder);
+        double s1 = Math.sin(shoulder);
+        double c12 = Math.cos(shoulder + elbow);
+        double s12 = Math.sin(shoulder + elbow);
+        double errorX = shoulderLength * c1 + elbowLength * c12 - x;
+        double errorY = shoulderLength * s1 + elbowLength * s12 - y;
+
+        double j00 = -shoulderLength * s1 - elbowLength * s12;
+        double j01 = -elbowLength * s12;
+        double j10 = shoulderLength * c1 + elbowLength * c12;
+        double j11 = elbowLength * c12;
+        double det = j00 * j11 - j01 * j10;
+        if (Math.abs(det) < singularDet) {
+            return inverseClosedForm(x, y, out);
+        }
+
+        shoulder -= (j11 * errorX - j01 * errorY) / det;
+        elbow -= (-j10 * errorX + j00 * errorY) / det;
+
+        out[0] = Math.toDegrees(shoulder);
+        out[1] = Math.toDegrees(elbow);
+        return OK;
+    }
+
+    private static double bilinear(double v00, double v10, double v01, double v11, double fx, double fy) {
+        double bottom = v00 + (v10 - v00) * fx;
+        double top = v01 + (v11 - v01) * fx;
+        return bottom + (top - bottom) * fy;
+    }
+
+    /**
+     * Same math as inverse(x, y), for points the grid can't answer
+     *
+     * @return OK, or UNREACHABLE if rounding at the edge of the workspace made
+     *         the law of cosines NaN (out is left untouched)
+     */
+    private static int inverseClosedForm(double x, double y, double[] out) {
+        double dist = distance(x, y);
+        double shoulder = Math.toDegrees(Math.atan2(y, x) + lawOfCosines(dist, shoulderLength, elbowLength));
+        double elbow = Math.toDegrees(lawOfCosines(shoulderLength, elbowLength, dist)) - elbowParallelToShoulderAngle;
+        if (Double.isNaN(shoulder) || Double.isNaN(elbow)) {
+            return UNREACHABLE;
+        }
+        out[0] = shoulder;
+        out[1] = elbow;
+        return OK;
+    }
+
     // validates if xy vector length doesn't exceed radius of arm
     public static boolean validXYArgs(double x, double y) {
         double radiusSquared = Math.pow(shoulderLength + elbowLength, 2);
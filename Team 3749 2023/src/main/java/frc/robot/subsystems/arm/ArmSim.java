@@ -0,0 +1,152 @@
+package frc.robot.subsystems.arm;
+
+import edu.wpi.first.math.MathUtil;
+import frc.robot.utils.Constants;
+
+/**
+ * Physics simulation of the double jointed arm. Integrates the ArmDynamics
+ * equations of motion (M, C and Tg) with a fixed step RK4 at
+ * Constants.Arm.sim_dt, driven by the voltages Arm sets on its motors.
+ * ArmIOSim turns the joint angles into the readings the encoders would give.
+ *
+ * update() only advances by the time it is given, so it runs as fast as the
+ * caller steps it, e.g. from SimHooks.stepTiming in a test.
+ */
+public class ArmSim {
+    private final ArmDynamics dynamics = new ArmDynamics();
+
+    // shoulder angle, elbow angle, shoulder velocity, elbow velocity, radians
+    private final double[] state = new double[4];
+    // RK4 scratch, reused so a step doesn't allocate
+    private final double[] k1 = new double[4];
+    private final double[] k2 = new double[4];
+    private final double[] k3 = new double[4];
+    private final double[] k4 = new double[4];
+    private final double[] temp = new double[4];
+    private final double[] acceleration = new double[2];
+
+    private final double minShoulder = Math.toRadians(Constants.Arm.shoulder_min_angle);
+    private final double maxShoulder = Math.toRadians(Constants.Arm.shoulder_max_angle);
+    // the elbow limits are on the forearm's angle from horizontal, shoulder
+    // plus elbow, since the elbow's own angle from inverse kinematics is in
+    // (-180, 0]
+    private final double minForearm = Math.toRadians(Constants.Arm.elbow_min_angle);
+    private final double maxForearm = Math.toRadians(Constants.Arm.elbow_max_angle);
+
+    private double shoulderVoltage = 0;
+    private double elbowVoltage = 0;
+    // time given to update() that is shorter than a step
+    private double leftover = 0;
+
+    /**
+     * @param shoulderAngle starting shoulder angle, degrees
+     * @param elbowAngle    starting elbow angle, degrees
+     */
+    public ArmSim(double shoulderAngle, double elbowAngle) {
+        setState(shoulderAngle, elbowAngle);
+    }
+
+    /**
+     * Put the arm at rest at some angles
+     *
+     * @param shoulderAngle degrees
+     * @param elbowAngle    degrees
+     */
+    public void setState(double shoulderAngle, double elbowAngle) {
+        state[0] = Math.toRadians(shoulderAngle);
+        state[1] = Math.toRadians(elbowAngle);
+        state[2] = 0;
+        state[3] = 0;
+        leftover = 0;
+    }
+
+    /**
+     * Advance the simulation
+     *
+     * @param shoulderVoltage voltage set on the shoulder motor
+     * @param elbowVoltage    voltage set on the elbow motor
+     * @param seconds         time to advance by, stepped in sim_dt steps
+     */
+    public void update(double shoulderVoltage, double elbowVoltage, double seconds) {
+        this.shoulderVoltage = MathUtil.clamp(shoulderVoltage, -12, 12);
+        this.elbowVoltage = MathUtil.clamp(elbowVoltage, -12, 12);
+
+        leftover += seconds;
+        while (leftover >= Constants.Arm.sim_dt) {
+            step(Constants.Arm.sim_dt);
+            leftover -= Constants.Arm.sim_dt;
+        }
+    }
+
+    private void step(double dt) {
+        derivative(state, k1);
+        offset(state, k1, dt / 2, temp);
+        derivative(temp, k2);
+        offset(state, k2, dt / 2, temp);
+        derivative(temp, k3);
+        offset(state, k3, dt, temp);
+        derivative(temp, k4);
+        for (int i = 0; i < 4; i++) {
+            state[i] += dt / 6 * (k1[i] + 2 * k2[i] + 2 * k3[i] + k4[i]);
+        }
+
+        // hard stops
+        if (state[0] < minShoulder || state[0] > maxShoulder) {
+            state[0] = MathUtil.clamp(state[0], minShoulder, maxShoulder);
+            state[2] = 0;
+        }
+        double forearm = state[0] + state[1];
+        // wrapped into [min, min + 360), anything past max is against a stop
+        double wrapped = MathUtil.inputModulus(forearm, minForearm, minForearm + 2 * Math.PI);
+        if (wrapped > maxForearm) {
+            double limit = wrapped - maxForearm < minForearm + 2 * Math.PI - wrapped
+                    ? maxForearm
+                    : minForearm + 2 * Math.PI;
+            // move the elbow the short way to the stop and hold the forearm still
+            state[1] += limit - wrapped;
+            state[3] = -state[2];
+        }
+    }
+
+    private void derivative(double[] x, double[] out) {
+        dynamics.accelerations(x[0], x[1], x[2], x[3], shoulderVoltage, elbowVoltage, acceleration);
+        out[0] = x[2];
+        out[1] = x[3];
+        out[2] = acceleration[0];
+        out[3] = acceleration[1];
+    }
+
+    private static void offset(double[] x, double[] dx, double scale, double[] out) {
+        for (int i = 0; i < 4; i++) {
+            out[i] = x[i] + dx[i] * scale;
+        }
+    }
+
+    /**
+     * @return degrees
+     */
+    public double getShoulderAngle() {
+        return Math.toDegrees(state[0]);
+    }
+
+    /**
+     * @return degrees
+     */
+    public double getElbowAngle() {
+        return Math.toDegrees(state[1]);
+    }
+
+    /**
+     * @return degrees per second
+     */
+    public double getShoulderVelocity() {
+        return Math.toDegrees(state[2]);
+    }
+
+    /**
+     * @return degrees per second
+     */
+    public double getElbowVelocity() {
+        return Math.toDegrees(state[3]);
+    }
+}
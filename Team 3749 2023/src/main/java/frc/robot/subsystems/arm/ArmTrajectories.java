@@ -1,8 +1,12 @@
 package frc.robot.subsystems.arm;
 
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
@@ -28,7 +32,7 @@ public class ArmTrajectories {
      * @param waypoints
      * @return trajectory
      */
-    private Trajectory createTrajectory(Pose2d[] waypoints, boolean isReversed) {
+    private static Trajectory createTrajectory(Pose2d[] waypoints, boolean isReversed) {
         if (isReversed) {
             // iterate through waypoints from last to first
             Collections.reverse(Arrays.asList(waypoints));
@@ -49,13 +53,30 @@ public class ArmTrajectories {
                         Constants.Arm.maxAccelerationMPS));
     }
 
+    /**
+     * Re-time a trajectory to the fastest profile the joints can follow and
+     * compile it. Falls back to the uniformly capped trajectory if the optimizer
+     * rejects the path.
+     * 
+     * @param trajectory
+     * @return compiled table
+     */
+    private static ArmTrajectoryTable compile(Trajectory trajectory) {
+        try {
+            return new ArmTrajectoryTable(new ArmTrajectoryOptimizer().optimize(trajectory));
+        } catch (IllegalArgumentException e) {
+            System.out.println(e);
+            return new ArmTrajectoryTable(trajectory);
+        }
+    }
+
     /**
      * Move arm to and from sting position and stow position
      * 
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeStowToStingTrajectory(boolean isReversed) {
+    private static Trajectory makeStowToStingTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.STOW.toPose2d(Math.PI / 4),
                 ArmSetpoints.STING.toPose2d(Math.PI / 2)
@@ -70,7 +91,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeCubeStowToStingTrajectory(boolean isReversed) {
+    private static Trajectory makeCubeStowToStingTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.CUBE_STOW.toPose2d(Math.PI / 4),
                 ArmSetpoints.STING.toPose2d(Math.PI / 2)
@@ -85,7 +106,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeStingToTopNodeTrajectory(boolean isReversed) {
+    private static Trajectory makeStingToTopNodeTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 // ArmSetpoints.STING.toPose2d(Math.PI / 2.5),
                 ArmSetpoints.STING.toPose2d(Math.PI / 4
@@ -104,7 +125,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeStingToMidNodeTrajectory(boolean isReversed) {
+    private static Trajectory makeStingToMidNodeTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.STING.toPose2d(0),
                 ArmSetpoints.PLACE_MID.toPose2d(Math.PI * 5 / 3)
@@ -119,7 +140,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeStowToDoubleSubstationCubeTrajectory(boolean isReversed) {
+    private static Trajectory makeStowToDoubleSubstationCubeTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.STOW.toPose2d(Math.PI / 4),
                 ArmSetpoints.DOUBLE_SUBSTATION_CUBE.toPose2d(Math.PI / 2)
@@ -134,7 +155,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeCubeStowToDoubleSubstationCubeTrajectory(boolean isReversed) {
+    private static Trajectory makeCubeStowToDoubleSubstationCubeTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.CUBE_STOW.toPose2d(Math.PI / 4),
                 ArmSetpoints.DOUBLE_SUBSTATION_CUBE.toPose2d(Math.PI / 2)
@@ -149,7 +170,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeStowToDoubleSubstationConeTrajectory(boolean isReversed) {
+    private static Trajectory makeStowToDoubleSubstationConeTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.STOW.toPose2d(Math.PI / 4),
                 ArmSetpoints.DOUBLE_SUBSTATION_CONE.toPose2d(Math.PI / 2)
@@ -164,7 +185,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeCubeStowToDoubleSubstationConeTrajectory(boolean isReversed) {
+    private static Trajectory makeCubeStowToDoubleSubstationConeTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.CUBE_STOW.toPose2d(Math.PI / 4),
                 ArmSetpoints.DOUBLE_SUBSTATION_CONE.toPose2d(Math.PI / 2)
@@ -179,7 +200,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeStowToSingleSubstationTrajectory(boolean isReversed) {
+    private static Trajectory makeStowToSingleSubstationTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.STOW.toPose2d(Math.PI / 4),
                 ArmSetpoints.SINGLE_SUBSTATION.toPose2d(Math.PI / 2)
@@ -194,7 +215,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeCubeStowToSingleSubstationTrajectory(boolean isReversed) {
+    private static Trajectory makeCubeStowToSingleSubstationTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.CUBE_STOW.toPose2d(Math.PI / 4),
                 ArmSetpoints.SINGLE_SUBSTATION.toPose2d(Math.PI / 2)
@@ -209,7 +230,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeStowToCubeGroundIntakeTrajectory(boolean isReversed) {
+    private static Trajectory makeStowToCubeGroundIntakeTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.STOW.toPose2d(0),
                 new Pose2d(0.7, 0.1, new Rotation2d(0)),
@@ -228,7 +249,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeCubeStowToCubeGroundIntakeTrajectory(boolean isReversed) {
+    private static Trajectory makeCubeStowToCubeGroundIntakeTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.CUBE_STOW.toPose2d(0),
                 new Pose2d(0.7, 0.2, new Rotation2d(0)),
@@ -244,7 +265,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeMidNodeToTopNodeTrajectory(boolean isReversed) {
+    private static Trajectory makeMidNodeToTopNodeTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.PLACE_MID.toPose2d(Math.PI / 3),
                 ArmSetpoints.PLACE_TOP.toPose2d(Math.PI / 8),
@@ -260,7 +281,7 @@ public class ArmTrajectories {
      * @param isReversed
      * @return Trajectory
      */
-    private Trajectory makeStowToCubeStowTrajectory(boolean isReversed) {
+    private static Trajectory makeStowToCubeStowTrajectory(boolean isReversed) {
         Pose2d[] waypoints = new Pose2d[] {
                 ArmSetpoints.STOW.toPose2d(0),
                 ArmSetpoints.CUBE_STOW.toPose2d(Math.PI / 4 + Math.PI)
@@ -271,203 +292,352 @@ public class ArmTrajectories {
     }
 
     // top
-    private final Trajectory stowToTop = makeStowToStingTrajectory(false)
-            .concatenate(makeStingToTopNodeTrajectory(false));
-    private final Trajectory cubeStowToTop = makeCubeStowToStingTrajectory(false)
-            .concatenate(makeStingToTopNodeTrajectory(false));
-    private final Trajectory stingToTop = makeStingToTopNodeTrajectory(false);
-    private final Trajectory topToStow = makeStingToTopNodeTrajectory(true)
-            .concatenate(makeStowToStingTrajectory(true));
-    private final Trajectory topToCubeSstow = makeStingToTopNodeTrajectory(true)
-            .concatenate(makeCubeStowToStingTrajectory(true));
-    private final Trajectory topToSting = makeStingToTopNodeTrajectory(true);
-    private final Trajectory topToMid = makeMidNodeToTopNodeTrajectory(true);
+    private final ArmTrajectoryTable stowToTop;
+    private final ArmTrajectoryTable cubeStowToTop;
+    private final ArmTrajectoryTable stingToTop;
+    private final ArmTrajectoryTable topToStow;
+    private final ArmTrajectoryTable topToCubeSstow;
+    private final ArmTrajectoryTable topToSting;
+    private final ArmTrajectoryTable topToMid;
 
     // mid
-    private final Trajectory stowToMid = makeStowToStingTrajectory(false)
-            .concatenate(makeStingToMidNodeTrajectory(false));
-    private final Trajectory cubeStowToMid = makeCubeStowToStingTrajectory(false)
-            .concatenate(makeStingToMidNodeTrajectory(false));
-    private final Trajectory stingToMid = makeStingToMidNodeTrajectory(false);
-    private final Trajectory midToStow = makeStingToMidNodeTrajectory(true)
-            .concatenate(makeStowToStingTrajectory(true));
-    private final Trajectory midToCubeStow = makeStingToMidNodeTrajectory(true)
-            .concatenate(makeCubeStowToStingTrajectory(true));
-    private final Trajectory midToSting = makeStingToMidNodeTrajectory(true);
-    private final Trajectory midToTop = makeMidNodeToTopNodeTrajectory(false);
+    private final ArmTrajectoryTable stowToMid;
+    private final ArmTrajectoryTable cubeStowToMid;
+    private final ArmTrajectoryTable stingToMid;
+    private final ArmTrajectoryTable midToStow;
+    private final ArmTrajectoryTable midToCubeStow;
+    private final ArmTrajectoryTable midToSting;
+    private final ArmTrajectoryTable midToTop;
 
     // double sub
-    private final Trajectory stowToDoubleSubCone = makeStowToDoubleSubstationConeTrajectory(false);
-    private final Trajectory cubeStowToDoubleSubCone = makeCubeStowToDoubleSubstationConeTrajectory(false);
-    private final Trajectory doubleSubConeToStow = makeStowToDoubleSubstationConeTrajectory(true);
-    private final Trajectory doubleSubConeToCubeStow = makeCubeStowToDoubleSubstationConeTrajectory(true);
+    private final ArmTrajectoryTable stowToDoubleSubCone;
+    private final ArmTrajectoryTable cubeStowToDoubleSubCone;
+    private final ArmTrajectoryTable doubleSubConeToStow;
+    private final ArmTrajectoryTable doubleSubConeToCubeStow;
 
-    private final Trajectory stowToDoubleSubCube = makeStowToDoubleSubstationCubeTrajectory(false);
-    private final Trajectory cubeStowToDoubleSubCube = makeCubeStowToDoubleSubstationCubeTrajectory(false);
-    private final Trajectory doubleSubCubeToStow = makeStowToDoubleSubstationCubeTrajectory(true);
-    private final Trajectory doubleSubCubeToCubeStow = makeCubeStowToDoubleSubstationCubeTrajectory(true);
+    private final ArmTrajectoryTable stowToDoubleSubCube;
+    private final ArmTrajectoryTable cubeStowToDoubleSubCube;
+    private final ArmTrajectoryTable doubleSubCubeToStow;
+    private final ArmTrajectoryTable doubleSubCubeToCubeStow;
 
     // single sub
-    // private final Trajectory stowToSingleSub = makeStowToSingleSubstationTrajectory(false);
-    // private final Trajectory cubeStowToSingleSub = makeCubeStowToSingleSubstationTrajectory(false);
-    // private final Trajectory singleSubToStow = makeStowToSingleSubstationTrajectory(true);
-    // private final Trajectory singleSubToCubeStow = makeCubeStowToSingleSubstationTrajectory(true);
+    // private final ArmTrajectoryTable stowToSingleSub;
+    // private final ArmTrajectoryTable cubeStowToSingleSub;
+    // private final ArmTrajectoryTable singleSubToStow;
+    // private final ArmTrajectoryTable singleSubToCubeStow;
 
     // ground intake cube
-    private final Trajectory stowToGroundIntakeCube = makeStowToCubeGroundIntakeTrajectory(false);
-    private final Trajectory cubeStowToGroundIntakeCube = makeCubeStowToCubeGroundIntakeTrajectory(false);
-    private final Trajectory groundIntakeCubeToStow = makeStowToCubeGroundIntakeTrajectory(true);
-    private final Trajectory groundIntakeCubeToCubeStow = makeCubeStowToCubeGroundIntakeTrajectory(true);
+    private final ArmTrajectoryTable stowToGroundIntakeCube;
+    private final ArmTrajectoryTable cubeStowToGroundIntakeCube;
+    private final ArmTrajectoryTable groundIntakeCubeToStow;
+    private final ArmTrajectoryTable groundIntakeCubeToCubeStow;
 
     // Stow / Cube Stow / Sting
-    private final Trajectory stowToSting = makeStowToStingTrajectory(false);
-    private final Trajectory cubeStowToSting = makeCubeStowToStingTrajectory(false);
-    private final Trajectory stingToStow = makeStowToStingTrajectory(true);
-    private final Trajectory stingToCubeStow = makeCubeStowToStingTrajectory(true);
-    private final Trajectory stowToCubeStow = makeStowToCubeStowTrajectory(false);
-    private final Trajectory cubeStowToStow = makeStowToCubeStowTrajectory(true);
-
-    public Trajectory getStowToTop() {
+    private final ArmTrajectoryTable stowToSting;
+    private final ArmTrajectoryTable cubeStowToSting;
+    private final ArmTrajectoryTable stingToStow;
+    private final ArmTrajectoryTable stingToCubeStow;
+    private final ArmTrajectoryTable stowToCubeStow;
+    private final ArmTrajectoryTable cubeStowToStow;
+
+    private final ArmTrajectoryGraph graph;
+
+    // every table the constructor reads, in the order generateTables makes them
+    private static final List<String> TABLE_NAMES = List.of(
+            "stowToTop", "cubeStowToTop", "stingToTop", "topToStow", "topToCubeSstow", "topToSting", "topToMid",
+            "stowToMid", "cubeStowToMid", "stingToMid", "midToStow", "midToCubeStow", "midToSting", "midToTop",
+            "stowToDoubleSubCone", "cubeStowToDoubleSubCone", "doubleSubConeToStow", "doubleSubConeToCubeStow",
+            "stowToDoubleSubCube", "cubeStowToDoubleSubCube", "doubleSubCubeToStow", "doubleSubCubeToCubeStow",
+            "stowToGroundIntakeCube", "cubeStowToGroundIntakeCube", "groundIntakeCubeToStow",
+            "groundIntakeCubeToCubeStow",
+            "stowToSting", "cubeStowToSting", "stingToStow", "stingToCubeStow", "stowToCubeStow", "cubeStowToStow");
+
+    /**
+     * Load the compiled trajectories from the deploy directory, regenerating
+     * them if the file is missing, stale, or doesn't have every table
+     */
+    public ArmTrajectories() {
+        Map<String, ArmTrajectoryTable> tables = loadTables();
+
+        stowToTop = tables.get("stowToTop");
+        cubeStowToTop = tables.get("cubeStowToTop");
+        stingToTop = tables.get("stingToTop");
+        topToStow = tables.get("topToStow");
+        topToCubeSstow = tables.get("topToCubeSstow");
+        topToSting = tables.get("topToSting");
+        topToMid = tables.get("topToMid");
+        stowToMid = tables.get("stowToMid");
+        cubeStowToMid = tables.get("cubeStowToMid");
+        stingToMid = tables.get("stingToMid");
+        midToStow = tables.get("midToStow");
+        midToCubeStow = tables.get("midToCubeStow");
+        midToSting = tables.get("midToSting");
+        midToTop = tables.get("midToTop");
+        stowToDoubleSubCone = tables.get("stowToDoubleSubCone");
+        cubeStowToDoubleSubCone = tables.get("cubeStowToDoubleSubCone");
+        doubleSubConeToStow = tables.get("doubleSubConeToStow");
+        doubleSubConeToCubeStow = tables.get("doubleSubConeToCubeStow");
+        stowToDoubleSubCube = tables.get("stowToDoubleSubCube");
+        cubeStowToDoubleSubCube = tables.get("cubeStowToDoubleSubCube");
+        doubleSubCubeToStow = tables.get("doubleSubCubeToStow");
+        doubleSubCubeToCubeStow = tables.get("doubleSubCubeToCubeStow");
+        stowToGroundIntakeCube = tables.get("stowToGroundIntakeCube");
+        cubeStowToGroundIntakeCube = tables.get("cubeStowToGroundIntakeCube");
+        groundIntakeCubeToStow = tables.get("groundIntakeCubeToStow");
+        groundIntakeCubeToCubeStow = tables.get("groundIntakeCubeToCubeStow");
+        stowToSting = tables.get("stowToSting");
+        cubeStowToSting = tables.get("cubeStowToSting");
+        stingToStow = tables.get("stingToStow");
+        stingToCubeStow = tables.get("stingToCubeStow");
+        stowToCubeStow = tables.get("stowToCubeStow");
+        cubeStowToStow = tables.get("cubeStowToStow");
+
+        graph = new ArmTrajectoryGraph(this);
+    }
+
+    /**
+     * @param from
+     * @param to
+     * @return the fastest trajectory between two setpoints, or null if there is
+     *         none
+     */
+    public ArmTrajectoryTable getRoute(ArmSetpoints from, ArmSetpoints to) {
+        return graph.getRoute(from, to);
+    }
+
+    /**
+     * Read the trajectory file generated at build time. If it is missing, was
+     * generated from different arm constants, or is missing any table the
+     * constructor needs, generate the trajectories in memory instead. The deploy
+     * directory is left alone; redeploying writes a fresh file.
+     * 
+     * @return table name to table, with every name in TABLE_NAMES
+     */
+    private static Map<String, ArmTrajectoryTable> loadTables() {
+        Path path = ArmTrajectoryFile.getDeployPath();
+        Map<String, ArmTrajectoryTable> tables = ArmTrajectoryFile.read(path);
+        if (tables != null && tables.keySet().containsAll(TABLE_NAMES)) {
+            return tables;
+        }
+
+        System.out.println("Arm trajectory file missing or stale, regenerating");
+        return generateTables();
+    }
+
+    /**
+     * Generate and compile every arm trajectory. Used offline by
+     * ArmTrajectoryFile and as the fallback when the file is stale.
+     * 
+     * @return table name to table
+     */
+    public static Map<String, ArmTrajectoryTable> generateTables() {
+        Map<String, ArmTrajectoryTable> tables = new LinkedHashMap<>();
+
+        // top
+        tables.put("stowToTop", compile(makeStowToStingTrajectory(false)
+                    .concatenate(makeStingToTopNodeTrajectory(false))));
+        tables.put("cubeStowToTop", compile(makeCubeStowToStingTrajectory(false)
+                    .concatenate(makeStingToTopNodeTrajectory(false))));
+        tables.put("stingToTop", compile(makeStingToTopNodeTrajectory(false)));
+        tables.put("topToStow", compile(makeStingToTopNodeTrajectory(true)
+                    .concatenate(makeStowToStingTrajectory(true))));
+        tables.put("topToCubeSstow", compile(makeStingToTopNodeTrajectory(true)
+                    .concatenate(makeCubeStowToStingTrajectory(true))));
+        tables.put("topToSting", compile(makeStingToTopNodeTrajectory(true)));
+        tables.put("topToMid", compile(makeMidNodeToTopNodeTrajectory(true)));
+
+        // mid
+        tables.put("stowToMid", compile(makeStowToStingTrajectory(false)
+                    .concatenate(makeStingToMidNodeTrajectory(false))));
+        tables.put("cubeStowToMid", compile(makeCubeStowToStingTrajectory(false)
+                    .concatenate(makeStingToMidNodeTrajectory(false))));
+        tables.put("stingToMid", compile(makeStingToMidNodeTrajectory(false)));
+        tables.put("midToStow", compile(makeStingToMidNodeTrajectory(true)
+                    .concatenate(makeStowToStingTrajectory(true))));
+        tables.put("midToCubeStow", compile(makeStingToMidNodeTrajectory(true)
+                    .concatenate(makeCubeStowToStingTrajectory(true))));
+        tables.put("midToSting", compile(makeStingToMidNodeTrajectory(true)));
+        tables.put("midToTop", compile(makeMidNodeToTopNodeTrajectory(false)));
+
+        // double sub
+        tables.put("stowToDoubleSubCone", compile(makeStowToDoubleSubstationConeTrajectory(false)));
+        tables.put("cubeStowToDoubleSubCone", compile(makeCubeStowToDoubleSubstationConeTrajectory(false)));
+        tables.put("doubleSubConeToStow", compile(makeStowToDoubleSubstationConeTrajectory(true)));
+        tables.put("doubleSubConeToCubeStow", compile(makeCubeStowToDoubleSubstationConeTrajectory(true)));
+
+        tables.put("stowToDoubleSubCube", compile(makeStowToDoubleSubstationCubeTrajectory(false)));
+        tables.put("cubeStowToDoubleSubCube", compile(makeCubeStowToDoubleSubstationCubeTrajectory(false)));
+        tables.put("doubleSubCubeToStow", compile(makeStowToDoubleSubstationCubeTrajectory(true)));
+        tables.put("doubleSubCubeToCubeStow", compile(makeCubeStowToDoubleSubstationCubeTrajectory(true)));
+
+        // single sub
+        // tables.put("stowToSingleSub", compile(makeStowToSingleSubstationTrajectory(false)));
+        // tables.put("cubeStowToSingleSub", compile(makeCubeStowToSingleSubstationTrajectory(false)));
+        // tables.put("singleSubToStow", compile(makeStowToSingleSubstationTrajectory(true)));
+        // tables.put("singleSubToCubeStow", compile(makeCubeStowToSingleSubstationTrajectory(true)));
+
+        // ground intake cube
+        tables.put("stowToGroundIntakeCube",
+                compile(makeStowToCubeGroundIntakeTrajectory(false)));
+        tables.put("cubeStowToGroundIntakeCube", compile(makeCubeStowToCubeGroundIntakeTrajectory(false)));
+        tables.put("groundIntakeCubeToStow", compile(makeStowToCubeGroundIntakeTrajectory(true)));
+        tables.put("groundIntakeCubeToCubeStow", compile(makeCubeStowToCubeGroundIntakeTrajectory(true)));
+
+        // Stow / Cube Stow / Sting
+        tables.put("stowToSting", compile(makeStowToStingTrajectory(false)));
+        tables.put("cubeStowToSting", compile(makeCubeStowToStingTrajectory(false)));
+        tables.put("stingToStow", compile(makeStowToStingTrajectory(true)));
+        tables.put("stingToCubeStow", compile(makeCubeStowToStingTrajectory(true)));
+        tables.put("stowToCubeStow", compile(makeStowToCubeStowTrajectory(false)));
+        tables.put("cubeStowToStow", compile(makeStowToCubeStowTrajectory(true)));
+
+        if (!tables.keySet().equals(Set.copyOf(TABLE_NAMES))) {
+            throw new IllegalStateException("generated arm trajectories don't match TABLE_NAMES: " + tables.keySet());
+        }
+        return tables;
+    }
+
+    public ArmTrajectoryTable getStowToTop() {
         return stowToTop;
     }
 
-    public Trajectory getCubeStowToTop() {
+    public ArmTrajectoryTable getCubeStowToTop() {
         return cubeStowToTop;
     }
 
-    public Trajectory getStingToTop() {
+    public ArmTrajectoryTable getStingToTop() {
         return stingToTop;
     }
 
-    public Trajectory getTopToStow() {
+    public ArmTrajectoryTable getTopToStow() {
         return topToStow;
     }
 
-    public Trajectory getTopToCubeStow() {
+    public ArmTrajectoryTable getTopToCubeStow() {
         return topToCubeSstow;
     }
 
-    public Trajectory getTopToSting() {
+    public ArmTrajectoryTable getTopToSting() {
         return topToSting;
     }
 
-    public Trajectory getTopToMid() {
+    public ArmTrajectoryTable getTopToMid() {
         return topToMid;
     }
 
-    public Trajectory getStowToMid() {
+    public ArmTrajectoryTable getStowToMid() {
         return stowToMid;
     }
 
-    public Trajectory getCubeStowToMid() {
+    public ArmTrajectoryTable getCubeStowToMid() {
         return cubeStowToMid;
     }
 
-    public Trajectory getStingToMid() {
+    public ArmTrajectoryTable getStingToMid() {
         return stingToMid;
     }
 
-    public Trajectory getMidToStow() {
+    public ArmTrajectoryTable getMidToStow() {
         return midToStow;
     }
 
-    public Trajectory getMidToCubeStow() {
+    public ArmTrajectoryTable getMidToCubeStow() {
         return midToCubeStow;
     }
 
-    public Trajectory getMidToSting() {
+    public ArmTrajectoryTable getMidToSting() {
         return midToSting;
     }
 
-    public Trajectory getMidToTop() {
+    public ArmTrajectoryTable getMidToTop() {
         return midToTop;
     }
 
-    public Trajectory getStowToDoubleSubCone() {
+    public ArmTrajectoryTable getStowToDoubleSubCone() {
         return stowToDoubleSubCone;
     }
 
-    public Trajectory getCubeStowToDoubleSubCone() {
+    public ArmTrajectoryTable getCubeStowToDoubleSubCone() {
         return cubeStowToDoubleSubCone;
     }
 
-    public Trajectory getDoubleSubConeToStow() {
+    public ArmTrajectoryTable getDoubleSubConeToStow() {
         return doubleSubConeToStow;
     }
 
-    public Trajectory getDoubleSubConeToCubeStow() {
+    public ArmTrajectoryTable getDoubleSubConeToCubeStow() {
         return doubleSubConeToCubeStow;
     }
 
-    public Trajectory getStowToDoubleSubCube() {
+    public ArmTrajectoryTable getStowToDoubleSubCube() {
         return stowToDoubleSubCube;
     }
 
-    public Trajectory getCubeStowToDoubleSubCube() {
+    public ArmTrajectoryTable getCubeStowToDoubleSubCube() {
         return cubeStowToDoubleSubCube;
     }
 
-    public Trajectory getDoubleSubCubeToStow() {
+    public ArmTrajectoryTable getDoubleSubCubeToStow() {
         return doubleSubCubeToStow;
     }
 
-    public Trajectory getDoubleSubCubeToCubeStow() {
+    public ArmTrajectoryTable getDoubleSubCubeToCubeStow() {
         return doubleSubCubeToCubeStow;
     }
 
-    // public Trajectory getSingleSubToCubeStow() {
+    // public ArmTrajectoryTable getSingleSubToCubeStow() {
     //     return singleSubToCubeStow;
     // }
 
-    // public Trajectory getSingleSubToStow() {
+    // public ArmTrajectoryTable getSingleSubToStow() {
     //     return singleSubToStow;
     // }
 
-    // public Trajectory getCubeStowToSingleSub() {
+    // public ArmTrajectoryTable getCubeStowToSingleSub() {
     //     return cubeStowToSingleSub;
     // }
 
-    // public Trajectory getStowToSingleSub() {
+    // public ArmTrajectoryTable getStowToSingleSub() {
     //     return stowToSingleSub;
     // }
 
-    public Trajectory getStowToGroundIntakeCube() {
+    public ArmTrajectoryTable getStowToGroundIntakeCube() {
         return stowToGroundIntakeCube;
     }
 
-    public Trajectory getCubeStowToGroundIntakeCube() {
+    public ArmTrajectoryTable getCubeStowToGroundIntakeCube() {
         return cubeStowToGroundIntakeCube;
     }
 
-    public Trajectory getGroundIntakeCubeToStow() {
+    public ArmTrajectoryTable getGroundIntakeCubeToStow() {
         return groundIntakeCubeToStow;
     }
 
-    public Trajectory getGroundIntakeCubeToCubeStow() {
+    public ArmTrajectoryTable getGroundIntakeCubeToCubeStow() {
         return groundIntakeCubeToCubeStow;
     }
 
-    public Trajectory getStowToSting() {
+    public ArmTrajectoryTable getStowToSting() {
         return stowToSting;
     }
 
-    public Trajectory getCubeStowToSting() {
+    public ArmTrajectoryTable getCubeStowToSting() {
         return cubeStowToSting;
     }
 
-    public Trajectory getStingToStow() {
+    public ArmTrajectoryTable getStingToStow() {
         return stingToStow;
     }
 
-    public Trajectory getStingToCubeStow() {
+    public ArmTrajectoryTable getStingToCubeStow() {
         return stingToCubeStow;
     }
 
-    public Trajectory getStowToCubeStow() {
+    public ArmTrajectoryTable getStowToCubeStow() {
         return stowToCubeStow;
     }
 
-    public Trajectory getCubeStowToStow() {
+    public ArmTrajectoryTable getCubeStowToStow() {
         return cubeStowToStow;
     }
 
@@ -0,0 +1,186 @@
+package frc.robot.subsystems.arm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.utils.Constants;
+import frc.robot.utils.Constants.Arm.ArmSetpoints;
+
+/**
+ * Binary file of compiled ArmTrajectoryTables. The file is generated at build
+ * time by the generateArmTrajectories Gradle task (which runs main below),
+ * deployed with the rest of src/main/deploy, and memory mapped when the robot
+ * boots so none of the arm paths have to be generated in robotInit.
+ *
+ * Layout, big endian:
+ * magic, version, geometry hash, table count, then for each table its name,
+ * dt, total time, row count and the row-major table data.
+ */
+public class ArmTrajectoryFile {
+    private static final int MAGIC = 0x41524D54; // "ARMT"
+
+    // bump this whenever the table layout changes. Changed paths don't need a
+    // bump: the deploy task regenerates the file from the compiled classes, and
+    // ArmTrajectories regenerates in memory if a table it needs is missing.
+    private static final int VERSION = 3;
+
+    private static final String DEPLOY_NAME = "arm/trajectories.bin";
+
+    /**
+     * @return where the file lives in the deploy directory
+     */
+    public static Path getDeployPath() {
+        return Filesystem.getDeployDirectory().toPath().resolve(DEPLOY_NAME);
+    }
+
+    /**
+     * Hash of everything in Constants.Arm that the tables are generated from. A
+     * file with a different hash was generated for a different arm and is stale.
+     *
+     * @return 64 bit FNV-1a hash
+     */
+    public static long geometryHash() {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, Constants.Arm.shoulder_length);
+        hash = mix(hash, Constants.Arm.elbow_length);
+        hash = mix(hash, Constants.Arm.shoulder_cg_radius);
+        hash = mix(hash, Constants.Arm.elbow_cg_radius);
+        hash = mix(hash, Constants.Arm.shoulder_mass);
+        hash = mix(hash, Constants.Arm.elbow_mass);
+        hash = mix(hash, Constants.Arm.shoulder_min_angle);
+        hash = mix(hash, Constants.Arm.shoulder_max_angle);
+        hash = mix(hash, Constants.Arm.elbow_min_angle);
+        hash = mix(hash, Constants.Arm.elbow_max_angle);
+        hash = mix(hash, Constants.Arm.maxSpeedMPS);
+        hash = mix(hash, Constants.Arm.maxAccelerationMPS);
+        hash = mix(hash, Constants.Arm.max_trajectory_voltage);
+        hash = mix(hash, Constants.Arm.trajectory_table_dt);
+        for (ArmSetpoints setpoint : ArmSetpoints.values()) {
+            hash = mix(hash, setpoint.ordinal());
+            hash = mix(hash, setpoint.translation.getX());
+            hash = mix(hash, setpoint.translation.getY());
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, double value) {
+        long bits = Double.doubleToLongBits(value);
+        for (int i = 0; i < 8; i++) {
+            hash ^= (bits >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Write tables to a file, replacing it if it exists
+     *
+     * @param path
+     * @param tables table name to table
+     * @throws IOException
+     */
+    public static void write(Path path, Map<String, ArmTrajectoryTable> tables) throws IOException {
+        int size = 4 + 4 + 8 + 4;
+        for (var entry : tables.entrySet()) {
+            size += 2 + entry.getKey().getBytes(StandardCharsets.UTF_8).length;
+            size += 8 + 8 + 4 + entry.getValue().getData().length * 8;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(geometryHash());
+        buffer.putInt(tables.size());
+        for (var entry : tables.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            ArmTrajectoryTable table = entry.getValue();
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+            buffer.putDouble(table.getDt());
+            buffer.putDouble(table.getTotalTimeSeconds());
+            buffer.putInt(table.getLength());
+            buffer.asDoubleBuffer().put(table.getData());
+            buffer.position(buffer.position() + table.getData().length * 8);
+        }
+        buffer.flip();
+
+        Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Memory map and read a file of tables
+     *
+     * @param path
+     * @return table name to table, or null if the file is missing, corrupt, from
+     *         another version, or was generated for different arm constants
+     */
+    public static Map<String, ArmTrajectoryTable> read(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != geometryHash()) {
+                return null;
+            }
+
+            int count = buffer.getInt();
+            Map<String, ArmTrajectoryTable> tables = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                double dt = buffer.getDouble();
+                double totalTimeSeconds = buffer.getDouble();
+                double[] data = new double[buffer.getInt() * ArmTrajectoryTable.SAMPLE_SIZE];
+
+                DoubleBuffer doubles = buffer.asDoubleBuffer();
+                doubles.get(data);
+                buffer.position(buffer.position() + data.length * 8);
+
+                tables.put(new String(name, StandardCharsets.UTF_8), new ArmTrajectoryTable(dt, totalTimeSeconds, data));
+            }
+            return tables;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.out.println(e);
+            return null;
+        }
+    }
+
+    /**
+     * Generate every arm trajectory and write them out. Run by the
+     * generateArmTrajectories Gradle task.
+     *
+     * @param args output path, defaults to src/main/deploy
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = args.length > 0 ? Paths.get(args[0]) : Paths.get("src", "main", "deploy", DEPLOY_NAME);
+
+        long start = System.nanoTime();
+        Map<String, ArmTrajectoryTable> tables = ArmTrajectories.generateTables();
+        write(path, tables);
+
+        System.out.printf("Wrote %d arm trajectories to %s in %.0f ms%n", tables.size(), path,
+                (System.nanoTime() - start) / 1e6);
+
+        // the ShuffleData in Constants.Arm can leave NetworkTables threads running
+        System.exit(0);
+    }
+}
@@ -0,0 +1,147 @@
+package frc.robot.subsystems.arm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.robot.utils.Constants.Arm.ArmSetpoints;
+
+/**
+ * Directed graph of the arm setpoints, with the trajectories in
+ * ArmTrajectories as edges weighted by how long they take. The fastest route
+ * between every pair of setpoints is found once at startup (Floyd-Warshall)
+ * and stored as a single concatenated table, so picking the route for a move
+ * is an array lookup.
+ *
+ * Only the moves that have a trajectory are edges, so a route never takes a
+ * move the arm isn't allowed to make (e.g. leaving the double substation or
+ * ground intake anywhere but through stow).
+ */
+public class ArmTrajectoryGraph {
+    private static final int size = ArmSetpoints.values().length;
+
+    private final ArmTrajectoryTable[][] edges = new ArmTrajectoryTable[size][size];
+    private final ArmTrajectoryTable[][] routes = new ArmTrajectoryTable[size][size];
+
+    /**
+     * Build the graph from the compiled trajectories and precompute every route
+     *
+     * @param trajectories
+     */
+    public ArmTrajectoryGraph(ArmTrajectories trajectories) {
+        // top
+        addEdge(ArmSetpoints.STOW, ArmSetpoints.PLACE_TOP, trajectories.getStowToTop());
+        addEdge(ArmSetpoints.CUBE_STOW, ArmSetpoints.PLACE_TOP, trajectories.getCubeStowToTop());
+        addEdge(ArmSetpoints.STING, ArmSetpoints.PLACE_TOP, trajectories.getStingToTop());
+        addEdge(ArmSetpoints.PLACE_TOP, ArmSetpoints.STOW, trajectories.getTopToStow());
+        addEdge(ArmSetpoints.PLACE_TOP, ArmSetpoints.CUBE_STOW, trajectories.getTopToCubeStow());
+        addEdge(ArmSetpoints.PLACE_TOP, ArmSetpoints.STING, trajectories.getTopToSting());
+        addEdge(ArmSetpoints.PLACE_TOP, ArmSetpoints.PLACE_MID, trajectories.getTopToMid());
+
+        // mid
+        addEdge(ArmSetpoints.STOW, ArmSetpoints.PLACE_MID, trajectories.getStowToMid());
+        addEdge(ArmSetpoints.CUBE_STOW, ArmSetpoints.PLACE_MID, trajectories.getCubeStowToMid());
+        addEdge(ArmSetpoints.STING, ArmSetpoints.PLACE_MID, trajectories.getStingToMid());
+        addEdge(ArmSetpoints.PLACE_MID, ArmSetpoints.STOW, trajectories.getMidToStow());
+        addEdge(ArmSetpoints.PLACE_MID, ArmSetpoints.CUBE_STOW, trajectories.getMidToCubeStow());
+        addEdge(ArmSetpoints.PLACE_MID, ArmSetpoints.STING, trajectories.getMidToSting());
+        addEdge(ArmSetpoints.PLACE_MID, ArmSetpoints.PLACE_TOP, trajectories.getMidToTop());
+
+        // double sub
+        addEdge(ArmSetpoints.STOW, ArmSetpoints.DOUBLE_SUBSTATION_CONE, trajectories.getStowToDoubleSubCone());
+        addEdge(ArmSetpoints.CUBE_STOW, ArmSetpoints.DOUBLE_SUBSTATION_CONE,
+                trajectories.getCubeStowToDoubleSubCone());
+        addEdge(ArmSetpoints.DOUBLE_SUBSTATION_CONE, ArmSetpoints.STOW, trajectories.getDoubleSubConeToStow());
+        addEdge(ArmSetpoints.DOUBLE_SUBSTATION_CONE, ArmSetpoints.CUBE_STOW,
+                trajectories.getDoubleSubConeToCubeStow());
+
+        addEdge(ArmSetpoints.STOW, ArmSetpoints.DOUBLE_SUBSTATION_CUBE, trajectories.getStowToDoubleSubCube());
+        addEdge(ArmSetpoints.CUBE_STOW, ArmSetpoints.DOUBLE_SUBSTATION_CUBE,
+                trajectories.getCubeStowToDoubleSubCube());
+        addEdge(ArmSetpoints.DOUBLE_SUBSTATION_CUBE, ArmSetpoints.STOW, trajectories.getDoubleSubCubeToStow());
+        addEdge(ArmSetpoints.DOUBLE_SUBSTATION_CUBE, ArmSetpoints.CUBE_STOW,
+                trajectories.getDoubleSubCubeToCubeStow());
+
+        // ground intake cube
+        addEdge(ArmSetpoints.STOW, ArmSetpoints.GROUND_INTAKE_CUBE, trajectories.getStowToGroundIntakeCube());
+        addEdge(ArmSetpoints.CUBE_STOW, ArmSetpoints.GROUND_INTAKE_CUBE,
+                trajectories.getCubeStowToGroundIntakeCube());
+        addEdge(ArmSetpoints.GROUND_INTAKE_CUBE, ArmSetpoints.STOW, trajectories.getGroundIntakeCubeToStow());
+        addEdge(ArmSetpoints.GROUND_INTAKE_CUBE, ArmSetpoints.CUBE_STOW,
+                trajectories.getGroundIntakeCubeToCubeStow());
+
+        // Stow / Cube Stow / Sting
+        addEdge(ArmSetpoints.STOW, ArmSetpoints.STING, trajectories.getStowToSting());
+        addEdge(ArmSetpoints.CUBE_STOW, ArmSetpoints.STING, trajectories.getCubeStowToSting());
+        addEdge(ArmSetpoints.STING, ArmSetpoints.STOW, trajectories.getStingToStow());
+        addEdge(ArmSetpoints.STING, ArmSetpoints.CUBE_STOW, trajectories.getStingToCubeStow());
+        addEdge(ArmSetpoints.STOW, ArmSetpoints.CUBE_STOW, trajectories.getStowToCubeStow());
+        addEdge(ArmSetpoints.CUBE_STOW, ArmSetpoints.STOW, trajectories.getCubeStowToStow());
+
+        computeRoutes();
+    }
+
+    private void addEdge(ArmSetpoints from, ArmSetpoints to, ArmTrajectoryTable trajectory) {
+        edges[from.ordinal()][to.ordinal()] = trajectory;
+    }
+
+    /**
+     * All pairs shortest paths by duration, then concatenate each route into one
+     * table
+     */
+    private void computeRoutes() {
+        double[][] time = new double[size][size];
+        int[][] next = new int[size][size];
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (edges[i][j] != null && i != j) {
+                    time[i][j] = edges[i][j].getTotalTimeSeconds();
+                    next[i][j] = j;
+                } else {
+                    time[i][j] = i == j ? 0 : Double.POSITIVE_INFINITY;
+                    next[i][j] = -1;
+                }
+            }
+        }
+
+        for (int k = 0; k < size; k++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    if (time[i][k] + time[k][j] < time[i][j]) {
+                        time[i][j] = time[i][k] + time[k][j];
+                        next[i][j] = next[i][k];
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (i == j || next[i][j] == -1) {
+                    continue;
+                }
+
+                List<ArmTrajectoryTable> hops = new ArrayList<>();
+                for (int at = i; at != j; at = next[at][j]) {
+                    hops.add(edges[at][next[at][j]]);
+                }
+
+                ArmTrajectoryTable route = hops.get(0);
+                for (int hop = 1; hop < hops.size(); hop++) {
+                    route = ArmTrajectoryTable.concatenate(route, hops.get(hop));
+                }
+                routes[i][j] = route;
+            }
+        }
+    }
+
+    /**
+     * @param from
+     * @param to
+     * @return the fastest trajectory between two setpoints, or null if the arm
+     *         can't get there (or is already there)
+     */
+    public ArmTrajectoryTable getRoute(ArmSetpoints from, ArmSetpoints to) {
+        return routes[from.ordinal()][to.ordinal()];
+    }
+}
@@ -0,0 +1,335 @@
+package frc.robot.subsystems.arm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import frc.robot.utils.Constants;
+
+/**
+ * Re-times an arm path so it runs as fast as the joints can actually follow
+ * it. The path is converted to joint space and swept forward and backward
+ * (time-optimal path parameterization) so that at every point the
+ * feedforward voltage from ArmDynamics stays within the voltage limit for both
+ * joints, instead of capping the whole path at one Cartesian speed and
+ * acceleration.
+ *
+ * The geometry of the path is kept, only the timing changes. Reversed paths
+ * stay reversed: their velocities and accelerations keep the negative sign.
+ */
+public class ArmTrajectoryOptimizer {
+    // spacing of the path samples, meters of end effector travel
+    private static final double ds = 0.005;
+    // time step used to measure the arc length of the input path
+    private static final double measureDt = 0.001;
+    // upper bound for the velocity limit search, m/s
+    private static final double maxPathVelocity = 20;
+
+    private final ArmDynamics dynamics = new ArmDynamics();
+    private final double maxVoltage;
+
+    // path samples
+    private int n;
+    private double step;
+    // -1 for a reversed path, which WPILib gives negative velocities
+    private double direction;
+    private double[] x, y, heading, curvature;
+    // joint angles (radians) and their first and second derivatives in path length
+    private double[] q1, q2, dq1, dq2, ddq1, ddq2;
+
+    // scratch for feedforward calls and the acceleration bounds
+    private final double[] voltage = new double[2];
+    private final double[] voltageAccel = new double[2];
+    private final double[] bounds = new double[2];
+
+    /**
+     * Optimizer using Constants.Arm.max_trajectory_voltage
+     */
+    public ArmTrajectoryOptimizer() {
+        this(Constants.Arm.max_trajectory_voltage);
+    }
+
+    /**
+     * @param maxVoltage most voltage the feedforward may ask of either joint
+     */
+    public ArmTrajectoryOptimizer(double maxVoltage) {
+        this.maxVoltage = maxVoltage;
+    }
+
+    /**
+     * Re-time a path to the fastest profile the joints can follow, starting and
+     * ending at rest
+     *
+     * @param path trajectory to take the geometry from
+     * @return trajectory along the same path with the optimal timing
+     * @throws IllegalArgumentException if the path leaves the arm's reach or
+     *                                  joint limits, or cannot be followed within
+     *                                  the voltage limit
+     */
+    public Trajectory optimize(Trajectory path) {
+        resample(path);
+        toJointSpace();
+
+        double[] maxU = new double[n];
+        for (int i = 0; i < n; i++) {
+            maxU[i] = velocityLimit(i);
+        }
+
+        // u is the square of the path velocity, so that constant path
+        // acceleration is linear in path length: u' = 2 * acceleration
+        double[] u = new double[n];
+
+        // samples where the velocity limit curve let the profile in somewhere no
+        // acceleration is feasible, and it had to be slowed down further
+        int capped = 0;
+
+        // forward pass, accelerate as hard as possible
+        u[0] = 0;
+        for (int i = 0; i < n - 1; i++) {
+            if (!feasible(i, u[i])) {
+                u[i] = capVelocity(i, u[i]);
+                feasible(i, u[i]);
+                capped++;
+            }
+            u[i + 1] = Math.max(0, Math.min(maxU[i + 1], u[i] + 2 * bounds[1] * step));
+        }
+
+        // backward pass, decelerate as hard as possible into the end
+        u[n - 1] = 0;
+        for (int i = n - 1; i > 0; i--) {
+            if (!feasible(i, u[i])) {
+                u[i] = capVelocity(i, u[i]);
+                feasible(i, u[i]);
+                capped++;
+            }
+            u[i - 1] = Math.max(0, Math.min(u[i - 1], u[i] - 2 * bounds[0] * step));
+        }
+
+        if (capped > 0) {
+            System.out.println("Arm trajectory optimizer slowed " + capped
+                    + " samples below the velocity limit to stay within " + maxVoltage + " V");
+        }
+        return buildTrajectory(u);
+    }
+
+    /**
+     * Sample the path at even spacing in path length
+     */
+    private void resample(Trajectory path) {
+        double totalTime = path.getTotalTimeSeconds();
+        direction = path.sample(totalTime / 2).velocityMetersPerSecond < 0 ? -1 : 1;
+        int count = (int) Math.ceil(totalTime / measureDt) + 1;
+
+        double[] distance = new double[count];
+        Pose2d[] poses = new Pose2d[count];
+        double[] curvatures = new double[count];
+        for (int i = 0; i < count; i++) {
+            Trajectory.State state = path.sample(Math.min(i * measureDt, totalTime));
+            poses[i] = state.poseMeters;
+            curvatures[i] = state.curvatureRadPerMeter;
+            if (i > 0) {
+                distance[i] = distance[i - 1]
+                        + poses[i].getTranslation().getDistance(poses[i - 1].getTranslation());
+            }
+        }
+
+        double length = distance[count - 1];
+        n = Math.max(2, (int) Math.ceil(length / ds) + 1);
+        step = length / (n - 1);
+        if (!(step > 0)) {
+            throw new IllegalArgumentException("Arm path has no length");
+        }
+
+        x = new double[n];
+        y = new double[n];
+        heading = new double[n];
+        curvature = new double[n];
+
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            double s = i * step;
+            while (j < count - 2 && distance[j + 1] < s) {
+                j++;
+            }
+            double span = distance[j + 1] - distance[j];
+            double frac = span > 0 ? Math.min(Math.max((s - distance[j]) / span, 0), 1) : 0;
+
+            Pose2d a = poses[j];
+            Pose2d b = poses[j + 1];
+            x[i] = a.getX() + (b.getX() - a.getX()) * frac;
+            y[i] = a.getY() + (b.getY() - a.getY()) * frac;
+            heading[i] = Math.atan2(
+                    a.getRotation().getSin() + (b.getRotation().getSin() - a.getRotation().getSin()) * frac,
+                    a.getRotation().getCos() + (b.getRotation().getCos() - a.getRotation().getCos()) * frac);
+            curvature[i] = curvatures[j] + (curvatures[j + 1] - curvatures[j]) * frac;
+        }
+    }
+
+    /**
+     * Run inverse kinematics on every sample, check the joint limits and take
+     * the derivatives along the path
+     */
+    private void toJointSpace() {
+        q1 = new double[n];
+        q2 = new double[n];
+        for (int i = 0; i < n; i++) {
+            double shoulder;
+            double elbow;
+            try {
+                var angles = ArmKinematics.inverse(x[i], y[i]);
+                shoulder = angles.getFirst();
+                elbow = angles.getSecond();
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Arm path leaves reach at (" + x[i] + ", " + y[i] + ")");
+            }
+
+            if (!withinLimits(shoulder, Constants.Arm.shoulder_min_angle, Constants.Arm.shoulder_max_angle)
+                    // the elbow limits are on the forearm's angle from horizontal
+                    || !withinLimits(shoulder + elbow, Constants.Arm.elbow_min_angle,
+                            Constants.Arm.elbow_max_angle)) {
+                throw new IllegalArgumentException("Arm path exceeds joint limits at (" + x[i] + ", " + y[i]
+                        + "): shoulder " + shoulder + ", elbow " + elbow);
+            }
+
+            q1[i] = Math.toRadians(shoulder);
+            q2[i] = Math.toRadians(elbow);
+        }
+
+        dq1 = differentiate(q1);
+        dq2 = differentiate(q2);
+        ddq1 = differentiate(dq1);
+        ddq2 = differentiate(dq2);
+    }
+
+    /**
+     * @return whether an angle in degrees is within [min, max], allowing for the
+     *         limits to be given past +/-180
+     */
+    private static boolean withinLimits(double angle, double min, double max) {
+        for (double wrapped = angle - 360; wrapped <= angle + 360; wrapped += 360) {
+            if (wrapped >= min && wrapped <= max) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double[] differentiate(double[] values) {
+        double[] derivative = new double[n];
+        for (int i = 0; i < n; i++) {
+            int prev = Math.max(i - 1, 0);
+            int next = Math.min(i + 1, n - 1);
+            derivative[i] = (values[next] - values[prev]) / ((next - prev) * step);
+        }
+        return derivative;
+    }
+
+    /**
+     * Find the range of path accelerations at a sample and path velocity that
+     * keep both joint voltages within the limit. The feedforward is affine in
+     * path acceleration, so two feedforward calls give the whole line. The
+     * result is written to bounds as {min, max}; min > max means no
+     * acceleration is feasible.
+     */
+    private void accelerationBounds(int i, double velocity) {
+        double w1 = dq1[i] * velocity;
+        double w2 = dq2[i] * velocity;
+        double a1 = ddq1[i] * velocity * velocity;
+        double a2 = ddq2[i] * velocity * velocity;
+
+        dynamics.feedforward(q1[i], q2[i], w1, w2, a1, a2, voltage);
+        dynamics.feedforward(q1[i], q2[i], w1, w2, a1 + dq1[i], a2 + dq2[i], voltageAccel);
+
+        double min = Double.NEGATIVE_INFINITY;
+        double max = Double.POSITIVE_INFINITY;
+        for (int joint = 0; joint < 2; joint++) {
+            double offset = voltage[joint];
+            double slope = voltageAccel[joint] - offset;
+            if (Math.abs(slope) < 1e-9) {
+                if (Math.abs(offset) > maxVoltage) {
+                    min = Double.POSITIVE_INFINITY;
+                    max = Double.NEGATIVE_INFINITY;
+                }
+                continue;
+            }
+            double low = (-maxVoltage - offset) / slope;
+            double high = (maxVoltage - offset) / slope;
+            min = Math.max(min, Math.min(low, high));
+            max = Math.min(max, Math.max(low, high));
+        }
+        bounds[0] = min;
+        bounds[1] = max;
+    }
+
+    /**
+     * Fill bounds for a sample at a squared path velocity
+     *
+     * @return whether any path acceleration is feasible there
+     */
+    private boolean feasible(int i, double u) {
+        accelerationBounds(i, Math.sqrt(u));
+        return bounds[0] <= bounds[1];
+    }
+
+    /**
+     * @return the largest squared path velocity at a sample for which some
+     *         path acceleration is still feasible
+     */
+    private double velocityLimit(int i) {
+        if (!feasible(i, 0)) {
+            throw new IllegalArgumentException("Arm cannot hold (" + x[i] + ", " + y[i] + ") within "
+                    + maxVoltage + " V");
+        }
+        double u = maxPathVelocity * maxPathVelocity;
+        return feasible(i, u) ? u : capVelocity(i, u);
+    }
+
+    /**
+     * Bisect for a feasible squared path velocity below an infeasible one. The
+     * feasible velocities at a sample aren't always one interval starting at
+     * rest, so this can find a lower answer than velocityLimit did. Leaves
+     * bounds unspecified.
+     *
+     * @return the largest feasible squared path velocity found below u
+     */
+    private double capVelocity(int i, double u) {
+        double low = 0;
+        double high = Math.sqrt(u);
+        for (int iteration = 0; iteration < 40; iteration++) {
+            double mid = (low + high) / 2;
+            accelerationBounds(i, mid);
+            if (bounds[0] <= bounds[1]) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low * low;
+    }
+
+    /**
+     * Turn the velocity profile back into a Trajectory along the sampled path
+     */
+    private Trajectory buildTrajectory(double[] u) {
+        List<Trajectory.State> states = new ArrayList<>(n);
+        double time = 0;
+        for (int i = 0; i < n; i++) {
+            double velocity = Math.sqrt(u[i]);
+            double acceleration = i < n - 1 ? (u[i + 1] - u[i]) / (2 * step) : 0;
+
+            states.add(new Trajectory.State(time, direction * velocity, direction * acceleration,
+                    new Pose2d(x[i], y[i], new Rotation2d(heading[i])), curvature[i]));
+
+            if (i < n - 1) {
+                double averageVelocity = velocity + Math.sqrt(u[i + 1]);
+                if (!(averageVelocity > 0)) {
+                    throw new IllegalArgumentException("Arm path stalls at (" + x[i] + ", " + y[i] + ")");
+                }
+                time += 2 * step / averageVelocity;
+            }
+        }
+        return new Trajectory(states);
+    }
+}
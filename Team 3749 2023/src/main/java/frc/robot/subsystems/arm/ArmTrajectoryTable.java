@@ -0,0 +1,198 @@
+package frc.robot.subsystems.arm;
+
+import edu.wpi.first.math.trajectory.Trajectory;
+import frc.robot.utils.Constants;
+
+/**
+ * Compiled form of an arm Trajectory. The trajectory is sampled once at a
+ * fixed rate into a flat table of primitive doubles so that sampling it in
+ * the 20 ms loop is an index and a linear interpolation, with no binary
+ * search and no allocation.
+ *
+ * Each row of the table holds the end effector position, velocity and
+ * acceleration along with the joint angles (degrees, same as
+ * ArmKinematics.inverse) and their velocities and accelerations.
+ */
+public class ArmTrajectoryTable {
+    public static final int X = 0;
+    public static final int Y = 1;
+    public static final int VX = 2;
+    public static final int VY = 3;
+    public static final int AX = 4;
+    public static final int AY = 5;
+    public static final int SHOULDER = 6;
+    public static final int ELBOW = 7;
+    public static final int SHOULDER_VEL = 8;
+    public static final int ELBOW_VEL = 9;
+    public static final int SHOULDER_ACCEL = 10;
+    public static final int ELBOW_ACCEL = 11;
+
+    /** Number of doubles in one sample */
+    public static final int SAMPLE_SIZE = 12;
+
+    private final double dt;
+    private final int length;
+    private final double totalTimeSeconds;
+    // row-major, SAMPLE_SIZE doubles per row
+    private final double[] data;
+
+    /**
+     * Compile a trajectory at the default table rate
+     *
+     * @param trajectory
+     */
+    public ArmTrajectoryTable(Trajectory trajectory) {
+        this(trajectory, Constants.Arm.trajectory_table_dt);
+    }
+
+    /**
+     * Compile a trajectory at the given table rate
+     *
+     * @param trajectory
+     * @param dt         seconds between rows
+     */
+    public ArmTrajectoryTable(Trajectory trajectory, double dt) {
+        this.dt = dt;
+        this.totalTimeSeconds = trajectory.getTotalTimeSeconds();
+        this.length = (int) Math.ceil(totalTimeSeconds / dt) + 1;
+        this.data = new double[length * SAMPLE_SIZE];
+
+        for (int i = 0; i < length; i++) {
+            Trajectory.State state = trajectory.sample(Math.min(i * dt, totalTimeSeconds));
+            int row = i * SAMPLE_SIZE;
+
+            double cos = state.poseMeters.getRotation().getCos();
+            double sin = state.poseMeters.getRotation().getSin();
+            double v = state.velocityMetersPerSecond;
+            // centripetal component, pointing along the path normal
+            double centripetal = v * v * state.curvatureRadPerMeter;
+
+            data[row + X] = state.poseMeters.getX();
+            data[row + Y] = state.poseMeters.getY();
+            data[row + VX] = v * cos;
+            data[row + VY] = v * sin;
+            data[row + AX] = state.accelerationMetersPerSecondSq * cos - centripetal * sin;
+            data[row + AY] = state.accelerationMetersPerSecondSq * sin + centripetal * cos;
+
+            try {
+                var angles = ArmKinematics.inverse(data[row + X], data[row + Y]);
+                data[row + SHOULDER] = angles.getFirst();
+                data[row + ELBOW] = angles.getSecond();
+            } catch (Exception e) {
+                // out of reach, hold the last reachable angles
+                if (i > 0) {
+                    data[row + SHOULDER] = data[row - SAMPLE_SIZE + SHOULDER];
+                    data[row + ELBOW] = data[row - SAMPLE_SIZE + ELBOW];
+                }
+            }
+        }
+
+        differentiate(SHOULDER, SHOULDER_VEL);
+        differentiate(ELBOW, ELBOW_VEL);
+        differentiate(SHOULDER_VEL, SHOULDER_ACCEL);
+        differentiate(ELBOW_VEL, ELBOW_ACCEL);
+    }
+
+    /**
+     * Wrap an already compiled table, used when loading from ArmTrajectoryFile
+     *
+     * @param dt               seconds between rows
+     * @param totalTimeSeconds
+     * @param data             row-major table, SAMPLE_SIZE doubles per row
+     */
+    ArmTrajectoryTable(double dt, double totalTimeSeconds, double[] data) {
+        this.dt = dt;
+        this.totalTimeSeconds = totalTimeSeconds;
+        this.length = data.length / SAMPLE_SIZE;
+        this.data = data;
+    }
+
+    /**
+     * Join two tables into one that runs the first and then the second. The
+     * result is resampled at the first table's rate.
+     *
+     * @param first
+     * @param second
+     * @return combined table
+     */
+    public static ArmTrajectoryTable concatenate(ArmTrajectoryTable first, ArmTrajectoryTable second) {
+        double dt = first.dt;
+        double totalTimeSeconds = first.totalTimeSeconds + second.totalTimeSeconds;
+        int length = (int) Math.ceil(totalTimeSeconds / dt) + 1;
+        double[] data = new double[length * SAMPLE_SIZE];
+        double[] row = new double[SAMPLE_SIZE];
+
+        for (int i = 0; i < length; i++) {
+            double t = Math.min(i * dt, totalTimeSeconds);
+            if (t <= first.totalTimeSeconds) {
+                first.sample(t, row);
+            } else {
+                second.sample(t - first.totalTimeSeconds, row);
+            }
+            System.arraycopy(row, 0, data, i * SAMPLE_SIZE, SAMPLE_SIZE);
+        }
+        return new ArmTrajectoryTable(dt, totalTimeSeconds, data);
+    }
+
+    /**
+     * Fill column 'to' with the time derivative of column 'from' using central
+     * differences (one sided at the ends)
+     */
+    private void differentiate(int from, int to) {
+        if (length < 2) {
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            int prev = Math.max(i - 1, 0);
+            int next = Math.min(i + 1, length - 1);
+            data[i * SAMPLE_SIZE + to] = (data[next * SAMPLE_SIZE + from] - data[prev * SAMPLE_SIZE + from])
+                    / ((next - prev) * dt);
+        }
+    }
+
+    /**
+     * Sample the table at a point in time. Times before the start or after the
+     * end are clamped to the first and last row.
+     *
+     * @param timeSeconds time since the start of the trajectory
+     * @param out         array of at least SAMPLE_SIZE doubles to write into,
+     *                    indexed by the column constants in this class
+     */
+    public void sample(double timeSeconds, double[] out) {
+        double index = timeSeconds / dt;
+        if (!(index > 0)) {
+            System.arraycopy(data, 0, out, 0, SAMPLE_SIZE);
+            return;
+        }
+        int i = (int) index;
+        if (i >= length - 1) {
+            System.arraycopy(data, (length - 1) * SAMPLE_SIZE, out, 0, SAMPLE_SIZE);
+            return;
+        }
+
+        double frac = index - i;
+        int row = i * SAMPLE_SIZE;
+        for (int col = 0; col < SAMPLE_SIZE; col++) {
+            double a = data[row + col];
+            out[col] = a + (data[row + SAMPLE_SIZE + col] - a) * frac;
+        }
+    }
+
+    public double getTotalTimeSeconds() {
+        return totalTimeSeconds;
+    }
+
+    public double getDt() {
+        return dt;
+    }
+
+    /** Number of rows in the table */
+    public int getLength() {
+        return length;
+    }
+
+    /** Raw table for serialization, not a copy */
+    double[] getData() {
+        return data;
+    }
+}
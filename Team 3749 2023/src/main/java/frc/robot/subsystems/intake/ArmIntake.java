@@ -1,15 +1,12 @@
 package frc.robot.subsystems.intake;
 
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.RelativeEncoder;
-import com.revrobotics.CANSparkMax.IdleMode;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.utils.Constants;
-import frc.robot.utils.ShuffleData;
+import frc.robot.utils.InputLog;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.Telemetry;
 
 /***
  * @author Rohin Sood
@@ -22,36 +19,33 @@ import frc.robot.utils.ShuffleData;
  * @author Harkirat Hattar
  * 
  *         ArmIntake.java creates objects, dependencies, and motor controller groups
- *         to allow us to set the speed of each motor for intake and outtake
+ *         to allow us to set the speed of each motor for intake and outtake.
+ *         The motor is read and driven through an ArmIntakeIO
  */
 public class ArmIntake extends SubsystemBase {
 
-    private final CANSparkMax intakeMotor = new CANSparkMax(Constants.ArmIntake.arm_intake_id, MotorType.kBrushless);
-    private final RelativeEncoder intakeEncoder = intakeMotor.getEncoder();
+    private final LoopProfiler.Section profiler = LoopProfiler.register("ArmIntake");
+
+    private final ArmIntakeIO io;
+    private final ArmIntakeIO.ArmIntakeInputs inputs = new ArmIntakeIO.ArmIntakeInputs();
 
     private final PIDController intakePID = new PIDController(0.675, 0, 0);
     private final SimpleMotorFeedforward intakeFF = new SimpleMotorFeedforward(0, 0.675);
 
-    private final ShuffleData<Double> intakeVoltage = new ShuffleData<Double>("Arm Intake", "Intake Voltage", 0.0);
-    private final ShuffleData<Double> intakeCurrent = new ShuffleData<Double>("Arm Intake", "Intake Current", 0.0);
-    private final ShuffleData<Double> intakeTemp = new ShuffleData<Double>("Arm Intake", "Intake Temperature", 0.0);
-
     private double voltage = Constants.ArmIntake.idleVoltage;
 
-    public ArmIntake() {
-        intakeMotor.restoreFactoryDefaults();
-
-        intakeMotor.setIdleMode(IdleMode.kBrake);
-
-        intakeMotor.setInverted(true);
-
-        // 1 wheel rotation / 5 motor rotations
-        intakeEncoder.setPositionConversionFactor(1.0 / 5.0);
-
-        // 1 minute / 60 seconds * 1 wheel rotation / 5 motor rotations
-        intakeEncoder.setVelocityConversionFactor(1.0 / (60.0 * 5.0));
-
-        intakeMotor.setSmartCurrentLimit(50, 80);
+    /**
+     * @param io ArmIntakeIOReal on the robot, ArmIntakeIOSim in simulation
+     */
+    public ArmIntake(ArmIntakeIO io) {
+        this.io = io;
+
+        Telemetry.addDouble("Arm Intake/Intake Voltage", "/Shuffleboard/Arm Intake/Intake Voltage",
+                () -> inputs.appliedVoltage);
+        Telemetry.addDouble("Arm Intake/Intake Current", "/Shuffleboard/Arm Intake/Intake Current",
+                () -> inputs.current);
+        Telemetry.addDouble("Arm Intake/Intake Temperature", "/Shuffleboard/Arm Intake/Intake Temperature",
+                this::getTemperature);
     }
 
     /**
@@ -60,7 +54,7 @@ public class ArmIntake extends SubsystemBase {
      * @return
      */
     public double getTemperature() {
-        return intakeMotor.getMotorTemperature();
+        return inputs.temperature;
     }
 
     /**
@@ -69,7 +63,7 @@ public class ArmIntake extends SubsystemBase {
      * @return
      */
     public double getPosition() {
-        return intakeEncoder.getPosition();
+        return inputs.position;
     }
 
     /**
@@ -82,6 +76,13 @@ public class ArmIntake extends SubsystemBase {
         this.voltage = voltage;
     }
 
+    /**
+     * @return voltage the motor is being set to
+     */
+    public double getVoltage() {
+        return voltage;
+    }
+
 
     /**
      * set claw motor using feed forward control loop
@@ -89,23 +90,24 @@ public class ArmIntake extends SubsystemBase {
      * @param velocity
      */
     public void setFeedForward(double velocity) {
-        intakeMotor.setVoltage(
-                intakeFF.calculate(velocity) + intakePID.calculate(intakeEncoder.getVelocity(), velocity));
+        io.setVoltage(intakeFF.calculate(velocity) + intakePID.calculate(inputs.velocity, velocity));
     }
 
     /**
      * stops the motor
      */
     public void stop() {
-        intakeMotor.stopMotor();
+        io.setVoltage(0);
     }
 
     @Override
     public void periodic() {
-        intakeMotor.setVoltage(voltage);
+        profiler.start();
+        io.updateInputs(inputs);
+        InputLog.process("ArmIntake", inputs);
+
+        io.setVoltage(voltage);
 
-        intakeTemp.set(getTemperature());
-        intakeCurrent.set(intakeMotor.getOutputCurrent());
-        intakeVoltage.set(intakeMotor.getAppliedOutput() * intakeMotor.getBusVoltage());
+        profiler.stop();
     }
 }
\ No newline at end of file
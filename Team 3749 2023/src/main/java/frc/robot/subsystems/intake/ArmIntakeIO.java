@@ -0,0 +1,56 @@
+package frc.robot.subsystems.intake;
+
+import frc.robot.utils.LoggedInputs;
+
+/**
+ * Hardware the arm intake reads and drives. ArmIntakeIOReal talks to the
+ * Spark MAX, ArmIntakeIOSim to a simulated NEO, and the default methods do
+ * nothing, which is what a log replay uses.
+ */
+public interface ArmIntakeIO {
+    /**
+     * Everything ArmIntake reads from its hardware in one loop
+     */
+    public static class ArmIntakeInputs implements LoggedInputs {
+        // wheel rotations
+        public double position = 0;
+        // wheel rotations per second
+        public double velocity = 0;
+        public double appliedVoltage = 0;
+        public double current = 0;
+        // celsius
+        public double temperature = 0;
+
+        @Override
+        public int capacity() {
+            return 5;
+        }
+
+        @Override
+        public void toArray(double[] out) {
+            out[0] = position;
+            out[1] = velocity;
+            out[2] = appliedVoltage;
+            out[3] = current;
+            out[4] = temperature;
+        }
+
+        @Override
+        public void fromArray(double[] in, int length) {
+            position = in[0];
+            velocity = in[1];
+            appliedVoltage = in[2];
+            current = in[3];
+            temperature = in[4];
+        }
+    }
+
+    /**
+     * @param inputs filled with the latest readings
+     */
+    public default void updateInputs(ArmIntakeInputs inputs) {
+    }
+
+    public default void setVoltage(double voltage) {
+    }
+}
@@ -0,0 +1,46 @@
+package frc.robot.subsystems.intake;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+
+import frc.robot.utils.Constants;
+
+/**
+ * The intake's Spark MAX and its built in encoder
+ */
+public class ArmIntakeIOReal implements ArmIntakeIO {
+    private final CANSparkMax intakeMotor = new CANSparkMax(Constants.ArmIntake.arm_intake_id, MotorType.kBrushless);
+    private final RelativeEncoder intakeEncoder = intakeMotor.getEncoder();
+
+    public ArmIntakeIOReal() {
+        intakeMotor.restoreFactoryDefaults();
+
+        intakeMotor.setIdleMode(IdleMode.kBrake);
+
+        intakeMotor.setInverted(true);
+
+        // 1 wheel rotation / 5 motor rotations
+        intakeEncoder.setPositionConversionFactor(1.0 / 5.0);
+
+        // 1 minute / 60 seconds * 1 wheel rotation / 5 motor rotations
+        intakeEncoder.setVelocityConversionFactor(1.0 / (60.0 * 5.0));
+
+        intakeMotor.setSmartCurrentLimit(50, 80);
+    }
+
+    @Override
+    public void updateInputs(ArmIntakeInputs inputs) {
+        inputs.position = intakeEncoder.getPosition();
+        inputs.velocity = intakeEncoder.getVelocity();
+        inputs.appliedVoltage = intakeMotor.getAppliedOutput() * intakeMotor.getBusVoltage();
+        inputs.current = intakeMotor.getOutputCurrent();
+        inputs.temperature = intakeMotor.getMotorTemperature();
+    }
+
+    @Override
+    public void setVoltage(double voltage) {
+        intakeMotor.setVoltage(voltage);
+    }
+}
@@ -0,0 +1,39 @@
+package frc.robot.subsystems.intake;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.utils.Constants;
+
+/**
+ * The intake simulated as a NEO geared 5:1 to its wheels, stepped by the time
+ * between reads
+ */
+public class ArmIntakeIOSim implements ArmIntakeIO {
+    private final DCMotorSim sim = new DCMotorSim(DCMotor.getNEO(1), 5, Constants.ArmIntake.sim_moi);
+    private double voltage = 0;
+    private double lastTime = Timer.getFPGATimestamp();
+
+    @Override
+    public void updateInputs(ArmIntakeInputs inputs) {
+        double now = Timer.getFPGATimestamp();
+        double battery = RobotController.getBatteryVoltage();
+        double applied = MathUtil.clamp(voltage, -battery, battery);
+        sim.setInputVoltage(applied);
+        sim.update(now - lastTime);
+        lastTime = now;
+
+        inputs.position = sim.getAngularPositionRotations();
+        inputs.velocity = sim.getAngularVelocityRPM() / 60;
+        inputs.appliedVoltage = applied;
+        inputs.current = sim.getCurrentDrawAmps();
+        inputs.temperature = 25;
+    }
+
+    @Override
+    public void setVoltage(double voltage) {
+        this.voltage = voltage;
+    }
+}
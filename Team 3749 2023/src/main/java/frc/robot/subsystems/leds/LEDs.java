@@ -1,31 +1,85 @@
 package frc.robot.subsystems.leds;
 
-import java.util.Random;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import edu.wpi.first.wpilibj.AddressableLED;
 import edu.wpi.first.wpilibj.AddressableLEDBuffer;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.utils.Constants;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.Telemetry;
+import frc.robot.utils.Constants.LEDs.LEDLayer;
 import frc.robot.utils.Constants.LEDs.LEDPattern;
+import frc.robot.utils.Constants.LEDs.LEDSegment;
 
 /**
  * Class for controlling addressable LEDs
- * 
+ *
+ * The strip is drawn from layers, in LEDLayer order: the alliance color,
+ * then the arm, intake and alert layers, each covering the ones below it on
+ * its segment of the strip. A layer set to NOTHING is transparent.
+ *
+ * Patterns are rendered into frames by PatternTables the first time they're
+ * used on a segment. Animations pick their frame from the FPGA time since the
+ * layer was set, so they run at the same speed however often the strip is
+ * drawn. Drawing happens on a Notifier at LEDs.update_hz, off the robot loop,
+ * and the strip is only sent data when the composed frame changes.
+ *
  * @author Rohin Sood
  */
 public class LEDs extends SubsystemBase {
-    private LEDPattern currentLEDPattern = getDefaultColor();
+
+    /**
+     * What a layer shows, replaced whole so the drawing thread can read it
+     * without locking
+     */
+    private static class Layer {
+        final byte[][] frames;
+        final LEDSegment segment;
+        final double startTime;
+
+        Layer(byte[][] frames, LEDSegment segment, double startTime) {
+            this.frames = frames;
+            this.segment = segment;
+            this.startTime = startTime;
+        }
+    }
+
+    private final LoopProfiler.Section profiler = LoopProfiler.register("LEDs");
+
     private AddressableLED LEDs = new AddressableLED(0);
     private AddressableLEDBuffer LEDBuffer = new AddressableLEDBuffer(Constants.LEDs.length);
-    private int hue = 0;
-    private int i = 0;
-    private boolean blink = false;
+    private final Notifier notifier = new Notifier(this::draw);
+
+    // rendered tables by segment, only used from the robot thread
+    private final Map<LEDSegment, Map<LEDPattern, byte[][]>> patternFrames = new EnumMap<>(LEDSegment.class);
+    private final LEDPattern[] layerPatterns = new LEDPattern[LEDLayer.values().length];
+    private final LEDSegment[] layerSegments = new LEDSegment[LEDLayer.values().length];
+    private final AtomicReferenceArray<Layer> layers = new AtomicReferenceArray<>(LEDLayer.values().length);
+
+    // only used by the drawing thread
+    private final byte[] composedFrame = new byte[Constants.LEDs.length * 3];
+    private final byte[] shownFrame = new byte[Constants.LEDs.length * 3];
+    private volatile int framesSent = 0;
 
     public LEDs() {
         LEDs.setLength(LEDBuffer.getLength());
         LEDs.setData(LEDBuffer);
         LEDs.start();
+
+        setLayer(LEDLayer.ALLIANCE, getDefaultColor());
+
+        notifier.setName("LEDs");
+        notifier.startPeriodic(1.0 / Constants.LEDs.update_hz);
+
+        Telemetry.addDouble("LEDs/Frames Sent", () -> framesSent);
     }
 
     public LEDPattern getDefaultColor() {
@@ -33,165 +87,92 @@ public class LEDs extends SubsystemBase {
     }
 
     /**
-     * Set RGB values
-     * 
-     * @param red
-     * @param green
-     * @param blue
+     * Show a pattern on the whole strip. Only call from the robot thread.
+     *
+     * @param layer
+     * @param pattern NOTHING to clear the layer
      */
-    private void setRGB(int red, int green, int blue) {
-        for (int led = 0; led < LEDBuffer.getLength(); led++) {
-            LEDBuffer.setRGB(led, red, green, blue);
-        }
+    public void setLayer(LEDLayer layer, LEDPattern pattern) {
+        setLayer(layer, pattern, LEDSegment.FULL);
     }
 
     /**
-     * Set HSV values
-     * 
-     * @param hue
-     * @param saturation
-     * @param value
+     * Show a pattern on a segment of the strip. Setting the pattern a layer
+     * already shows leaves its animation running. Only call from the robot
+     * thread.
+     *
+     * @param layer
+     * @param pattern NOTHING to clear the layer
+     * @param segment
      */
-    private void setHSV(int hue, int saturation, int value) {
-        for (int led = 0; led < LEDBuffer.getLength(); led++) {
-            LEDBuffer.setHSV(led, hue, saturation, value);
+    public void setLayer(LEDLayer layer, LEDPattern pattern, LEDSegment segment) {
+        int index = layer.ordinal();
+        if (pattern == layerPatterns[index] && segment == layerSegments[index]) {
+            return;
         }
-    }
+        layerPatterns[index] = pattern;
+        layerSegments[index] = segment;
 
-    private void rainbowLEDs() {
-        setHSV(hue++, 255, 255);
-        if (hue >= 180) {
-            hue = 0;
-        }
+        byte[][] frames = getFrames(pattern, segment);
+        layers.set(index, frames == null ? null : new Layer(frames, segment, Timer.getFPGATimestamp()));
     }
 
-    private void twinkleLEDs() {
-        Random rand = new Random();
-        int led_max = LEDBuffer.getLength();
-
-        /* Set all to off */
-        for (int i = 0; i < led_max; i++) {
-            LEDBuffer.setHSV(i, 100, 255, 20);
-        }
+    /**
+     * Make a layer transparent
+     *
+     * @param layer
+     */
+    public void clearLayer(LEDLayer layer) {
+        setLayer(layer, LEDPattern.NOTHING);
+    }
 
-        /* Grab random led ten times */
-        for (int i = 0; i < 30; i++) {
-            /* Set to lower value */
-            LEDBuffer.setRGB(rand.nextInt(led_max), 0, 255, 0);
+    private byte[][] getFrames(LEDPattern pattern, LEDSegment segment) {
+        Map<LEDPattern, byte[][]> segmentFrames = patternFrames.computeIfAbsent(segment,
+                s -> new EnumMap<>(LEDPattern.class));
+        if (!segmentFrames.containsKey(pattern)) {
+            segmentFrames.put(pattern, PatternTables.render(pattern, segment.end - segment.start));
         }
+        return segmentFrames.get(pattern);
     }
 
-    private void bounceLEDs() {
-        int led_max = LEDBuffer.getLength();
-        if (i == led_max) {
-            i = 0;
-            return;
+    /**
+     * Compose the layers at the current time and send the frame if it changed.
+     * Runs on the notifier.
+     */
+    private void draw() {
+        double now = Timer.getFPGATimestamp();
+        Arrays.fill(composedFrame, (byte) 0);
+        for (int i = 0; i < layers.length(); i++) {
+            Layer layer = layers.get(i);
+            if (layer == null) {
+                continue;
+            }
+            int frame = (int) ((now - layer.startTime) * Constants.LEDs.animation_fps) % layer.frames.length;
+            byte[] pixels = layer.frames[Math.max(frame, 0)];
+            System.arraycopy(pixels, 0, composedFrame, layer.segment.start * 3, pixels.length);
         }
 
-        if (i != 0) {
-            LEDBuffer.setHSV(i - 1, 100, 255, 0);
-            i++;
+        if (Arrays.equals(composedFrame, shownFrame)) {
             return;
         }
-
-        LEDBuffer.setHSV(i, 100, 255, 255);
-        i++;
-    }
-
-    private void blinkLEDs() {
-        int led_max = LEDBuffer.getLength();
-
-        for (int i = 0; i < led_max; i++) {
-            if (blink) {
-                setLEDPattern(LEDPattern.GREEN);
-            } else {
-                setHSV(0, 255, 255);
-            }
+        System.arraycopy(composedFrame, 0, shownFrame, 0, shownFrame.length);
+        for (int led = 0; led < LEDBuffer.getLength(); led++) {
+            LEDBuffer.setRGB(led, shownFrame[led * 3] & 0xFF, shownFrame[led * 3 + 1] & 0xFF,
+                    shownFrame[led * 3 + 2] & 0xFF);
         }
-
-        blink = !blink;
-    }
-
-    /**
-     * setter for the current LEDsPattern
-     * 
-     * @param pattern
-     */
-    public void setLEDPattern(LEDPattern pattern) {
-        this.currentLEDPattern = pattern;
+        LEDs.setData(LEDBuffer);
+        framesSent++;
     }
 
     // This method will be called once per scheduler run
     @Override
     public void periodic() {
-        switch (currentLEDPattern) {
-            case RAINBOW:
-                // not checking if already in this state because the rainbow moves in a wave
-                // pattern
-                rainbowLEDs();
-                this.setLEDPattern(LEDPattern.RAINBOW);
-                break;
-            case RED:
-                setRGB(255, 0, 0);
-                this.setLEDPattern(LEDPattern.RED);
-                break;
-
-            case GREEN:
-                // Red Hue: 170-15
-                setRGB(0, 255, 0);
-                this.setLEDPattern(LEDPattern.GREEN);
-                break;
-
-            case BLUE:
-                // Green Hue: 40-75
-                setRGB(0, 0, 255);
-                this.setLEDPattern(LEDPattern.BLUE);
-                break;
-
-            case PURPLE:
-
-                setRGB(99, 5, 250);
-                this.setLEDPattern(LEDPattern.PURPLE);
-                break;
-
-            case YELLOW:
-
-                setRGB(250, 209, 5);
-                this.setLEDPattern(LEDPattern.YELLOW);
-                break;
-
-            case WHITE:
-                // Green Hue: 40-75
-                setRGB(100, 100, 100);
-                this.setLEDPattern(LEDPattern.WHITE);
-                break;
-
-            case BOUNCE:
-                if (currentLEDPattern != LEDPattern.BOUNCE)
-                    i = 0;
-
-                bounceLEDs();
-                break;
-            case BLINK:
-
-                blinkLEDs();
-                break;
-
-            case TWINKLE:
-                /*
-                 * setLEDSTwinkle does NOT set the value once, and must be updated periodically
-                 */
-                twinkleLEDs();
-                break;
-            case NOTHING:
-                break;
-            default:
-                setRGB(180, 255, 255);
-                System.out.println("ERROR: LEDs switch case not getting a color pattern");
-                break;
-        }
+        profiler.start();
 
-        LEDs.setData(LEDBuffer);
+        // the alliance isn't known until the driver station connects
+        setLayer(LEDLayer.ALLIANCE, getDefaultColor());
+
+        profiler.stop();
     }
 
-}
\ No newline at end of file
+}
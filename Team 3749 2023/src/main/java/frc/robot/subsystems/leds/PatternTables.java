@@ -0,0 +1,164 @@
+package frc.robot.subsystems.leds;
+
+import java.util.Random;
+
+import frc.robot.utils.Constants.LEDs.LEDPattern;
+
+/**
+ * Renders every frame of an LEDPattern ahead of time. A frame is the red,
+ * green and blue byte of each LED in order. Static colors are one frame, and
+ * animations loop through their frames at LEDs.animation_fps.
+ */
+final class PatternTables {
+    private static final int RAINBOW_FRAMES = 180;
+    private static final int TWINKLE_FRAMES = 64;
+    private static final int TWINKLE_COUNT = 30;
+    // frames each blink color is held for, slow enough to see at any update
+    // rate
+    private static final int BLINK_FRAMES = 5;
+
+    private PatternTables() {
+    }
+
+    /**
+     * @param pattern
+     * @param length  LEDs in the segment it's drawn on
+     * @return the pattern's frames, or null for NOTHING, which draws nothing
+     */
+    static byte[][] render(LEDPattern pattern, int length) {
+        switch (pattern) {
+            case RED:
+                return new byte[][] { solid(length, 255, 0, 0) };
+            case GREEN:
+                return new byte[][] { solid(length, 0, 255, 0) };
+            case BLUE:
+                return new byte[][] { solid(length, 0, 0, 255) };
+            case PURPLE:
+                return new byte[][] { solid(length, 99, 5, 250) };
+            case YELLOW:
+                return new byte[][] { solid(length, 250, 209, 5) };
+            case WHITE:
+                return new byte[][] { solid(length, 100, 100, 100) };
+            case RAINBOW:
+                return rainbow(length);
+            case BOUNCE:
+                return bounce(length);
+            case BLINK:
+                return blink(length);
+            case TWINKLE:
+                return twinkle(length);
+            case NOTHING:
+                return null;
+            default:
+                System.out.println("ERROR: no LED table for " + pattern);
+                return new byte[][] { solid(length, 180, 255, 255) };
+        }
+    }
+
+    private static byte[] solid(int length, int red, int green, int blue) {
+        byte[] frame = new byte[length * 3];
+        fill(frame, 0, length, red, green, blue);
+        return frame;
+    }
+
+    private static byte[][] rainbow(int length) {
+        // the whole strip steps through every hue
+        byte[][] frames = new byte[RAINBOW_FRAMES][];
+        for (int hue = 0; hue < RAINBOW_FRAMES; hue++) {
+            frames[hue] = hsv(new byte[length * 3], 0, length, hue, 255, 255);
+        }
+        return frames;
+    }
+
+    private static byte[][] bounce(int length) {
+        // one lit LED running to the end of the strip and back
+        int frameCount = Math.max(1, 2 * (length - 1));
+        byte[][] frames = new byte[frameCount][];
+        for (int frame = 0; frame < frameCount; frame++) {
+            int led = frame < length ? frame : frameCount - frame;
+            frames[frame] = hsv(new byte[length * 3], led, led + 1, 100, 255, 255);
+        }
+        return frames;
+    }
+
+    private static byte[][] blink(int length) {
+        byte[] green = solid(length, 0, 255, 0);
+        byte[] red = hsv(new byte[length * 3], 0, length, 0, 255, 255);
+        byte[][] frames = new byte[BLINK_FRAMES * 2][];
+        for (int frame = 0; frame < BLINK_FRAMES; frame++) {
+            frames[frame] = green;
+            frames[BLINK_FRAMES + frame] = red;
+        }
+        return frames;
+    }
+
+    private static byte[][] twinkle(int length) {
+        // fixed seed, so the twinkle looks the same every time
+        Random random = new Random(3749);
+        byte[][] frames = new byte[TWINKLE_FRAMES][];
+        for (int frame = 0; frame < TWINKLE_FRAMES; frame++) {
+            byte[] pixels = hsv(new byte[length * 3], 0, length, 100, 255, 20);
+            for (int i = 0; i < TWINKLE_COUNT; i++) {
+                int led = random.nextInt(length);
+                fill(pixels, led, led + 1, 0, 255, 0);
+            }
+            frames[frame] = pixels;
+        }
+        return frames;
+    }
+
+    /**
+     * Set a range of LEDs to one color
+     */
+    static void fill(byte[] frame, int from, int to, int red, int green, int blue) {
+        for (int led = from; led < to; led++) {
+            frame[led * 3] = (byte) red;
+            frame[led * 3 + 1] = (byte) green;
+            frame[led * 3 + 2] = (byte) blue;
+        }
+    }
+
+    /**
+     * Set a range of LEDs to an HSV color, converted the same way as
+     * AddressableLEDBuffer.setHSV
+     *
+     * @param hue        0 to 180
+     * @param saturation 0 to 255
+     * @param value      0 to 255
+     * @return the frame
+     */
+    static byte[] hsv(byte[] frame, int from, int to, int hue, int saturation, int value) {
+        if (saturation == 0) {
+            fill(frame, from, to, value, value, value);
+            return frame;
+        }
+
+        int region = hue / 30;
+        int remainder = (hue - region * 30) * 6;
+        int p = (value * (255 - saturation)) >> 8;
+        int q = (value * (255 - ((saturation * remainder) >> 8))) >> 8;
+        int t = (value * (255 - ((saturation * (255 - remainder)) >> 8))) >> 8;
+
+        switch (region) {
+            case 0:
+                fill(frame, from, to, value, t, p);
+                break;
+            case 1:
+                fill(frame, from, to, q, value, p);
+                break;
+            case 2:
+                fill(frame, from, to, p, value, t);
+                break;
+            case 3:
+                fill(frame, from, to, p, q, value);
+                break;
+            case 4:
+                fill(frame, from, to, t, p, value);
+                break;
+            default:
+                fill(frame, from, to, value, p, q);
+                break;
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,33 @@
+package frc.robot.subsystems.swerve;
+
+/**
+ * The gyro Swerve reads. GyroIONavX is used on the robot and in simulation,
+ * where the NavX has its own sim device. The default methods do nothing,
+ * which is what a log replay uses.
+ *
+ * getYaw is also called from the odometry thread.
+ */
+public interface GyroIO {
+    /**
+     * @return degrees, clockwise positive
+     */
+    public default double getYaw() {
+        return 0;
+    }
+
+    /**
+     * @return degrees
+     */
+    public default double getPitch() {
+        return 0;
+    }
+
+    /**
+     * Zero the yaw
+     */
+    public default void reset() {
+    }
+
+    public default void calibrate() {
+    }
+}
@@ -0,0 +1,33 @@
+package frc.robot.subsystems.swerve;
+
+import com.kauailabs.navx.frc.AHRS;
+
+import edu.wpi.first.wpilibj.SPI;
+import frc.robot.utils.Constants.DriveConstants;
+
+/**
+ * NavX on the MXP port, updating as often as the odometry thread samples it
+ */
+public class GyroIONavX implements GyroIO {
+    private final AHRS gyro = new AHRS(SPI.Port.kMXP, (byte) DriveConstants.odometry_frequency_hz);
+
+    @Override
+    public double getYaw() {
+        return gyro.getYaw();
+    }
+
+    @Override
+    public double getPitch() {
+        return gyro.getPitch();
+    }
+
+    @Override
+    public void reset() {
+        gyro.reset();
+    }
+
+    @Override
+    public void calibrate() {
+        gyro.calibrate();
+    }
+}
@@ -0,0 +1,121 @@
+package frc.robot.subsystems.swerve;
+
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Samples the swerve module positions and the gyro on a Notifier, much faster
+ * than the 20 ms robot loop. Each sample is timestamped and pushed into a
+ * lock-free single producer, single consumer ring buffer of primitive
+ * doubles, which the robot loop drains into the pose estimator. The sampling
+ * thread never waits on the robot loop.
+ *
+ * If the robot loop falls behind and the buffer fills, new samples are
+ * dropped and counted. Odometry integrates the change in wheel positions
+ * between samples, so a dropped sample only costs resolution, not distance.
+ */
+public class OdometryThread {
+    static final int MODULES = 4;
+    // timestamp, gyro yaw, then the distance and angle of each module
+    static final int FIELDS = 2 + MODULES * 2;
+
+    private final SwerveModule[] modules;
+    private final DoubleSupplier yawDegrees;
+    private final Notifier notifier = new Notifier(this::sample);
+
+    private final int mask;
+    private final double[] buffer;
+
+    // head is only written by the sampling thread, tail only by the robot loop
+    private volatile long head = 0;
+    private volatile long tail = 0;
+    private volatile long dropped = 0;
+
+    /**
+     * @param modules    modules in the same order as the kinematics
+     * @param yawDegrees gyro yaw, called on the sampling thread
+     * @param capacity   samples the buffer can hold, rounded up to a power of
+     *                   two
+     */
+    public OdometryThread(SwerveModule[] modules, DoubleSupplier yawDegrees, int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.modules = modules;
+        this.yawDegrees = yawDegrees;
+        this.mask = size - 1;
+        this.buffer = new double[size * FIELDS];
+        notifier.setName("OdometryThread");
+    }
+
+    /**
+     * Start sampling
+     *
+     * @param frequencyHz
+     */
+    public void start(double frequencyHz) {
+        notifier.startPeriodic(1.0 / frequencyHz);
+    }
+
+    private void sample() {
+        long h = head;
+        if (h - tail > mask) {
+            dropped++;
+            return;
+        }
+
+        int i = (int) (h & mask) * FIELDS;
+        buffer[i] = Timer.getFPGATimestamp();
+        buffer[i + 1] = yawDegrees.getAsDouble();
+        for (int module = 0; module < MODULES; module++) {
+            buffer[i + 2 + module * 2] = modules[module].getDrivePosition();
+            buffer[i + 3 + module * 2] = modules[module].getAbsoluteEncoderRad();
+        }
+
+        // publishes the sample to the robot loop
+        head = h + 1;
+    }
+
+    /**
+     * Hand every queued sample to a consumer, oldest first, then free them. Only
+     * call from one thread.
+     *
+     * @param consumer
+     * @return number of samples drained
+     */
+    public int drain(SampleConsumer consumer) {
+        long h = head;
+        long t = tail;
+        int count = (int) (h - t);
+        for (; t < h; t++) {
+            int i = (int) (t & mask) * FIELDS;
+            consumer.accept(buffer[i], buffer[i + 1], buffer, i + 2);
+        }
+        // frees the slots for the sampling thread
+        tail = t;
+        return count;
+    }
+
+    /**
+     * @return number of samples dropped because the buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Receives one odometry sample
+     */
+    @FunctionalInterface
+    public interface SampleConsumer {
+        /**
+         * @param timestamp FPGA time the sample was taken, seconds
+         * @param yaw       gyro yaw, degrees
+         * @param modules   buffer holding the distance (meters) and angle
+         *                  (radians) of each module, interleaved. Only valid
+         *                  during the call.
+         * @param offset    index of the first module's distance
+         */
+        void accept(double timestamp, double yaw, double[] modules, int offset);
+    }
+}
@@ -0,0 +1,123 @@
+package frc.robot.subsystems.swerve;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Fixed size ring buffer of timestamped robot poses, stored as primitive
+ * arrays. Lookups binary search for the two poses around a time and
+ * interpolate between them, so a vision command can ask where the robot was
+ * when a frame was captured instead of where it is now.
+ *
+ * Not thread safe, only use it from the main robot thread.
+ */
+public class PoseHistory {
+    private final int mask;
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] thetas;
+    // total poses ever added, the newest is at (count - 1) & mask
+    private long count = 0;
+
+    /**
+     * @param capacity poses kept, rounded up to a power of two
+     */
+    public PoseHistory(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        mask = size - 1;
+        timestamps = new double[size];
+        xs = new double[size];
+        ys = new double[size];
+        thetas = new double[size];
+    }
+
+    /**
+     * Record a pose. Poses must be added in time order, older ones are ignored.
+     *
+     * @param timestamp FPGA time, seconds
+     * @param x         meters
+     * @param y         meters
+     * @param theta     radians
+     */
+    public void add(double timestamp, double x, double y, double theta) {
+        if (count > 0 && timestamp <= timestamps[(int) ((count - 1) & mask)]) {
+            return;
+        }
+        int i = (int) (count & mask);
+        timestamps[i] = timestamp;
+        xs[i] = x;
+        ys[i] = y;
+        thetas[i] = theta;
+        count++;
+    }
+
+    /**
+     * Forget every pose, e.g. after the odometry is reset
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Interpolate the pose at a time without allocating
+     *
+     * @param timestamp FPGA time, seconds
+     * @param out       filled with {x, y, theta}
+     * @return false if the history is empty or the time is older than the
+     *         oldest pose. Times after the newest pose give the newest pose.
+     */
+    public boolean sample(double timestamp, double[] out) {
+        if (count == 0) {
+            return false;
+        }
+        long oldest = Math.max(0, count - (mask + 1));
+        long newest = count - 1;
+        if (timestamp < timestamps[(int) (oldest & mask)]) {
+            return false;
+        }
+        if (timestamp >= timestamps[(int) (newest & mask)]) {
+            copy((int) (newest & mask), out);
+            return true;
+        }
+
+        // last pose at or before the timestamp
+        long low = oldest;
+        long high = newest;
+        while (high - low > 1) {
+            long mid = (low + high) >>> 1;
+            if (timestamps[(int) (mid & mask)] <= timestamp) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+
+        int a = (int) (low & mask);
+        int b = (int) (high & mask);
+        double t = (timestamp - timestamps[a]) / (timestamps[b] - timestamps[a]);
+        out[0] = xs[a] + (xs[b] - xs[a]) * t;
+        out[1] = ys[a] + (ys[b] - ys[a]) * t;
+        out[2] = thetas[a] + MathUtil.angleModulus(thetas[b] - thetas[a]) * t;
+        return true;
+    }
+
+    /**
+     * @param timestamp FPGA time, seconds
+     * @return the interpolated pose, or null if there is none for that time
+     */
+    public Pose2d getPoseAt(double timestamp) {
+        double[] out = new double[3];
+        if (!sample(timestamp, out)) {
+            return null;
+        }
+        return new Pose2d(out[0], out[1], new Rotation2d(out[2]));
+    }
+
+    private void copy(int i, double[] out) {
+        out[0] = xs[i];
+        out[1] = ys[i];
+        out[2] = thetas[i];
+    }
+}
@@ -4,8 +4,12 @@
 
 package frc.robot.subsystems.swerve;
 
-import com.kauailabs.navx.frc.AHRS;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import edu.wpi.first.hal.SimDouble;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.filter.SlewRateLimiter;
@@ -18,12 +22,17 @@ import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.SPI;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.simulation.SimDeviceSim;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.subsystems.vision.VisionMeasurement;
 import frc.robot.utils.Constants;
-import frc.robot.utils.ShuffleData;
+import frc.robot.utils.InputLog;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.Telemetry;
 import frc.robot.utils.Constants.DriveConstants;
+import frc.robot.utils.Constants.VisionConstants;
 
 /***
  * @author Noah Simon
@@ -36,58 +45,97 @@ import frc.robot.utils.Constants.DriveConstants;
  *         logging information
  */
 public class Swerve extends SubsystemBase {
-    private final SwerveModule frontLeft = new SwerveModule(
+
+    private final LoopProfiler.Section profiler = LoopProfiler.register("Swerve");
+
+    private final SwerveModule frontLeft = new SwerveModule(createModuleIO(
             DriveConstants.kFrontLeftDriveMotorPort,
             DriveConstants.kFrontLeftTurningMotorPort,
             DriveConstants.kFrontLeftDriveEncoderReversed,
             DriveConstants.kFrontLeftTurningEncoderReversed,
             DriveConstants.kFrontLeftDriveAbsoluteEncoderPort,
             DriveConstants.kFrontLeftDriveAbsoluteEncoderOffsetDeg,
-            DriveConstants.kFrontLeftDriveAbsoluteEncoderReversed);
+            DriveConstants.kFrontLeftDriveAbsoluteEncoderReversed), 1);
 
-    private final SwerveModule frontRight = new SwerveModule(
+    private final SwerveModule frontRight = new SwerveModule(createModuleIO(
             DriveConstants.kFrontRightDriveMotorPort,
             DriveConstants.kFrontRightTurningMotorPort,
             DriveConstants.kFrontRightDriveEncoderReversed,
             DriveConstants.kFrontRightTurningEncoderReversed,
             DriveConstants.kFrontRightDriveAbsoluteEncoderPort,
             DriveConstants.kFrontRightDriveAbsoluteEncoderOffsetDeg,
-            DriveConstants.kFrontRightDriveAbsoluteEncoderReversed);
+            DriveConstants.kFrontRightDriveAbsoluteEncoderReversed), 0);
 
-    private final SwerveModule backLeft = new SwerveModule(
+    private final SwerveModule backLeft = new SwerveModule(createModuleIO(
             DriveConstants.kBackLeftDriveMotorPort,
             DriveConstants.kBackLeftTurningMotorPort,
             DriveConstants.kBackLeftDriveEncoderReversed,
             DriveConstants.kBackLeftTurningEncoderReversed,
             DriveConstants.kBackLeftDriveAbsoluteEncoderPort,
             DriveConstants.kBackLeftDriveAbsoluteEncoderOffsetDeg,
-            DriveConstants.kBackLeftDriveAbsoluteEncoderReversed);
+            DriveConstants.kBackLeftDriveAbsoluteEncoderReversed), 3);
 
-    private final SwerveModule backRight = new SwerveModule(
+    private final SwerveModule backRight = new SwerveModule(createModuleIO(
             DriveConstants.kBackRightDriveMotorPort,
             DriveConstants.kBackRightTurningMotorPort,
             DriveConstants.kBackRightDriveEncoderReversed,
             DriveConstants.kBackRightTurningEncoderReversed,
             DriveConstants.kBackRightDriveAbsoluteEncoderPort,
             DriveConstants.kBackRightDriveAbsoluteEncoderOffsetDeg,
-            DriveConstants.kBackRightDriveAbsoluteEncoderReversed);
+            DriveConstants.kBackRightDriveAbsoluteEncoderReversed), 2);
+
+    // same order as the kinematics
+    private final SwerveModule[] modules = { frontRight, frontLeft, backRight, backLeft };
 
-    private final AHRS gyro = new AHRS(SPI.Port.kMXP);
+    private final GyroIO gyro = InputLog.getMode() == InputLog.Mode.REPLAY ? new GyroIO() {
+    } : new GyroIONavX();
     // equivilant to a odometer, but also intakes vision
     private SwerveDrivePoseEstimator swerveDrivePoseEstimator;
 
+    private final OdometryThread odometryThread = new OdometryThread(modules,
+            this::readYaw, DriveConstants.odometry_buffer_capacity);
+    private final SwerveModulePosition[] odometryPositions = {
+            new SwerveModulePosition(), new SwerveModulePosition(),
+            new SwerveModulePosition(), new SwerveModulePosition() };
+    private final OdometryThread.SampleConsumer odometryUpdate = this::updateOdometry;
+    private final OdometryThread.SampleConsumer odometryRecord = this::recordOdometry;
+    private Rotation2d odometryRotation = new Rotation2d();
+    // latest pose, replaced whole so any thread can read it without locking
+    private volatile Pose2d pose = new Pose2d();
+    // odometry estimates, for looking up where the robot was at a past time
+    private final PoseHistory poseHistory = new PoseHistory(DriveConstants.pose_history_capacity);
+    // filled by the vision thread, drained each loop
+    private final ArrayBlockingQueue<VisionMeasurement> visionMeasurements = new ArrayBlockingQueue<>(
+            Constants.VisionConstants.vision_queue_capacity);
+    private final double[] visionCapturePose = new double[3];
+    private int consecutiveVisionRejections = 0;
+    private int visionRejections = 0;
+
     private final PIDController turnController = new PIDController(0.0335, 0.00, 0);
     private final SlewRateLimiter turningLimiter = new SlewRateLimiter(
             Constants.DriveConstants.kTeleDriveMaxAngularAccelerationUnitsPerSecond);
 
-    private ShuffleData<Double> robotHeading = new ShuffleData<Double>("Swerve", "Robot Heading", 0.0);
-    private ShuffleData<Double> pitch = new ShuffleData<Double>("Swerve", "Robot Pitch", 0.0);
-    private ShuffleData<Double> robotPoseX = new ShuffleData<Double>("Swerve", "Robot Pose X", 0.0);
-    private ShuffleData<Double> robotPoseY = new ShuffleData<Double>("Swerve", "Robot Pose Y", 0.0);
+    // read by the odometry thread
+    private volatile boolean flipGyro = true;
+
+    // simulated NavX yaw, integrated from the simulated modules
+    private final SimDouble simYaw = InputLog.getMode() == InputLog.Mode.SIM
+            ? new SimDeviceSim("navX-Sensor[" + SPI.Port.kMXP.value + "]").getDouble("Yaw")
+            : null;
+    private final SwerveModuleState[] simStates = new SwerveModuleState[4];
+    private double simYawDegrees = 0;
+    private double lastSimTime = Timer.getFPGATimestamp();
 
-    private boolean flipGyro = true;
+    // sensor reads for this loop
+    private final SwerveInputs inputs = new SwerveInputs(DriveConstants.odometry_buffer_capacity);
+    // gyro reads since the last loop, from the robot loop and the odometry
+    // thread. The modules count their own.
+    private final AtomicInteger gyroReads = new AtomicInteger();
+    private int hardwareReadsLastLoop = 0;
 
     public Swerve() {
+        readAllInputs();
+
         new Thread(() -> {
             try {
                 Thread.sleep(3000);
@@ -99,14 +147,65 @@ public class Swerve extends SubsystemBase {
 
         swerveDrivePoseEstimator = new SwerveDrivePoseEstimator(Constants.DriveConstants.kDriveKinematics,
                 new Rotation2d(0),
-                new SwerveModulePosition[] { frontRight.getPosition(), frontLeft.getPosition(), backRight.getPosition(),
-                        backLeft.getPosition() },
+                getModulePositions(),
                 new Pose2d(new Translation2d(0, 0), new Rotation2d(0, 0)));
 
         // swerveDrivePoseEstimator.setVisionMeasurementStdDevs(null);
         gyro.calibrate();
         turnController.enableContinuousInput(-180, 180);
 
+        // replayed samples come from the log
+        if (InputLog.getMode() != InputLog.Mode.REPLAY) {
+            odometryThread.start(DriveConstants.odometry_frequency_hz);
+        }
+
+        // the dashboard topics are the ones these were published to before
+        // Telemetry, "Real Staets" included
+        Telemetry.addDoubleArray("Odometry", "/SmartDashboard/Odometry", 3, out -> {
+            Pose2d current = getPose();
+            out[0] = current.getX();
+            out[1] = current.getY();
+            out[2] = current.getRotation().getDegrees();
+        });
+        Telemetry.addDoubleArray("Real States", "/SmartDashboard/Real Staets", modules.length * 2, out -> {
+            for (int i = 0; i < modules.length; i++) {
+                out[i * 2] = inputs.getAbsoluteAngle(i);
+                out[i * 2 + 1] = inputs.getDriveVelocity(i);
+            }
+        });
+        Telemetry.addDoubleArray("Theoretical States", "/SmartDashboard/Theoretical States",
+                modules.length * 2, out -> {
+            for (int i = 0; i < modules.length; i++) {
+                SwerveModuleState state = modules[i].getTheoreticalState();
+                out[i * 2] = state.angle.getDegrees();
+                out[i * 2 + 1] = state.speedMetersPerSecond;
+            }
+        });
+        Telemetry.addDouble("Swerve/Robot Heading", "/Shuffleboard/Swerve/Robot Heading", this::getHeading);
+        Telemetry.addDouble("Swerve/Robot Pitch", "/Shuffleboard/Swerve/Robot Pitch", this::getVerticalTilt);
+        Telemetry.addDouble("Swerve/Robot Pose X", "/Shuffleboard/Swerve/Robot Pose X", () -> getPose().getX());
+        Telemetry.addDouble("Swerve/Robot Pose Y", "/Shuffleboard/Swerve/Robot Pose Y", () -> getPose().getY());
+        Telemetry.addDouble("Swerve/Hardware Reads", () -> hardwareReadsLastLoop);
+        Telemetry.addDouble("Swerve/Vision Rejections", () -> visionRejections);
+
+    }
+
+    /**
+     * @return the module hardware for the current InputLog mode
+     */
+    private static SwerveModuleIO createModuleIO(int driveMotorId, int turningMotorId, boolean driveMotorReversed,
+            boolean turningMotorReversed, int absoluteEncoderId, double absoluteEncoderOffset,
+            boolean absoluteEncoderReversed) {
+        switch (InputLog.getMode()) {
+            case REAL:
+                return new SwerveModuleIOReal(driveMotorId, turningMotorId, driveMotorReversed, turningMotorReversed,
+                        absoluteEncoderId, absoluteEncoderOffset, absoluteEncoderReversed);
+            case SIM:
+                return new SwerveModuleSim();
+            default:
+                return new SwerveModuleIO() {
+                };
+        }
     }
 
     public void drive(double xSpeed, double ySpeed, double thetaSpeed) {
@@ -130,17 +229,26 @@ public class Swerve extends SubsystemBase {
 
     public void resetGyro() {
         gyro.reset();
+        // the rest of this loop, e.g. resetOdometry right after, sees the reset
+        // yaw instead of the one read at the start of the loop
+        inputs.yaw = 0;
         System.out.println("RESET");
     }
 
     public double getAutoHeading() {
+        return autoHeading(getHeading());
+    }
 
-        return new Rotation2d(Math.toRadians(gyro.getYaw()))
+    private static double autoHeading(double yaw) {
+        return new Rotation2d(Math.toRadians(yaw))
                 .rotateBy(new Rotation2d(Math.toRadians(180))).getDegrees();
     }
 
+    /**
+     * @return gyro yaw at the start of this loop, degrees
+     */
     public double getHeading() {
-        return gyro.getYaw();
+        return inputs.getYaw();
     }
 
     public Rotation2d getAutoRotation2d() {
@@ -153,13 +261,79 @@ public class Swerve extends SubsystemBase {
         return Rotation2d.fromDegrees(-getHeading());
     }
 
-    public Pose2d getPose() {
-        Rotation2d rotation = DriverStation.getAlliance() == Alliance.Blue
-                ? (flipGyro ? getAutoRotation2d() : getRotation2d())
-                : getRotation2d();
-        Pose2d estimatedPose = swerveDrivePoseEstimator.getEstimatedPosition();
+    /**
+     * @param yaw gyro yaw, degrees
+     * @return rotation the odometry runs on, flipped for blue when the gyro is
+     *         flipped
+     */
+    private Rotation2d odometryRotation(double yaw) {
+        return DriverStation.getAlliance() == Alliance.Blue && flipGyro
+                ? Rotation2d.fromDegrees(-autoHeading(yaw))
+                : Rotation2d.fromDegrees(-yaw);
+    }
 
-        return new Pose2d(estimatedPose.getTranslation(), rotation);
+    /**
+     * @return sensor readings taken at the start of this loop
+     */
+    public SwerveInputs getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Fill this loop's inputs after the odometry samples are drained into them.
+     * Drive positions, module angles and yaw come from the newest sample, only
+     * what the odometry thread doesn't sample is read here.
+     */
+    private void readInputs() {
+        inputs.timestamp = Timer.getFPGATimestamp();
+        inputs.copyNewestOdometrySample();
+        for (int i = 0; i < modules.length; i++) {
+            inputs.driveVelocities[i] = modules[i].getDriveVelocity();
+        }
+        gyroReads.incrementAndGet();
+        inputs.pitch = gyro.getPitch();
+    }
+
+    /**
+     * Read every sensor directly, before the odometry thread has sampled any
+     */
+    private void readAllInputs() {
+        inputs.timestamp = Timer.getFPGATimestamp();
+        for (int i = 0; i < modules.length; i++) {
+            inputs.drivePositions[i] = modules[i].getDrivePosition();
+            inputs.driveVelocities[i] = modules[i].getDriveVelocity();
+            inputs.absoluteAngles[i] = modules[i].getAbsoluteEncoderRad();
+        }
+        inputs.yaw = readYaw();
+        gyroReads.incrementAndGet();
+        inputs.pitch = gyro.getPitch();
+    }
+
+    /**
+     * @return gyro yaw, counted as a sensor read
+     */
+    private double readYaw() {
+        gyroReads.incrementAndGet();
+        return gyro.getYaw();
+    }
+
+    /**
+     * @return sensor reads since the last call, from every thread
+     */
+    private int takeHardwareReads() {
+        int reads = gyroReads.getAndSet(0);
+        for (SwerveModule module : modules) {
+            reads += module.takeReads();
+        }
+        return reads;
+    }
+
+    /**
+     * @return the estimated position with the rotation of the latest odometry
+     *         sample. Safe to call from any thread.
+     */
+    public Pose2d getPose() {
+        return pose;
     }
 
     public boolean getFlipGyro() {
@@ -167,28 +341,141 @@ public class Swerve extends SubsystemBase {
     }
 
     public void resetOdometry(Pose2d pose) {
-        Rotation2d rotation = DriverStation.getAlliance() == Alliance.Blue
-                ? (flipGyro ? getAutoRotation2d() : getRotation2d())
-                : getRotation2d();
+        // samples taken before the reset would be applied on top of it
+        odometryThread.drain((timestamp, yaw, positions, offset) -> {
+        });
+
+        inputs.clearSamples();
 
-        swerveDrivePoseEstimator.resetPosition(rotation,
-                new SwerveModulePosition[] { frontRight.getPosition(), frontLeft.getPosition(), backRight.getPosition(),
-                        backLeft.getPosition() },
-                pose);
+        odometryRotation = odometryRotation(inputs.getYaw());
+        swerveDrivePoseEstimator.resetPosition(odometryRotation, getModulePositions(), pose);
+        poseHistory.clear();
+        updatePose();
     }
 
-    public void updateOdometry() {
-        Rotation2d rotation = DriverStation.getAlliance() == Alliance.Blue
-                ? (flipGyro ? getAutoRotation2d() : getRotation2d())
-                : getRotation2d();
-        swerveDrivePoseEstimator.update(rotation,
-                new SwerveModulePosition[] { frontRight.getPosition(), frontLeft.getPosition(), backRight.getPosition(),
-                        backLeft.getPosition() });
+    private void recordOdometry(double timestamp, double yaw, double[] positions, int offset) {
+        inputs.addOdometrySample(timestamp, yaw, positions, offset);
+    }
+
+    private void updateOdometry(double timestamp, double yaw, double[] positions, int offset) {
+        for (int i = 0; i < odometryPositions.length; i++) {
+            odometryPositions[i].distanceMeters = positions[offset + i * 2];
+            odometryPositions[i].angle = new Rotation2d(positions[offset + i * 2 + 1]);
+        }
+        odometryRotation = odometryRotation(yaw);
+        Pose2d estimate = swerveDrivePoseEstimator.updateWithTime(timestamp, odometryRotation, odometryPositions);
+        poseHistory.add(timestamp, estimate.getX(), estimate.getY(), odometryRotation.getRadians());
+    }
 
+    /**
+     * Where the robot was at a time in the last couple of seconds, e.g. when a
+     * camera frame was captured
+     *
+     * @param timestampSeconds FPGA time
+     * @return the interpolated pose, or the current pose if the time is older
+     *         than the history
+     */
+    public Pose2d getPoseAt(double timestampSeconds) {
+        Pose2d pastPose = poseHistory.getPoseAt(timestampSeconds);
+        return pastPose != null ? pastPose : getPose();
+    }
+
+    /**
+     * @return poses from the last couple of seconds, for lookups that shouldn't
+     *         allocate
+     */
+    public PoseHistory getPoseHistory() {
+        return poseHistory;
+    }
+
+    /**
+     * Queue a vision pose to be added to the estimator on the next loop. Safe to
+     * call from any thread. If the queue is full the oldest pose is dropped.
+     *
+     * @param measurement
+     */
+    public void offerVisionMeasurement(VisionMeasurement measurement) {
+        while (!visionMeasurements.offer(measurement)) {
+            visionMeasurements.poll();
+        }
     }
 
-    public SwerveDrivePoseEstimator getPoseEstimator() {
-        return swerveDrivePoseEstimator;
+    /**
+     * Add every vision pose in this loop's inputs at the time its frame was
+     * captured
+     */
+    private void updateVision() {
+        if (inputs.getVisionCount() == 0) {
+            return;
+        }
+        for (int i = 0; i < inputs.getVisionCount(); i++) {
+            VisionMeasurement measurement = inputs.getVisionMeasurement(i);
+            if (!measurement.hasStdDevs()) {
+                swerveDrivePoseEstimator.addVisionMeasurement(measurement.getPose(),
+                        measurement.getTimestampSeconds());
+                continue;
+            }
+            if (isVisionOutlier(measurement)) {
+                continue;
+            }
+            swerveDrivePoseEstimator.addVisionMeasurement(measurement.getPose(), measurement.getTimestampSeconds(),
+                    VecBuilder.fill(measurement.getXYStdDev(), measurement.getXYStdDev(),
+                            measurement.getThetaStdDev()));
+        }
+        updatePose();
+    }
+
+    /**
+     * Compare a measurement to where odometry had the robot when the frame was
+     * captured. Outliers are rejected unless too many have been rejected in a
+     * row, in which case the odometry is more likely to be wrong than the
+     * camera (e.g. after a bad reset).
+     */
+    private boolean isVisionOutlier(VisionMeasurement measurement) {
+        if (!poseHistory.sample(measurement.getTimestampSeconds(), visionCapturePose)) {
+            Pose2d current = getPose();
+            visionCapturePose[0] = current.getX();
+            visionCapturePose[1] = current.getY();
+        }
+
+        double dx = measurement.getPose().getX() - visionCapturePose[0];
+        double dy = measurement.getPose().getY() - visionCapturePose[1];
+        double variance = measurement.getXYStdDev() * measurement.getXYStdDev()
+                + VisionConstants.vision_odometry_std_dev * VisionConstants.vision_odometry_std_dev;
+        double mahalanobisSquared = (dx * dx + dy * dy) / variance;
+
+        if (mahalanobisSquared > VisionConstants.vision_rejection_threshold
+                && consecutiveVisionRejections < VisionConstants.vision_max_consecutive_rejections) {
+            consecutiveVisionRejections++;
+            visionRejections++;
+            return true;
+        }
+        consecutiveVisionRejections = 0;
+        return false;
+    }
+
+    /**
+     * Add a vision pose to the estimator
+     *
+     * @param visionPose
+     * @param timestampSeconds FPGA time the image was captured
+     */
+    public void addVisionMeasurement(Pose2d visionPose, double timestampSeconds) {
+        swerveDrivePoseEstimator.addVisionMeasurement(visionPose, timestampSeconds);
+        updatePose();
+    }
+
+    private void updatePose() {
+        pose = new Pose2d(swerveDrivePoseEstimator.getEstimatedPosition().getTranslation(), odometryRotation);
+    }
+
+    private SwerveModulePosition[] getModulePositions() {
+        SwerveModulePosition[] positions = new SwerveModulePosition[modules.length];
+        for (int i = 0; i < modules.length; i++) {
+            positions[i] = new SwerveModulePosition(inputs.getDrivePosition(i),
+                    new Rotation2d(inputs.getAbsoluteAngle(i)));
+        }
+        return positions;
     }
 
     public void stopModules() {
@@ -210,10 +497,10 @@ public class Swerve extends SubsystemBase {
         desiredStates[1].speedMetersPerSecond = -desiredStates[1].speedMetersPerSecond;
         desiredStates[2].speedMetersPerSecond = -desiredStates[2].speedMetersPerSecond;
         desiredStates[3].speedMetersPerSecond = -desiredStates[3].speedMetersPerSecond;
-        frontRight.setDesiredState(desiredStates[0]);
-        frontLeft.setDesiredState(desiredStates[1]);
-        backRight.setDesiredState(desiredStates[2]);
-        backLeft.setDesiredState(desiredStates[3]);
+        frontRight.setDesiredState(desiredStates[0], inputs.getAbsoluteAngle(0));
+        frontLeft.setDesiredState(desiredStates[1], inputs.getAbsoluteAngle(1));
+        backRight.setDesiredState(desiredStates[2], inputs.getAbsoluteAngle(2));
+        backLeft.setDesiredState(desiredStates[3], inputs.getAbsoluteAngle(3));
 
 
     }
@@ -265,7 +552,7 @@ public class Swerve extends SubsystemBase {
     }
 
     public double getVerticalTilt() {
-        return gyro.getPitch();
+        return inputs.getPitch();
     }
 
     public PIDController getTurnController() {
@@ -290,35 +577,51 @@ public class Swerve extends SubsystemBase {
 
     @Override
     public void periodic() {
-        updateOdometry();
-        SmartDashboard.putNumberArray("Odometry",
-        new double[] { getPose().getX(), getPose().getY(), getPose().getRotation().getDegrees() });
-        double[] realStates = { 
-            frontRight.getAbsoluteEncoderRad(),
-            frontRight.getDriveVelocity(),
-            frontLeft.getAbsoluteEncoderRad(),
-            frontLeft.getDriveVelocity(),
-            backRight.getAbsoluteEncoderRad(),
-            backRight.getDriveVelocity(),
-            backLeft.getAbsoluteEncoderRad(),
-            backLeft.getDriveVelocity()};
-        
-        double[] theoreticalStates = {
-                frontRight.getTheoreticalState().angle.getDegrees(),
-                frontRight.getTheoreticalState().speedMetersPerSecond,
-                frontLeft.getTheoreticalState().angle.getDegrees(),
-                frontLeft.getTheoreticalState().speedMetersPerSecond,
-                backRight.getTheoreticalState().angle.getDegrees(),
-                backRight.getTheoreticalState().speedMetersPerSecond,
-                backLeft.getTheoreticalState().angle.getDegrees(),
-                backLeft.getTheoreticalState().speedMetersPerSecond,
-            };
-            SmartDashboard.putNumberArray("Theoretical States", theoreticalStates);
-
-        SmartDashboard.putNumberArray("Real Staets", realStates);
-        robotHeading.set(getHeading());
-        pitch.set(getVerticalTilt());
-        robotPoseX.set(getPose().getX());
-        robotPoseY.set(getPose().getY());
+        profiler.start();
+        hardwareReadsLastLoop = takeHardwareReads();
+
+        // everything the estimator is fed this loop goes through the inputs, so
+        // a replay feeds it the same
+        inputs.clearSamples();
+        odometryThread.drain(odometryRecord);
+        for (VisionMeasurement measurement = visionMeasurements.poll(); measurement != null;
+                measurement = visionMeasurements.poll()) {
+            inputs.addVisionMeasurement(measurement);
+        }
+        readInputs();
+        InputLog.process("Swerve", inputs);
+
+        inputs.forEachOdometrySample(odometryUpdate);
+        updatePose();
+        updateVision();
+
+        profiler.stop();
+    }
+
+    /**
+     * Step the module simulations and integrate the robot's rotation from the
+     * module states into the simulated NavX
+     */
+    @Override
+    public void simulationPeriodic() {
+        if (InputLog.getMode() != InputLog.Mode.SIM) {
+            return;
+        }
+        double now = Timer.getFPGATimestamp();
+        double dt = now - lastSimTime;
+        lastSimTime = now;
+
+        for (int i = 0; i < modules.length; i++) {
+            modules[i].simulationUpdate(dt);
+            simStates[i] = modules[i].getSimulatedState();
+        }
+        ChassisSpeeds speeds = DriveConstants.kDriveKinematics.toChassisSpeeds(simStates);
+
+        // the NavX yaw is clockwise positive
+        simYawDegrees = MathUtil.inputModulus(simYawDegrees - Math.toDegrees(speeds.omegaRadiansPerSecond * dt),
+                -180, 180);
+        if (simYaw != null) {
+            simYaw.set(simYawDegrees);
+        }
     }
 }
\ No newline at end of file
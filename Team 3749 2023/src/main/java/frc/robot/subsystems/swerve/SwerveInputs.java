@@ -0,0 +1,218 @@
+package frc.robot.subsystems.swerve;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.subsystems.vision.VisionMeasurement;
+import frc.robot.utils.LoggedInputs;
+import frc.robot.utils.Constants.VisionConstants;
+
+/**
+ * Everything Swerve reads from its sensors, filled once at the start of each
+ * robot loop. Swerve and the commands driving it read from this instead of
+ * going back to the CAN bus. Drive positions, module angles and yaw come from
+ * the newest odometry sample, so only the drive velocities and pitch are read
+ * by the robot loop itself.
+ *
+ * It also holds the odometry samples and vision measurements that arrived
+ * from their threads since the last loop, so the pose estimator is only ever
+ * fed from here and a log replay reproduces it exactly.
+ *
+ * One object is reused and overwritten every loop, so values read from it
+ * are only this loop's. It isn't safe to read from other threads.
+ *
+ * Modules are indexed in kinematics order: front right, front left, back
+ * right, back left.
+ */
+public class SwerveInputs implements LoggedInputs {
+    private static final int MODULES = OdometryThread.MODULES;
+    // x, y, rotation, timestamp, xy and theta standard deviations
+    private static final int VISION_FIELDS = 6;
+    // timestamp, modules, yaw, pitch, odometry capacity, odometry sample count,
+    // vision count
+    private static final int HEADER = 1 + MODULES * 3 + 5;
+
+    double timestamp = 0;
+    final double[] drivePositions = new double[MODULES];
+    final double[] driveVelocities = new double[MODULES];
+    final double[] absoluteAngles = new double[MODULES];
+    double yaw = 0;
+    double pitch = 0;
+
+    // at most a full odometry ring buffer drains in one loop
+    private final int odometryCapacity;
+    private final double[] odometry;
+    private int odometryCount = 0;
+    private final double[] vision = new double[VisionConstants.vision_queue_capacity * VISION_FIELDS];
+    private int visionCount = 0;
+
+    /**
+     * @param odometryCapacity most odometry samples one loop can hold
+     */
+    public SwerveInputs(int odometryCapacity) {
+        this.odometryCapacity = odometryCapacity;
+        this.odometry = new double[odometryCapacity * OdometryThread.FIELDS];
+    }
+
+    /**
+     * @return FPGA time of the reads, seconds
+     */
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return meters
+     */
+    public double getDrivePosition(int module) {
+        return drivePositions[module];
+    }
+
+    /**
+     * @return meters per second
+     */
+    public double getDriveVelocity(int module) {
+        return driveVelocities[module];
+    }
+
+    /**
+     * @return CANCoder angle, radians
+     */
+    public double getAbsoluteAngle(int module) {
+        return absoluteAngles[module];
+    }
+
+    /**
+     * @return gyro yaw, degrees
+     */
+    public double getYaw() {
+        return yaw;
+    }
+
+    /**
+     * @return gyro pitch, degrees
+     */
+    public double getPitch() {
+        return pitch;
+    }
+
+    /**
+     * Forget last loop's odometry samples and vision measurements
+     */
+    void clearSamples() {
+        odometryCount = 0;
+        visionCount = 0;
+    }
+
+    /**
+     * Take the drive positions, module angles and yaw from the newest odometry
+     * sample, so they aren't read again. Keeps the last values if no sample came
+     * in this loop.
+     */
+    void copyNewestOdometrySample() {
+        if (odometryCount == 0) {
+            return;
+        }
+        int i = (odometryCount - 1) * OdometryThread.FIELDS;
+        yaw = odometry[i + 1];
+        for (int module = 0; module < MODULES; module++) {
+            drivePositions[module] = odometry[i + 2 + module * 2];
+            absoluteAngles[module] = odometry[i + 3 + module * 2];
+        }
+    }
+
+    /**
+     * Copy an odometry sample in. Dropped if the loop is already full, which only
+     * costs resolution since odometry integrates the change between samples.
+     */
+    void addOdometrySample(double timestamp, double yaw, double[] modules, int offset) {
+        if (odometryCount == odometryCapacity) {
+            return;
+        }
+        int i = odometryCount * OdometryThread.FIELDS;
+        odometry[i] = timestamp;
+        odometry[i + 1] = yaw;
+        System.arraycopy(modules, offset, odometry, i + 2, MODULES * 2);
+        odometryCount++;
+    }
+
+    /**
+     * Hand the odometry samples to a consumer, oldest first
+     */
+    void forEachOdometrySample(OdometryThread.SampleConsumer consumer) {
+        for (int sample = 0; sample < odometryCount; sample++) {
+            int i = sample * OdometryThread.FIELDS;
+            consumer.accept(odometry[i], odometry[i + 1], odometry, i + 2);
+        }
+    }
+
+    /**
+     * Copy a vision measurement in, dropped if the loop is already full
+     */
+    void addVisionMeasurement(VisionMeasurement measurement) {
+        if (visionCount * VISION_FIELDS == vision.length) {
+            return;
+        }
+        int i = visionCount * VISION_FIELDS;
+        vision[i] = measurement.getPose().getX();
+        vision[i + 1] = measurement.getPose().getY();
+        vision[i + 2] = measurement.getPose().getRotation().getRadians();
+        vision[i + 3] = measurement.getTimestampSeconds();
+        vision[i + 4] = measurement.getXYStdDev();
+        vision[i + 5] = measurement.getThetaStdDev();
+        visionCount++;
+    }
+
+    int getVisionCount() {
+        return visionCount;
+    }
+
+    VisionMeasurement getVisionMeasurement(int index) {
+        int i = index * VISION_FIELDS;
+        return new VisionMeasurement(new Pose2d(vision[i], vision[i + 1], new Rotation2d(vision[i + 2])),
+                vision[i + 3], vision[i + 4], vision[i + 5]);
+    }
+
+    @Override
+    public int capacity() {
+        return HEADER + odometry.length + vision.length;
+    }
+
+    @Override
+    public void toArray(double[] out) {
+        out[0] = timestamp;
+        for (int module = 0; module < MODULES; module++) {
+            out[1 + module] = drivePositions[module];
+            out[1 + MODULES + module] = driveVelocities[module];
+            out[1 + MODULES * 2 + module] = absoluteAngles[module];
+        }
+        out[HEADER - 5] = yaw;
+        out[HEADER - 4] = pitch;
+        out[HEADER - 3] = odometryCapacity;
+        out[HEADER - 2] = odometryCount;
+        out[HEADER - 1] = visionCount;
+
+        // both buffers go in whole, the counts say how much of each is this
+        // loop's
+        System.arraycopy(odometry, 0, out, HEADER, odometry.length);
+        System.arraycopy(vision, 0, out, HEADER + odometry.length, vision.length);
+    }
+
+    @Override
+    public void fromArray(double[] in, int length) {
+        timestamp = in[0];
+        for (int module = 0; module < MODULES; module++) {
+            drivePositions[module] = in[1 + module];
+            driveVelocities[module] = in[1 + MODULES + module];
+            absoluteAngles[module] = in[1 + MODULES * 2 + module];
+        }
+        yaw = in[HEADER - 5];
+        pitch = in[HEADER - 4];
+        odometryCount = Math.min((int) in[HEADER - 2], odometryCapacity);
+        visionCount = Math.min((int) in[HEADER - 1], vision.length / VISION_FIELDS);
+
+        // the log may be from a robot with a different odometry capacity
+        int loggedOdometryLength = (int) in[HEADER - 3] * OdometryThread.FIELDS;
+        System.arraycopy(in, HEADER, odometry, 0, odometryCount * OdometryThread.FIELDS);
+        System.arraycopy(in, HEADER + loggedOdometryLength, vision, 0, visionCount * VISION_FIELDS);
+    }
+}
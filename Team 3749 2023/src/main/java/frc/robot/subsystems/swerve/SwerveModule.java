@@ -4,12 +4,7 @@
 
 package frc.robot.subsystems.swerve;
 
-import com.ctre.phoenix.sensors.AbsoluteSensorRange;
-import com.ctre.phoenix.sensors.CANCoder;
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import com.revrobotics.RelativeEncoder;
-import com.revrobotics.CANSparkMax.IdleMode;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Rotation2d;
@@ -26,49 +21,33 @@ import frc.robot.utils.Constants.ModuleConstants;
  * @author Harkirat 
  * 
  *         Object to manage each individual swerve module, including a drive
- *         motor, a turning motor, a drive encoder, and an Absolute CanCoder
+ *         motor, a turning motor, a drive encoder, and an Absolute CanCoder,
+ *         all behind a SwerveModuleIO
  * 
  */
 public class SwerveModule {
-    private final CANSparkMax driveMotor;
-    private final CANSparkMax turningMotor;
-
-    private final RelativeEncoder driveEncoder;
-    private final RelativeEncoder turningEncoder;
+    private final SwerveModuleIO io;
+    // where this module's readings are in SwerveInputs
+    private final int index;
 
     private final PIDController turningPidController;
-    private final CANCoder absoluteEncoder;
-    private final boolean absoluteEncoderReversed;
 
     private SwerveModuleState theoreticalState = new SwerveModuleState();
 
+    // last drive duty cycle, kept when only the turning motor is set
+    private double driveOutput = 0;
 
-    public SwerveModule(int driveMotorId, int turningMotorId, boolean driveMotorReversed, boolean turningMotorReversed,
-            int absoluteEncoderId, double absoluteEncoderOffset, boolean absoluteEncoderReversed) {
-
-        this.absoluteEncoderReversed = absoluteEncoderReversed;
-        absoluteEncoder = new CANCoder(absoluteEncoderId);
-        absoluteEncoder.configAbsoluteSensorRange(AbsoluteSensorRange.Signed_PlusMinus180);
-        absoluteEncoder.configMagnetOffset(absoluteEncoderOffset);
-
-        driveMotor = new CANSparkMax(driveMotorId, MotorType.kBrushless);
-        turningMotor = new CANSparkMax(turningMotorId, MotorType.kBrushless);
-
-        driveMotor.setInverted(driveMotorReversed);
-        turningMotor.setInverted(turningMotorReversed);
-
-        turningMotor.setIdleMode(IdleMode.kBrake);        
-        driveMotor.setIdleMode(IdleMode.kBrake);                
+    // sensor reads since takeReads was last called, from the robot loop and the
+    // odometry thread
+    private final AtomicInteger reads = new AtomicInteger();
 
-        driveEncoder = driveMotor.getEncoder();
-        turningEncoder = turningMotor.getEncoder();
-
-        driveEncoder.setPositionConversionFactor(ModuleConstants.kDriveEncoderRot2Meter);
-        driveEncoder.setVelocityConversionFactor(ModuleConstants.kDriveEncoderRPM2MeterPerSec);
-        turningEncoder.setPositionConversionFactor(ModuleConstants.kTurningEncoderRot2Rad);
-        turningEncoder.setVelocityConversionFactor(ModuleConstants.kTurningEncoderRPM2RadPerSec);
-        driveMotor.setSmartCurrentLimit(35, 50);
-        turningMotor.setSmartCurrentLimit(35, 50);
+    /**
+     * @param io    SwerveModuleIOReal on the robot, SwerveModuleSim in simulation
+     * @param index position in the kinematics order, which SwerveInputs uses
+     */
+    public SwerveModule(SwerveModuleIO io, int index) {
+        this.io = io;
+        this.index = index;
 
         turningPidController = new PIDController(ModuleConstants.kPTurning, 0, 0);
         turningPidController.enableContinuousInput(-Math.PI, Math.PI);
@@ -77,70 +56,104 @@ public class SwerveModule {
     }
 
     public double getDrivePosition() {
-        return driveEncoder.getPosition();
-    }
-
-    public double getTurningPosition() {
-        return turningEncoder.getPosition();
+        reads.incrementAndGet();
+        return io.getDrivePosition();
     }
 
     public double getDriveVelocity() {
-        return driveEncoder.getVelocity();
-    }
-
-    public double getTurningVelocity() {
-        return turningEncoder.getVelocity();
+        reads.incrementAndGet();
+        return io.getDriveVelocity();
     }
 
     public double getAbsoluteEncoderRad() {
-        // double angle = absoluteEncoder.getBusVoltage() /
-        // RobotController.getVoltage5V();
-        // angle *= 2.0 * Math.PI;
-        // angle -= absoluteEncoderOffsetRad;
-        // return angle * (absoluteEncoderReversed ? -1.0 : 1.0);
+        reads.incrementAndGet();
+        return io.getAbsoluteAngle();
+    }
 
-        return ((absoluteEncoder.getAbsolutePosition() / 180 * Math.PI)) * (absoluteEncoderReversed ? -1.0 : 1.0);
+    /**
+     * @return sensor reads since the last call. Safe to call from any thread.
+     */
+    public int takeReads() {
+        return reads.getAndSet(0);
     }
 
     public void resetEncoders() {
-        driveEncoder.setPosition(0);
-        turningEncoder.setPosition(getAbsoluteEncoderRad());
+        io.resetEncoders();
     }
 
-    public SwerveModuleState getState() {
-        return new SwerveModuleState(getDriveVelocity(), new Rotation2d(getAbsoluteEncoderRad()));
+    /**
+     * @param inputs this loop's sensor readings
+     */
+    public SwerveModuleState getState(SwerveInputs inputs) {
+        return new SwerveModuleState(inputs.getDriveVelocity(index), new Rotation2d(inputs.getAbsoluteAngle(index)));
     }
+
     public SwerveModuleState getTheoreticalState() {
         return new SwerveModuleState(theoreticalState.speedMetersPerSecond, theoreticalState.angle);
     }
-    public SwerveModulePosition getPosition() {
-        return new SwerveModulePosition(getDrivePosition(), new Rotation2d(getAbsoluteEncoderRad()));
+
+    /**
+     * @param inputs this loop's sensor readings
+     */
+    public SwerveModulePosition getPosition(SwerveInputs inputs) {
+        return new SwerveModulePosition(inputs.getDrivePosition(index), new Rotation2d(inputs.getAbsoluteAngle(index)));
     }
 
-    public void setDesiredState(SwerveModuleState state) {
+    /**
+     * @param state              state to drive the module to
+     * @param absoluteEncoderRad current module angle, from this loop's
+     *                           SwerveInputs so the CANCoder isn't read again
+     */
+    public void setDesiredState(SwerveModuleState state, double absoluteEncoderRad) {
         theoreticalState = state;
         if (Math.abs(state.speedMetersPerSecond) < 0.001) {
             stop();
             return;
         }
-        state = SwerveModuleState.optimize(state, getState().angle);
+        state = SwerveModuleState.optimize(state, new Rotation2d(absoluteEncoderRad));
         double drive_speed = state.speedMetersPerSecond / DriveConstants.kPhysicalMaxSpeedMetersPerSecond;
 
-        double turning_speed = turningPidController.calculate(getAbsoluteEncoderRad(), state.angle.getRadians());
+        double turning_speed = turningPidController.calculate(absoluteEncoderRad, state.angle.getRadians());
 
-        driveMotor.set(drive_speed);
-        turningMotor.set(turning_speed);
+        setOutputs(drive_speed, turning_speed);
     }
 
     public void stop() {
-        driveMotor.set(0);
-        turningMotor.set(0);
+        setOutputs(0, 0);
+    }
+
+    private void setOutputs(double drive, double turning) {
+        driveOutput = drive;
+        io.setOutputs(drive, turning);
+    }
+
+    /**
+     * Advance the simulation with the outputs last set on the motors. Does
+     * nothing on the real robot.
+     * 
+     * @param seconds time since the last update
+     */
+    public void simulationUpdate(double seconds) {
+        io.simulationUpdate(seconds);
+    }
+
+    /**
+     * @return the simulated module's state, not counted as a sensor read
+     */
+    public SwerveModuleState getSimulatedState() {
+        return new SwerveModuleState(io.getDriveVelocity(), new Rotation2d(io.getAbsoluteAngle()));
     }
 
-    // Turn to the set degree amount, -180 to 180
-    public void turnToDegrees(double angleDegrees) {
+    /**
+     * Turn to the set degree amount, -180 to 180
+     * 
+     * @param angleDegrees
+     * @param absoluteEncoderRad current module angle, from this loop's
+     *                           SwerveInputs so the CANCoder isn't read again
+     */
+    public void turnToDegrees(double angleDegrees, double absoluteEncoderRad) {
         double angleRad = Units.degreesToRadians(angleDegrees);
-        turningMotor.set(turningPidController.calculate(getAbsoluteEncoderRad(), angleRad));
+        setOutputs(driveOutput, turningPidController.calculate(absoluteEncoderRad, angleRad));
 
     }
 
@@ -0,0 +1,54 @@
+package frc.robot.subsystems.swerve;
+
+/**
+ * Hardware of one swerve module. SwerveModuleIOReal talks to the Spark MAXes
+ * and CANCoder, SwerveModuleSim simulates them, and the default methods do
+ * nothing, which is what a log replay uses.
+ *
+ * The getters are also called from the odometry thread, so implementations
+ * have to be safe to read from it.
+ */
+public interface SwerveModuleIO {
+    /**
+     * @return meters
+     */
+    public default double getDrivePosition() {
+        return 0;
+    }
+
+    /**
+     * @return meters per second
+     */
+    public default double getDriveVelocity() {
+        return 0;
+    }
+
+    /**
+     * @return module angle from the absolute encoder, radians
+     */
+    public default double getAbsoluteAngle() {
+        return 0;
+    }
+
+    /**
+     * @param drive   drive motor duty cycle, -1 to 1
+     * @param turning turning motor duty cycle, -1 to 1
+     */
+    public default void setOutputs(double drive, double turning) {
+    }
+
+    /**
+     * Zero the drive position and line the turning encoder up with the absolute
+     * encoder
+     */
+    public default void resetEncoders() {
+    }
+
+    /**
+     * Advance a simulated module with the outputs last set on it
+     *
+     * @param seconds time since the last update
+     */
+    public default void simulationUpdate(double seconds) {
+    }
+}
@@ -0,0 +1,87 @@
+package frc.robot.subsystems.swerve;
+
+import com.ctre.phoenix.sensors.AbsoluteSensorRange;
+import com.ctre.phoenix.sensors.CANCoder;
+import com.ctre.phoenix.sensors.CANCoderStatusFrame;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.CANSparkMax.IdleMode;
+
+import frc.robot.utils.Constants.DriveConstants;
+import frc.robot.utils.Constants.ModuleConstants;
+
+/**
+ * A module's drive and turning Spark MAXes and its CANCoder
+ */
+public class SwerveModuleIOReal implements SwerveModuleIO {
+    private final CANSparkMax driveMotor;
+    private final CANSparkMax turningMotor;
+
+    private final RelativeEncoder driveEncoder;
+    private final RelativeEncoder turningEncoder;
+
+    private final CANCoder absoluteEncoder;
+    private final boolean absoluteEncoderReversed;
+
+    public SwerveModuleIOReal(int driveMotorId, int turningMotorId, boolean driveMotorReversed,
+            boolean turningMotorReversed, int absoluteEncoderId, double absoluteEncoderOffset,
+            boolean absoluteEncoderReversed) {
+        this.absoluteEncoderReversed = absoluteEncoderReversed;
+        absoluteEncoder = new CANCoder(absoluteEncoderId);
+        absoluteEncoder.configAbsoluteSensorRange(AbsoluteSensorRange.Signed_PlusMinus180);
+        absoluteEncoder.configMagnetOffset(absoluteEncoderOffset);
+
+        driveMotor = new CANSparkMax(driveMotorId, MotorType.kBrushless);
+        turningMotor = new CANSparkMax(turningMotorId, MotorType.kBrushless);
+
+        driveMotor.setInverted(driveMotorReversed);
+        turningMotor.setInverted(turningMotorReversed);
+
+        turningMotor.setIdleMode(IdleMode.kBrake);
+        driveMotor.setIdleMode(IdleMode.kBrake);
+
+        driveEncoder = driveMotor.getEncoder();
+        turningEncoder = turningMotor.getEncoder();
+
+        driveEncoder.setPositionConversionFactor(ModuleConstants.kDriveEncoderRot2Meter);
+        driveEncoder.setVelocityConversionFactor(ModuleConstants.kDriveEncoderRPM2MeterPerSec);
+        turningEncoder.setPositionConversionFactor(ModuleConstants.kTurningEncoderRot2Rad);
+        turningEncoder.setVelocityConversionFactor(ModuleConstants.kTurningEncoderRPM2RadPerSec);
+        driveMotor.setSmartCurrentLimit(35, 50);
+        turningMotor.setSmartCurrentLimit(35, 50);
+
+        // report positions as often as the odometry thread samples them
+        int odometryPeriodMs = (int) Math.round(1000 / DriveConstants.odometry_frequency_hz);
+        driveMotor.setPeriodicFramePeriod(PeriodicFrame.kStatus2, odometryPeriodMs);
+        absoluteEncoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData, odometryPeriodMs);
+    }
+
+    @Override
+    public double getDrivePosition() {
+        return driveEncoder.getPosition();
+    }
+
+    @Override
+    public double getDriveVelocity() {
+        return driveEncoder.getVelocity();
+    }
+
+    @Override
+    public double getAbsoluteAngle() {
+        return ((absoluteEncoder.getAbsolutePosition() / 180 * Math.PI)) * (absoluteEncoderReversed ? -1.0 : 1.0);
+    }
+
+    @Override
+    public void setOutputs(double drive, double turning) {
+        driveMotor.set(drive);
+        turningMotor.set(turning);
+    }
+
+    @Override
+    public void resetEncoders() {
+        driveEncoder.setPosition(0);
+        turningEncoder.setPosition(getAbsoluteAngle());
+    }
+}
@@ -0,0 +1,94 @@
+package frc.robot.subsystems.swerve;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.utils.Constants.ModuleConstants;
+
+/**
+ * Physics simulation of one swerve module, a NEO drive motor and a NEO steer
+ * motor each modeled as a DCMotorSim. The drive model carries a quarter of the
+ * robot's mass at the wheel, so it accelerates like the module does on the
+ * carpet.
+ *
+ * Used as the module's SwerveModuleIO in simulation. Written on the main
+ * thread and read by the odometry thread, so the outputs are volatile.
+ */
+public class SwerveModuleSim implements SwerveModuleIO {
+    private static final double wheelRadius = ModuleConstants.kWheelDiameterMeters / 2;
+
+    private final DCMotorSim driveSim = new DCMotorSim(DCMotor.getNEO(1), 1 / ModuleConstants.kDriveMotorGearRatio,
+            ModuleConstants.sim_robot_mass_kg / 4 * wheelRadius * wheelRadius);
+    private final DCMotorSim steerSim = new DCMotorSim(DCMotor.getNEO(1),
+            1 / ModuleConstants.kTurningMotorGearRatio, ModuleConstants.sim_steer_moi);
+
+    private volatile double drivePosition = 0;
+    private volatile double driveVelocity = 0;
+    private volatile double angle = 0;
+    // sim drive position when the encoders were last reset
+    private volatile double driveOffset = 0;
+
+    // last duty cycles set on the motors
+    private double driveOutput = 0;
+    private double turningOutput = 0;
+
+    /**
+     * Advance the simulation
+     *
+     * @param driveVoltage voltage applied to the drive motor
+     * @param steerVoltage voltage applied to the steer motor
+     * @param seconds      time to advance by
+     */
+    public void update(double driveVoltage, double steerVoltage, double seconds) {
+        driveSim.setInputVoltage(MathUtil.clamp(driveVoltage, -12, 12));
+        steerSim.setInputVoltage(MathUtil.clamp(steerVoltage, -12, 12));
+        driveSim.update(seconds);
+        steerSim.update(seconds);
+
+        drivePosition = driveSim.getAngularPositionRad() * wheelRadius;
+        driveVelocity = driveSim.getAngularVelocityRadPerSec() * wheelRadius;
+        angle = MathUtil.angleModulus(steerSim.getAngularPositionRad());
+    }
+
+    @Override
+    public void simulationUpdate(double seconds) {
+        double battery = RobotController.getBatteryVoltage();
+        update(driveOutput * battery, turningOutput * battery, seconds);
+    }
+
+    @Override
+    public void setOutputs(double drive, double turning) {
+        driveOutput = drive;
+        turningOutput = turning;
+    }
+
+    @Override
+    public void resetEncoders() {
+        driveOffset = drivePosition;
+    }
+
+    /**
+     * @return meters since the encoders were last reset
+     */
+    @Override
+    public double getDrivePosition() {
+        return drivePosition - driveOffset;
+    }
+
+    /**
+     * @return meters per second
+     */
+    @Override
+    public double getDriveVelocity() {
+        return driveVelocity;
+    }
+
+    /**
+     * @return module angle, radians from -pi to pi
+     */
+    @Override
+    public double getAbsoluteAngle() {
+        return angle;
+    }
+}
@@ -1,30 +1,22 @@
 package frc.robot.subsystems.vision;
 
 import java.util.List;
-import java.util.Optional;
-import org.photonvision.EstimatedRobotPose;
-import org.photonvision.PhotonCamera;
-import org.photonvision.PhotonPoseEstimator;
 import org.photonvision.PhotonUtils;
-import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.common.dataflow.structures.Packet;
 import org.photonvision.common.hardware.VisionLEDMode;
 import org.photonvision.targeting.PhotonPipelineResult;
 import org.photonvision.targeting.PhotonTrackedTarget;
 import org.photonvision.targeting.TargetCorner;
 import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.apriltag.AprilTagFields;
-import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
-import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.util.Units;
-import edu.wpi.first.networktables.NetworkTable;
-import edu.wpi.first.networktables.NetworkTableEntry;
-import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.subsystems.swerve.Swerve;
 import frc.robot.utils.Constants;
+import frc.robot.utils.InputLog;
+import frc.robot.utils.LoopProfiler;
 import frc.robot.utils.ShuffleData;
 import frc.robot.utils.Constants.VisionConstants.Node;
 
@@ -35,14 +27,14 @@ import frc.robot.utils.Constants.VisionConstants.Node;
  */
 public class Limelight extends SubsystemBase {
 
-    private final PhotonCamera camera = new PhotonCamera("limelight");
-    private AprilTagFieldLayout aprilTagFieldLayout;
-    private PhotonPoseEstimator photonPoseEstimator;
+    private final LoopProfiler.Section profiler = LoopProfiler.register("Limelight");
 
-    private final NetworkTable photonTable = NetworkTableInstance.getDefault().getTable("photonvision");
-    private final NetworkTableEntry ledMode = photonTable.getEntry("ledMode");
-    private final NetworkTableEntry ledModeState = photonTable.getEntry("ledModeState");
-    private final NetworkTableEntry ledModeRequest = photonTable.getEntry("ledModeRequest");
+    private final LimelightIO io;
+    private final LimelightIO.LimelightInputs inputs = new LimelightIO.LimelightInputs();
+    // decoded once per new frame, shared by the commands reading it this loop
+    private PhotonPipelineResult latestResult = new PhotonPipelineResult();
+    private AprilTagFieldLayout aprilTagFieldLayout;
+    private VisionThread visionThread;
 
     // private final ShuffleData<Boolean> targetFound = new ShuffleData<Boolean>("Limelight", "Target Found", false);
     
@@ -58,11 +50,19 @@ public class Limelight extends SubsystemBase {
     // private final ShuffleData<Double> targetTransX = new ShuffleData<Double>("Limelight", "Target Trans X", -1000.0);
     // private final ShuffleData<Double> targetTransY = new ShuffleData<Double>("Limelight", "Target Trans Y", -1000.0);
 
-    public Limelight() {
+    /**
+     * @param swerve receives AprilTag pose estimates from the vision thread
+     * @param io     LimelightIOPhoton, or an empty LimelightIO when replaying
+     */
+    public Limelight(Swerve swerve, LimelightIO io) {
+        this.io = io;
         try {
             aprilTagFieldLayout = AprilTagFieldLayout.loadFromResource(AprilTagFields.k2023ChargedUp.m_resourceFile);
-            photonPoseEstimator = new PhotonPoseEstimator(aprilTagFieldLayout, PoseStrategy.CLOSEST_TO_REFERENCE_POSE,
-                    camera, Constants.VisionConstants.robot_to_cam);
+            // replayed pose estimates come from Swerve's logged inputs
+            if (InputLog.getMode() != InputLog.Mode.REPLAY) {
+                visionThread = new VisionThread(Constants.VisionConstants.camera_name, aprilTagFieldLayout,
+                        swerve::getPose, swerve::offerVisionMeasurement);
+            }
         } catch (Exception e) {
             System.out.println(e);
         }
@@ -70,8 +70,11 @@ public class Limelight extends SubsystemBase {
         setLED(VisionLEDMode.kOff);
     }
 
+    /**
+     * @return the latest frame as of the start of this loop
+     */
     public PhotonPipelineResult getLatestResult() {
-        return camera.getLatestResult();
+        return latestResult;
     }
 
     public boolean hasTarget(PhotonPipelineResult result) {
@@ -132,72 +135,17 @@ public class Limelight extends SubsystemBase {
     }
 
     public int getPipeline() {
-        return camera.getPipelineIndex();
+        return (int) inputs.pipelineIndex;
     }
 
     public void setPipeline(int index) {
-        camera.setPipelineIndex(index);
+        io.setPipeline(index);
     }
 
     public void setLED(VisionLEDMode ledMode) {
-
-        switch (ledMode) {
-            case kOn:
-                this.ledMode.setInteger(1);
-                ledModeState.setInteger(1);
-                ledModeRequest.setInteger(1);
-                break;
-            case kOff:
-                this.ledMode.setInteger(0);
-                ledModeState.setInteger(0);
-                ledModeRequest.setInteger(0);
-                break;
-            case kBlink:
-                this.ledMode.setInteger(2);
-                ledModeState.setInteger(2);
-                ledModeRequest.setInteger(2);
-                break;
-            default:
-                this.ledMode.setInteger(-1);
-                ledModeState.setInteger(-1);
-                ledModeRequest.setInteger(-1);
-                break;
-        }
-        camera.setLED(ledMode);
-    }
-
-    public void updatePoseAprilTags(SwerveDrivePoseEstimator swerveDrivePoseEstimator) {
-        var result = getLatestResult();
-        var filter = result.getTargets().stream()
-                .filter(t -> t.getPoseAmbiguity() <= .2 && t.getPoseAmbiguity() != -1)
-                .findFirst();
-        if (filter.isPresent()) {
-            var imageCaptureTime = result.getTimestampSeconds();
-            Optional<EstimatedRobotPose> poseEstimate = getEstimatedGlobalPose(
-                    swerveDrivePoseEstimator.getEstimatedPosition());
-            // if it recieved a pose update
-            if (poseEstimate.isPresent()) {
-                Pose2d newPose = poseEstimate.get().estimatedPose.toPose2d();
-
-                if (DriverStation.getAlliance() == Alliance.Red && DriverStation.isAutonomous())
-                    ;
-                // if the update is sufficiantly different to the current one, done to not cause
-                // pid oscilation
-                if (!Constants.withinMargin(0.04, newPose.getTranslation(),
-                        swerveDrivePoseEstimator.getEstimatedPosition().getTranslation())) {
-                    swerveDrivePoseEstimator.addVisionMeasurement(
-                            newPose, imageCaptureTime);
-                }
-                // swerveDrivePoseEstimator.setVisionMeasurementStdDevs(null);
-            }
-        }
+        io.setLED(ledMode);
     }
-    
-    public Optional<EstimatedRobotPose> getEstimatedGlobalPose(Pose2d prevEstimatedRobotPose) {
-        photonPoseEstimator.setReferencePose(prevEstimatedRobotPose);
-        return photonPoseEstimator.update();
-    }
-    
+
     public void logging() {
         
         pipeline.set(getPipeline());
@@ -206,8 +154,20 @@ public class Limelight extends SubsystemBase {
 
     @Override
     public void periodic() {
+        profiler.start();
+
+        io.updateInputs(inputs);
+        InputLog.process("Limelight", inputs);
+        byte[] frame = InputLog.processRaw("Limelight/Frame", inputs.frame);
+        if (frame != null) {
+            latestResult = PhotonPipelineResult.createFromPacket(new Packet(frame));
+            // the capture time isn't part of the packet
+            latestResult.setTimestampSeconds(inputs.frameTimestamp);
+        }
 
         logging();
+
+        profiler.stop();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package frc.robot.subsystems.vision;
+
+import org.photonvision.common.hardware.VisionLEDMode;
+
+import frc.robot.utils.LoggedInputs;
+
+/**
+ * The camera Limelight reads. LimelightIOPhoton talks to PhotonVision on the
+ * robot and in simulation, and the default methods do nothing, which is what
+ * a log replay uses.
+ */
+public interface LimelightIO {
+    /**
+     * Everything Limelight reads from the camera in one loop
+     */
+    public static class LimelightInputs implements LoggedInputs {
+        public double pipelineIndex = 0;
+        // FPGA time the latest frame was captured, seconds
+        public double frameTimestamp = -1;
+        // the latest frame serialized by PhotonPipelineResult.populatePacket, or
+        // null if it's the same frame as last loop. Logged separately.
+        public byte[] frame = null;
+
+        @Override
+        public int capacity() {
+            return 2;
+        }
+
+        @Override
+        public void toArray(double[] out) {
+            out[0] = pipelineIndex;
+            out[1] = frameTimestamp;
+        }
+
+        @Override
+        public void fromArray(double[] in, int length) {
+            pipelineIndex = in[0];
+            frameTimestamp = in[1];
+        }
+    }
+
+    /**
+     * @param inputs filled with the latest readings
+     */
+    public default void updateInputs(LimelightInputs inputs) {
+    }
+
+    public default void setPipeline(int index) {
+    }
+
+    public default void setLED(VisionLEDMode mode) {
+    }
+}
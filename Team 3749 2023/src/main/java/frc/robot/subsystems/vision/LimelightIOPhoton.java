@@ -0,0 +1,73 @@
+package frc.robot.subsystems.vision;
+
+import org.photonvision.PhotonCamera;
+import org.photonvision.common.dataflow.structures.Packet;
+import org.photonvision.common.hardware.VisionLEDMode;
+import org.photonvision.targeting.PhotonPipelineResult;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * A PhotonVision camera, used on the robot and with a simulated or
+ * disconnected camera in simulation
+ */
+public class LimelightIOPhoton implements LimelightIO {
+    private final PhotonCamera camera;
+
+    private final NetworkTable photonTable = NetworkTableInstance.getDefault().getTable("photonvision");
+    private final NetworkTableEntry ledMode = photonTable.getEntry("ledMode");
+    private final NetworkTableEntry ledModeState = photonTable.getEntry("ledModeState");
+    private final NetworkTableEntry ledModeRequest = photonTable.getEntry("ledModeRequest");
+
+    /**
+     * @param cameraName PhotonVision camera name
+     */
+    public LimelightIOPhoton(String cameraName) {
+        camera = new PhotonCamera(cameraName);
+    }
+
+    @Override
+    public void updateInputs(LimelightInputs inputs) {
+        inputs.pipelineIndex = camera.getPipelineIndex();
+
+        PhotonPipelineResult result = camera.getLatestResult();
+        if (result.getTimestampSeconds() == inputs.frameTimestamp) {
+            inputs.frame = null;
+            return;
+        }
+        inputs.frameTimestamp = result.getTimestampSeconds();
+        Packet packet = new Packet(result.getPacketSize());
+        result.populatePacket(packet);
+        inputs.frame = packet.getData();
+    }
+
+    @Override
+    public void setPipeline(int index) {
+        camera.setPipelineIndex(index);
+    }
+
+    @Override
+    public void setLED(VisionLEDMode mode) {
+        int value;
+        switch (mode) {
+            case kOn:
+                value = 1;
+                break;
+            case kOff:
+                value = 0;
+                break;
+            case kBlink:
+                value = 2;
+                break;
+            default:
+                value = -1;
+                break;
+        }
+        ledMode.setInteger(value);
+        ledModeState.setInteger(value);
+        ledModeRequest.setInteger(value);
+        camera.setLED(mode);
+    }
+}
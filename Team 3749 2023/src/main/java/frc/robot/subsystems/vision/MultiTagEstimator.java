@@ -0,0 +1,92 @@
+package frc.robot.subsystems.vision;
+
+import java.util.Optional;
+
+import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PhotonTrackedTarget;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import frc.robot.utils.Constants.VisionConstants;
+
+/**
+ * Estimates the robot pose from every AprilTag in a frame instead of one. Each
+ * tag gives its own robot pose, with a standard deviation that grows with the
+ * square of the distance to the tag and with its pose ambiguity. The poses are
+ * averaged weighted by inverse variance, so the fused standard deviation
+ * shrinks as more tags are seen.
+ *
+ * One tag can't pin down the heading well, so single tag estimates get a very
+ * large heading standard deviation and the gyro keeps the heading.
+ */
+public class MultiTagEstimator {
+    private final AprilTagFieldLayout layout;
+    private final Transform3d camToRobot = VisionConstants.robot_to_cam.inverse();
+
+    /**
+     * @param layout tag positions
+     */
+    public MultiTagEstimator(AprilTagFieldLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * @param result frame to estimate from
+     * @return the fused estimate, or null if no tag in the frame is usable
+     */
+    public VisionMeasurement estimate(PhotonPipelineResult result) {
+        double xWeighted = 0;
+        double yWeighted = 0;
+        double xyInformation = 0;
+        double sinWeighted = 0;
+        double cosWeighted = 0;
+        double thetaInformation = 0;
+        int tags = 0;
+
+        for (PhotonTrackedTarget target : result.getTargets()) {
+            double ambiguity = target.getPoseAmbiguity();
+            if (ambiguity < 0 || ambiguity > VisionConstants.max_pose_ambiguity) {
+                continue;
+            }
+            Optional<Pose3d> tagPose = layout.getTagPose(target.getFiducialId());
+            if (tagPose.isEmpty()) {
+                continue;
+            }
+
+            Transform3d cameraToTarget = target.getBestCameraToTarget();
+            Pose2d robotPose = tagPose.get()
+                    .transformBy(cameraToTarget.inverse())
+                    .transformBy(camToRobot)
+                    .toPose2d();
+
+            double distance = cameraToTarget.getTranslation().getNorm();
+            double scale = distance * distance * (1 + VisionConstants.vision_ambiguity_std_scale * ambiguity);
+            double xyStdDev = VisionConstants.vision_xy_std_dev * scale;
+            double thetaStdDev = VisionConstants.vision_theta_std_dev * scale;
+
+            double xyWeight = 1 / (xyStdDev * xyStdDev);
+            double thetaWeight = 1 / (thetaStdDev * thetaStdDev);
+            xWeighted += robotPose.getX() * xyWeight;
+            yWeighted += robotPose.getY() * xyWeight;
+            xyInformation += xyWeight;
+            sinWeighted += robotPose.getRotation().getSin() * thetaWeight;
+            cosWeighted += robotPose.getRotation().getCos() * thetaWeight;
+            thetaInformation += thetaWeight;
+            tags++;
+        }
+
+        if (tags == 0) {
+            return null;
+        }
+
+        Pose2d pose = new Pose2d(xWeighted / xyInformation, yWeighted / xyInformation,
+                new Rotation2d(cosWeighted, sinWeighted));
+        double xyStdDev = 1 / Math.sqrt(xyInformation);
+        double thetaStdDev = tags > 1 ? 1 / Math.sqrt(thetaInformation) : VisionConstants.single_tag_theta_std_dev;
+
+        return new VisionMeasurement(pose, result.getTimestampSeconds(), xyStdDev, thetaStdDev);
+    }
+}
@@ -0,0 +1,59 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/**
+ * A robot pose estimated from one camera frame
+ */
+public class VisionMeasurement {
+    private final Pose2d pose;
+    private final double timestampSeconds;
+    private final double xyStdDev;
+    private final double thetaStdDev;
+
+    /**
+     * Measurement applied with the pose estimator's default standard deviations
+     *
+     * @param pose             estimated field relative robot pose
+     * @param timestampSeconds FPGA time the frame was captured
+     */
+    public VisionMeasurement(Pose2d pose, double timestampSeconds) {
+        this(pose, timestampSeconds, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * @param pose             estimated field relative robot pose
+     * @param timestampSeconds FPGA time the frame was captured
+     * @param xyStdDev         standard deviation of x and y, meters
+     * @param thetaStdDev      standard deviation of the heading, radians
+     */
+    public VisionMeasurement(Pose2d pose, double timestampSeconds, double xyStdDev, double thetaStdDev) {
+        this.pose = pose;
+        this.timestampSeconds = timestampSeconds;
+        this.xyStdDev = xyStdDev;
+        this.thetaStdDev = thetaStdDev;
+    }
+
+    /**
+     * @return whether the measurement has its own standard deviations
+     */
+    public boolean hasStdDevs() {
+        return !Double.isNaN(xyStdDev);
+    }
+
+    public double getXYStdDev() {
+        return xyStdDev;
+    }
+
+    public double getThetaStdDev() {
+        return thetaStdDev;
+    }
+
+    public Pose2d getPose() {
+        return pose;
+    }
+
+    public double getTimestampSeconds() {
+        return timestampSeconds;
+    }
+}
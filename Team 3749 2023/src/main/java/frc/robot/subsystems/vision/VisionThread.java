@@ -0,0 +1,131 @@
+package frc.robot.subsystems.vision;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.photonvision.EstimatedRobotPose;
+import org.photonvision.PhotonCamera;
+import org.photonvision.PhotonPoseEstimator;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PhotonTrackedTarget;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.RawSubscriber;
+import frc.robot.utils.Constants;
+
+/**
+ * Estimates the robot pose from AprilTags off the main loop. A NetworkTables
+ * listener wakes a background thread whenever PhotonVision publishes a frame,
+ * and the thread runs the PhotonPoseEstimator and hands the result, stamped
+ * with the frame's capture time, to a consumer (Swerve's vision queue).
+ *
+ * With VisionConstants.multi_tag_estimation every tag in the frame is fused
+ * by MultiTagEstimator and the measurement carries its own standard
+ * deviations. Otherwise the PhotonPoseEstimator's single tag estimate is
+ * used.
+ *
+ * The thread has its own PhotonCamera for the same camera, since PhotonCamera
+ * is not safe to share with the commands reading it on the main loop. Frames
+ * are deduplicated by timestamp.
+ */
+public class VisionThread {
+    private final PhotonCamera camera;
+    private final PhotonPoseEstimator poseEstimator;
+    private final MultiTagEstimator multiTagEstimator;
+    private final Supplier<Pose2d> referencePose;
+    private final Consumer<VisionMeasurement> measurements;
+
+    private final RawSubscriber frames;
+    private final Semaphore frameReady = new Semaphore(0);
+    private double lastTimestamp = -1;
+
+    /**
+     * @param cameraName    PhotonVision camera name
+     * @param layout        tag positions
+     * @param referencePose current pose estimate, called on the vision thread
+     * @param measurements  receives each estimate, called on the vision thread
+     */
+    public VisionThread(String cameraName, AprilTagFieldLayout layout, Supplier<Pose2d> referencePose,
+            Consumer<VisionMeasurement> measurements) {
+        this.camera = new PhotonCamera(cameraName);
+        this.poseEstimator = new PhotonPoseEstimator(layout, PoseStrategy.CLOSEST_TO_REFERENCE_POSE, camera,
+                Constants.VisionConstants.robot_to_cam);
+        this.multiTagEstimator = new MultiTagEstimator(layout);
+        this.referencePose = referencePose;
+        this.measurements = measurements;
+
+        NetworkTableInstance instance = NetworkTableInstance.getDefault();
+        frames = instance.getTable("photonvision").getSubTable(cameraName).getRawTopic("rawBytes")
+                .subscribe("rawBytes", new byte[] {});
+        instance.addListener(frames, EnumSet.of(NetworkTableEvent.Kind.kValueAll), event -> frameReady.release());
+
+        Thread thread = new Thread(this::run, "VisionThread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        while (true) {
+            try {
+                frameReady.acquire();
+                // several frames may have arrived, only the latest matters
+                frameReady.drainPermits();
+                process(camera.getLatestResult());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.out.println(e);
+            }
+        }
+    }
+
+    private void process(PhotonPipelineResult result) {
+        double timestamp = result.getTimestampSeconds();
+        if (timestamp == lastTimestamp || !result.hasTargets()) {
+            return;
+        }
+        lastTimestamp = timestamp;
+
+        if (Constants.VisionConstants.multi_tag_estimation) {
+            VisionMeasurement measurement = multiTagEstimator.estimate(result);
+            if (measurement != null) {
+                measurements.accept(measurement);
+            }
+            return;
+        }
+
+        boolean unambiguous = false;
+        for (PhotonTrackedTarget target : result.getTargets()) {
+            if (target.getPoseAmbiguity() <= Constants.VisionConstants.max_pose_ambiguity
+                    && target.getPoseAmbiguity() != -1) {
+                unambiguous = true;
+                break;
+            }
+        }
+        if (!unambiguous) {
+            return;
+        }
+
+        Pose2d currentPose = referencePose.get();
+        poseEstimator.setReferencePose(currentPose);
+        Optional<EstimatedRobotPose> estimate = poseEstimator.update(result);
+        if (estimate.isEmpty()) {
+            return;
+        }
+
+        Pose2d newPose = estimate.get().estimatedPose.toPose2d();
+        // if the update is sufficiantly different to the current one, done to not
+        // cause pid oscilation
+        if (!Constants.withinMargin(0.04, newPose.getTranslation(), currentPose.getTranslation())) {
+            measurements.accept(new VisionMeasurement(newPose, estimate.get().timestampSeconds));
+        }
+    }
+}
@@ -57,6 +57,9 @@ public class Constants {
         public static final double releaseConeVoltage = -6;
 
         public static final double intakeVoltage = 4.5;
+
+        // wheels and game piece at the wheel shaft, kg m^2
+        public static final double sim_moi = 0.002;
     }
 
     public static final class SideIntake {
@@ -106,12 +109,31 @@ public class Constants {
         public static final double shoulder_min_angle = 30;
         public static final double shoulder_max_angle = 140;
 
+        // limits of the forearm's angle from horizontal, shoulder plus elbow
         public static final double elbow_min_angle = -75;
         public static final double elbow_max_angle = 260;
 
         public static final double maxSpeedMPS = 10;
         public static final double maxAccelerationMPS = 10;
 
+        // seconds between rows of a compiled ArmTrajectoryTable
+        public static final double trajectory_table_dt = 0.005;
+
+        // most feedforward voltage a time optimal trajectory may ask of either
+        // joint, leaves headroom for PID and battery sag
+        public static final double max_trajectory_voltage = 10;
+
+        // trajectory samples buffered for data.csv, and how often they are written
+        public static final int trajectory_log_capacity = 1024;
+        public static final double trajectory_log_flush_interval = 0.25;
+
+        // DIO channels of the absolute encoders
+        public static final int shoulder_encoder_channel = 9;
+        public static final int elbow_encoder_channel = 8;
+
+        // ArmSim integration step, seconds
+        public static final double sim_dt = 0.001;
+
         public static ShuffleData<Double> currWaypointX = new ShuffleData<Double>("Arm", "Current Waypoint X", 0.0);
         public static ShuffleData<Double> currWaypointY = new ShuffleData<Double>("Arm", "Current Waypoint Y", 0.0);
         public static ShuffleData<Double> armCoordinateX = new ShuffleData<Double>("Arm", "Arm Coordinate X (Move arm)",
@@ -154,6 +176,10 @@ public class Constants {
         public static final double kDriveEncoderRPM2MeterPerSec = kDriveEncoderRot2Meter / 60;
         public static final double kTurningEncoderRPM2RadPerSec = kTurningEncoderRot2Rad / 60;
         public static final double kPTurning = 0.5;
+
+        // SwerveModuleSim, each drive motor pushes a quarter of the robot
+        public static final double sim_robot_mass_kg = 55;
+        public static final double sim_steer_moi = 0.004;
     }
 
     public static final class DriveConstants {
@@ -217,6 +243,21 @@ public class Constants {
         public static final double kAutoDriveMaxAngularAccelerationUnitsPerSecond = kTeleDriveMaxAngularAccelerationUnitsPerSecond
                 / 2;
 
+        // odometry is sampled on its own thread at this rate, and the module
+        // sensors are asked to report position this often
+        public static final double odometry_frequency_hz = 100;
+        // samples buffered between robot loops
+        public static final int odometry_buffer_capacity = 32;
+        // odometry poses kept for time lookups, 2.56 s at 100 Hz
+        public static final int pose_history_capacity = 256;
+
+    }
+
+    public static final class TelemetryConstants {
+        // NetworkTables, for dashboards
+        public static final double dashboard_frequency_hz = 10;
+        // DataLog
+        public static final double log_frequency_hz = 50;
     }
 
     public static final class OIConstants {
@@ -239,7 +280,10 @@ public class Constants {
     public static final class AutoConstants {
         public static final Map<String, Command> eventMap = new HashMap<>();
 
-        public static final SendableChooser<Command> autoChooser = new SendableChooser<>();
+        public static final SendableChooser<String> autoChooser = new SendableChooser<>();
+
+        // red paths are the blue paths mirrored about the middle of the field
+        public static final double field_length = 16.54175;
 
         public static enum TopBottom {
             TOP,
@@ -262,6 +306,8 @@ public class Constants {
                 new Translation3d(0, 0, -Units.inchesToMeters(15.25)), new Rotation3d());
         public static final Transform3d robot_to_cam = cam_to_robot.inverse();
 
+        public static final String camera_name = "limelight";
+
         public static final int reflective_tape_pipeline_index = 0;
         public static final int apriltag_pipeline_index = 1;
 
@@ -270,6 +316,29 @@ public class Constants {
         public static final double camera_pitch = 0;
         // public static final double camera_pitch = -2.66 ;
 
+        // pose estimates waiting for Swerve, oldest are dropped when full
+        public static final int vision_queue_capacity = 8;
+
+        // fuse every visible tag with per tag standard deviations, instead of
+        // PhotonPoseEstimator's single tag estimate
+        public static final boolean multi_tag_estimation = true;
+        public static final double max_pose_ambiguity = 0.2;
+        // standard deviations for one tag 1 m away, scaled by distance squared
+        public static final double vision_xy_std_dev = 0.05; // meters
+        public static final double vision_theta_std_dev = 0.1; // radians
+        // standard deviations are multiplied by 1 + this * ambiguity
+        public static final double vision_ambiguity_std_scale = 5;
+        // one tag can't be trusted for heading
+        public static final double single_tag_theta_std_dev = 1000; // radians
+        // uncertainty of the odometry when gating vision, meters
+        public static final double vision_odometry_std_dev = 0.1;
+        // squared Mahalanobis distance past which a measurement is an outlier
+        // (chi squared, 2 degrees of freedom, 99%)
+        public static final double vision_rejection_threshold = 9.21;
+        // after this many outliers in a row the odometry is assumed to be wrong
+        // and the next measurement is accepted
+        public static final int vision_max_consecutive_rejections = 5;
+
         public static final double retro_cam_offset = 0.56;
         public static final double apriltag_cam_offset = 3.1;
 
@@ -313,5 +382,29 @@ public class Constants {
         public static enum LEDPattern {
             RAINBOW, RED, BLUE, GREEN, PURPLE, YELLOW, WHITE, BOUNCE, BLINK, TWINKLE, NOTHING
         };
+
+        // the strip is redrawn on its own notifier, off the robot loop
+        public static final double update_hz = 25;
+        // how fast animations step through their frames, independent of update_hz
+        public static final double animation_fps = 50;
+
+        // drawn in this order, so each layer covers the ones before it where
+        // it's set
+        public static enum LEDLayer {
+            ALLIANCE, ARM, INTAKE, ALERT
+        };
+
+        // ranges of the strip a layer can be drawn on
+        public static enum LEDSegment {
+            FULL(0, length), LEFT(0, length / 2), RIGHT(length / 2, length);
+
+            public final int start;
+            public final int end;
+
+            LEDSegment(int start, int end) {
+                this.start = start;
+                this.end = end;
+            }
+        };
     }
 }
\ No newline at end of file
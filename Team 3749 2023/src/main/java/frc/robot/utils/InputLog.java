@@ -0,0 +1,146 @@
+package frc.robot.utils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.util.datalog.RawLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Logs every subsystem's inputs each loop, or feeds them back from a log.
+ *
+ * On the robot and in simulation each subsystem reads its IO into its
+ * inputs, then process() appends them to the DataLog under "Inputs/<key>",
+ * stamped with the time the loop started. When the simulation is started
+ * with the REPLAY_LOG environment variable set to a .wpilog, the IOs are
+ * empty and process() fills the inputs from that log instead. The control
+ * code after it runs unchanged, so a gain change can be checked against a
+ * real match. See LogReplay for how the loops are stepped.
+ *
+ * Only use it from the main robot thread.
+ */
+public class InputLog {
+    public enum Mode {
+        REAL, SIM, REPLAY
+    }
+
+    private static final String replayPath = System.getenv("REPLAY_LOG");
+    private static final Mode mode = RobotBase.isReal() ? Mode.REAL
+            : replayPath != null && !replayPath.isEmpty() ? Mode.REPLAY : Mode.SIM;
+
+    private static final Map<String, DoubleArrayLogEntry> entries = new HashMap<>();
+    private static final Map<String, RawLogEntry> rawEntries = new HashMap<>();
+    private static final Map<String, double[]> scratch = new HashMap<>();
+    private static IntegerLogEntry timestampEntry;
+    private static LogReplay replay;
+    private static long timestamp = 0;
+
+    /**
+     * @return whether the IOs should talk to hardware, simulate it, or do
+     *         nothing while a log is replayed
+     */
+    public static Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Start logging, or load the log to replay. Call once at the start of
+     * robotInit, before the subsystems are made.
+     */
+    public static void start() {
+        if (mode != Mode.REPLAY) {
+            timestampEntry = new IntegerLogEntry(DataLogManager.getLog(), "Inputs/Timestamp");
+            return;
+        }
+        try {
+            replay = new LogReplay(replayPath);
+        } catch (IOException e) {
+            System.out.println(e);
+            throw new IllegalStateException("Can't replay " + replayPath, e);
+        }
+    }
+
+    /**
+     * Start stepping the replay. Call once at the end of robotInit. Does nothing
+     * unless replaying.
+     */
+    public static void startReplay() {
+        if (replay != null) {
+            replay.start();
+        }
+    }
+
+    /**
+     * Mark the start of a loop. Call at the start of robotPeriodic, before the
+     * subsystems read their inputs.
+     */
+    public static void beginLoop() {
+        if (replay != null) {
+            timestamp = replay.getLoopTimestamp();
+            return;
+        }
+        timestamp = RobotController.getFPGATime();
+        timestampEntry.append(timestamp, timestamp);
+    }
+
+    /**
+     * Log a subsystem's inputs, or replace them with the logged ones when
+     * replaying
+     *
+     * @param key    e.g. "Arm"
+     * @param inputs already read from the IO, unless replaying
+     */
+    public static void process(String key, LoggedInputs inputs) {
+        double[] values = scratch.get(key);
+        if (values == null) {
+            values = new double[inputs.capacity()];
+            scratch.put(key, values);
+        }
+
+        if (replay != null) {
+            double[] logged = replay.getInputs(key);
+            if (logged != null) {
+                inputs.fromArray(logged, logged.length);
+            }
+            return;
+        }
+
+        inputs.toArray(values);
+        DoubleArrayLogEntry entry = entries.get(key);
+        if (entry == null) {
+            entry = new DoubleArrayLogEntry(DataLogManager.getLog(), "Inputs/" + key);
+            entries.put(key, entry);
+        }
+        entry.append(values, timestamp);
+    }
+
+    /**
+     * Log inputs that are already serialized and only change now and then, e.g.
+     * a camera frame. Nothing is logged on loops without a new value.
+     *
+     * @param key
+     * @param value read from the IO, or null if there's nothing new this loop
+     * @return the value, or the one logged this loop when replaying (null if
+     *         none)
+     */
+    public static byte[] processRaw(String key, byte[] value) {
+        if (replay != null) {
+            return replay.getRawInputs(key);
+        }
+        if (value == null) {
+            return null;
+        }
+        RawLogEntry entry = rawEntries.get(key);
+        if (entry == null) {
+            entry = new RawLogEntry(DataLogManager.getLog(), "Inputs/" + key);
+            rawEntries.put(key, entry);
+        }
+        entry.append(value, timestamp);
+        return value;
+    }
+}
@@ -124,8 +124,8 @@ public class JoystickIO {
 
         operator.rightStickWhileHeld(Commands.runOnce(() -> arm.toggleKillArm(), arm));
 
-        // operator.leftStickWhileHeld(() -> leds.setLEDPattern(LEDPattern.PURPLE), leds);
-        // operator.rightStickWhileHeld(() -> leds.setLEDPattern(LEDPattern.YELLOW), leds);
+        // operator.leftStickWhileHeld(() -> leds.setLayer(LEDLayer.ALERT, LEDPattern.PURPLE), leds);
+        // operator.rightStickWhileHeld(() -> leds.setLayer(LEDLayer.ALERT, LEDPattern.YELLOW), leds);
 
         pilot.a()
                 .onTrue(new ParallelCommandGroup(
@@ -240,9 +240,6 @@ public class JoystickIO {
 
         limelight.setDefaultCommand(
                 Commands.run(
-                        () -> {
-                            limelight.setPipeline(Pipelines.APRILTAG.index);
-                            limelight.updatePoseAprilTags(swerve.getPoseEstimator());
-                        }, limelight));
+                        () -> limelight.setPipeline(Pipelines.APRILTAG.index), limelight));
     }
 }
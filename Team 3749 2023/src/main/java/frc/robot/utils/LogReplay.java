@@ -0,0 +1,243 @@
+package frc.robot.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+/**
+ * Plays a log recorded by InputLog back through the robot code in
+ * simulation, faster than real time.
+ *
+ * The whole log is read up front. Every "Inputs/Timestamp" record is one
+ * recorded loop, and every input record logged in that loop has the same
+ * timestamp. A background thread pauses the simulated clock and, for each
+ * recorded loop, sets the DriverStationSim to the enabled state, alliance and
+ * joysticks that were logged by DriverStation.startDataLog, then steps the
+ * clock one TimedRobot period with SimHooks.stepTiming. That runs exactly one
+ * robot loop and returns once it's done, so the replay goes as fast as the
+ * code can run.
+ *
+ * The simulated clock follows the robot's 20 ms grid, not the recorded loop
+ * times. Inputs that carry their own timestamps (odometry samples, camera
+ * frames) keep the recorded FPGA times.
+ */
+public class LogReplay {
+    private static final int JOYSTICKS = 6;
+
+    /**
+     * Timestamped values of one entry, looked up sample and hold
+     */
+    private static class Series {
+        final List<Long> timestamps = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+
+        void add(long timestamp, Object value) {
+            timestamps.add(timestamp);
+            values.add(value);
+        }
+
+        Object at(long timestamp) {
+            int i = Collections.binarySearch(timestamps, timestamp);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            return i < 0 ? null : values.get(i);
+        }
+    }
+
+    private final long[] loops;
+    // input records by key, then by loop timestamp
+    private final Map<String, Map<Long, double[]>> inputs = new HashMap<>();
+    private final Map<String, Map<Long, byte[]>> rawInputs = new HashMap<>();
+    private final Map<String, Series> driverStation = new HashMap<>();
+
+    // loop being run, set by the stepping thread before each step
+    private volatile int loop = 0;
+
+    /**
+     * @param path the .wpilog to replay
+     * @throws IOException if it can't be read or has no InputLog loops
+     */
+    public LogReplay(String path) throws IOException {
+        DataLogReader reader = new DataLogReader(path);
+        if (!reader.isValid()) {
+            throw new IOException(path + " is not a wpilog");
+        }
+
+        Map<Integer, String> names = new HashMap<>();
+        Map<Integer, String> types = new HashMap<>();
+        List<Long> loopTimestamps = new ArrayList<>();
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                DataLogRecord.StartRecordData start = record.getStartData();
+                names.put(start.entry, start.name);
+                types.put(start.entry, start.type);
+                continue;
+            }
+            if (record.isControl()) {
+                continue;
+            }
+            String name = names.get(record.getEntry());
+            if (name == null) {
+                continue;
+            }
+
+            if (name.equals("Inputs/Timestamp")) {
+                loopTimestamps.add(record.getTimestamp());
+            } else if (name.startsWith("Inputs/")) {
+                String key = name.substring("Inputs/".length());
+                if (types.get(record.getEntry()).equals("raw")) {
+                    rawInputs.computeIfAbsent(key, k -> new HashMap<>()).put(record.getTimestamp(), record.getRaw());
+                } else {
+                    inputs.computeIfAbsent(key, k -> new HashMap<>()).put(record.getTimestamp(),
+                            record.getDoubleArray());
+                }
+            } else if (name.startsWith("DS:") || name.startsWith("NT:/FMSInfo/")) {
+                driverStation.computeIfAbsent(name, k -> new Series()).add(record.getTimestamp(),
+                        decode(types.get(record.getEntry()), record));
+            }
+        }
+
+        if (loopTimestamps.isEmpty()) {
+            throw new IOException(path + " has no Inputs/Timestamp records, it wasn't logged with InputLog");
+        }
+        loops = new long[loopTimestamps.size()];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = loopTimestamps.get(i);
+        }
+        System.out.println("Replaying " + loops.length + " loops from " + path);
+    }
+
+    private static Object decode(String type, DataLogRecord record) {
+        switch (type) {
+            case "boolean":
+                return record.getBoolean();
+            case "int64":
+                return record.getInteger();
+            case "float[]":
+                return record.getFloatArray();
+            case "boolean[]":
+                return record.getBooleanArray();
+            case "int64[]":
+                return record.getIntegerArray();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Pause the simulated clock and start stepping through the loops on a
+     * background thread. The program exits when the log ends.
+     */
+    public void start() {
+        SimHooks.pauseTiming();
+        Thread thread = new Thread(this::run, "LogReplay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        // the robot loop has to be waiting on its notifier before stepping
+        SimHooks.waitForProgramStart();
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < loops.length; i++) {
+            loop = i;
+            setDriverStation(loops[i]);
+            SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+        }
+
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        double recorded = (loops[loops.length - 1] - loops[0]) / 1e6;
+        System.out.printf("Replayed %.1f s of loops in %.1f s (%.1fx)%n", recorded, seconds, recorded / seconds);
+        DataLogManager.getLog().flush();
+        System.exit(0);
+    }
+
+    private void setDriverStation(long timestamp) {
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEnabled(getBoolean("DS:enabled", timestamp));
+        DriverStationSim.setAutonomous(getBoolean("DS:autonomous", timestamp));
+        DriverStationSim.setTest(getBoolean("DS:test", timestamp));
+
+        Object station = at("NT:/FMSInfo/StationNumber", timestamp);
+        int number = station instanceof Long ? (int) Math.max(1, Math.min(3, (Long) station)) : 1;
+        boolean red = getBoolean("NT:/FMSInfo/IsRedAlliance", timestamp);
+        DriverStationSim.setAllianceStationId(AllianceStationID.valueOf((red ? "Red" : "Blue") + number));
+
+        for (int stick = 0; stick < JOYSTICKS; stick++) {
+            Object axes = at("DS:joystick" + stick + "/axes", timestamp);
+            if (axes instanceof float[]) {
+                float[] values = (float[]) axes;
+                DriverStationSim.setJoystickAxisCount(stick, values.length);
+                for (int i = 0; i < values.length; i++) {
+                    DriverStationSim.setJoystickAxis(stick, i, values[i]);
+                }
+            }
+            Object buttons = at("DS:joystick" + stick + "/buttons", timestamp);
+            if (buttons instanceof boolean[]) {
+                boolean[] values = (boolean[]) buttons;
+                DriverStationSim.setJoystickButtonCount(stick, values.length);
+                for (int i = 0; i < values.length; i++) {
+                    // buttons are numbered from 1
+                    DriverStationSim.setJoystickButton(stick, i + 1, values[i]);
+                }
+            }
+            Object povs = at("DS:joystick" + stick + "/povs", timestamp);
+            if (povs instanceof long[]) {
+                long[] values = (long[]) povs;
+                DriverStationSim.setJoystickPOVCount(stick, values.length);
+                for (int i = 0; i < values.length; i++) {
+                    DriverStationSim.setJoystickPOV(stick, i, (int) values[i]);
+                }
+            }
+        }
+        DriverStationSim.notifyNewData();
+    }
+
+    private Object at(String name, long timestamp) {
+        Series series = driverStation.get(name);
+        return series == null ? null : series.at(timestamp);
+    }
+
+    private boolean getBoolean(String name, long timestamp) {
+        return Boolean.TRUE.equals(at(name, timestamp));
+    }
+
+    /**
+     * @return recorded FPGA time of the loop being run, microseconds
+     */
+    public long getLoopTimestamp() {
+        return loops[loop];
+    }
+
+    /**
+     * @param key
+     * @return the inputs logged in the loop being run, or null if there are none
+     */
+    public double[] getInputs(String key) {
+        Map<Long, double[]> records = inputs.get(key);
+        return records == null ? null : records.get(loops[loop]);
+    }
+
+    /**
+     * @param key
+     * @return the raw inputs logged in the loop being run, or null if there are
+     *         none
+     */
+    public byte[] getRawInputs(String key) {
+        Map<Long, byte[]> records = rawInputs.get(key);
+        return records == null ? null : records.get(loops[loop]);
+    }
+}
@@ -0,0 +1,30 @@
+package frc.robot.utils;
+
+/**
+ * Sensor inputs of a subsystem for one loop, as a flat struct of primitives
+ * that packs into a double[] so InputLog can log it every loop and fill it
+ * back in from a log when replaying.
+ */
+public interface LoggedInputs {
+    /**
+     * @return number of values toArray writes
+     */
+    int capacity();
+
+    /**
+     * Pack the inputs into exactly capacity() values, so every loop logs the
+     * same length. Inputs with a variable number of samples pack the whole
+     * buffer along with a count of how much of it is in use.
+     *
+     * @param out at least capacity() long
+     */
+    void toArray(double[] out);
+
+    /**
+     * Unpack inputs packed by toArray
+     *
+     * @param in
+     * @param length number of values in the array
+     */
+    void fromArray(double[] in, int length);
+}
@@ -0,0 +1,222 @@
+package frc.robot.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * Times the robot loop. Each subsystem periodic, each running command and the
+ * whole CommandScheduler run are recorded into fixed size log-linear (HDR
+ * style) histograms of microseconds. Once a second the p50, p99 and max over
+ * the last few seconds are published to NetworkTables under LoopProfiler and
+ * written to the DataLog.
+ *
+ * Recording is a System.nanoTime call and an array increment, with no
+ * allocation, so the whole loop costs on the order of a microsecond. Only
+ * use it from the main robot thread.
+ */
+public class LoopProfiler {
+    private static final double publishPeriodSeconds = 1.0;
+    // publishes cover this many publish periods
+    private static final int windows = 5;
+
+    // values below LINEAR get one bucket each, above that each power of two is
+    // split into SUB buckets (about 3% resolution)
+    private static final int LINEAR = 64;
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int MAX_BITS = 24; // ~16 seconds
+    private static final int BUCKETS = LINEAR + (MAX_BITS - SUB_BITS - 1) * SUB;
+
+    private static final NetworkTable table = NetworkTableInstance.getDefault().getTable("LoopProfiler");
+    private static final List<Section> sections = new ArrayList<>();
+    private static final Map<String, Section> sectionsByName = new HashMap<>();
+    private static final Map<Command, Section> commandSections = new IdentityHashMap<>();
+
+    private static long lastMark = System.nanoTime();
+    private static long lastPublish = System.nanoTime();
+    private static int window = 0;
+    private static boolean commandsInstrumented = false;
+
+    /**
+     * Get the section for a name, creating it the first time
+     *
+     * @param name shown in NetworkTables and the DataLog
+     * @return section to start and stop around the code being timed
+     */
+    public static Section register(String name) {
+        Section section = sectionsByName.get(name);
+        if (section == null) {
+            section = new Section(name);
+            sectionsByName.put(name, section);
+            sections.add(section);
+        }
+        return section;
+    }
+
+    /**
+     * Time every command the scheduler runs. The scheduler only reports after a
+     * command executes, so each command is charged the time since the previous
+     * section or command finished, which includes button polling for the first
+     * one. Commands with the same name share a section.
+     */
+    public static void instrumentCommands() {
+        if (commandsInstrumented) {
+            return;
+        }
+        commandsInstrumented = true;
+        CommandScheduler.getInstance().onCommandExecute(LoopProfiler::commandExecuted);
+    }
+
+    private static void commandExecuted(Command command) {
+        long now = System.nanoTime();
+        Section section = commandSections.get(command);
+        if (section == null) {
+            section = register("Command/" + command.getName());
+            commandSections.put(command, section);
+        }
+        section.record(now - lastMark);
+        lastMark = now;
+    }
+
+    /**
+     * Publish the percentiles if it has been long enough. Call once per loop
+     * after the scheduler has run.
+     */
+    public static void periodic() {
+        long now = System.nanoTime();
+        if (now - lastPublish < publishPeriodSeconds * 1e9) {
+            return;
+        }
+        lastPublish = now;
+
+        for (Section section : sections) {
+            section.publish();
+        }
+
+        // drop the oldest window and start recording over it
+        window = (window + 1) % windows;
+        for (Section section : sections) {
+            section.clearWindow(window);
+        }
+    }
+
+    private static int bucket(long micros) {
+        if (micros < LINEAR) {
+            return (int) Math.max(micros, 0);
+        }
+        micros = Math.min(micros, (1L << MAX_BITS) - 1);
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BITS;
+        return LINEAR + (shift - 1) * SUB + (int) (micros >> shift) - SUB;
+    }
+
+    /** @return the largest value that lands in a bucket */
+    private static long bucketValue(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int shift = (bucket - LINEAR) / SUB + 1;
+        long sub = (bucket - LINEAR) % SUB + SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * One timed piece of the loop
+     */
+    public static class Section {
+        private final long[][] counts = new long[windows][BUCKETS];
+        private final long[] totals = new long[windows];
+        private final long[] max = new long[windows];
+        private long startNanos;
+
+        private final DoublePublisher p50Publisher;
+        private final DoublePublisher p99Publisher;
+        private final DoublePublisher maxPublisher;
+        private final DoubleLogEntry p50Log;
+        private final DoubleLogEntry p99Log;
+        private final DoubleLogEntry maxLog;
+
+        private Section(String name) {
+            p50Publisher = table.getDoubleTopic(name + "/p50 (us)").publish();
+            p99Publisher = table.getDoubleTopic(name + "/p99 (us)").publish();
+            maxPublisher = table.getDoubleTopic(name + "/max (us)").publish();
+            p50Log = new DoubleLogEntry(DataLogManager.getLog(), "LoopProfiler/" + name + "/p50");
+            p99Log = new DoubleLogEntry(DataLogManager.getLog(), "LoopProfiler/" + name + "/p99");
+            maxLog = new DoubleLogEntry(DataLogManager.getLog(), "LoopProfiler/" + name + "/max");
+        }
+
+        /** Start timing */
+        public void start() {
+            startNanos = System.nanoTime();
+        }
+
+        /** Stop timing and record the time since start() */
+        public void stop() {
+            long now = System.nanoTime();
+            record(now - startNanos);
+            lastMark = now;
+        }
+
+        private void record(long nanos) {
+            long micros = nanos / 1000;
+            counts[window][bucket(micros)]++;
+            totals[window]++;
+            if (micros > max[window]) {
+                max[window] = micros;
+            }
+        }
+
+        private void clearWindow(int index) {
+            Arrays.fill(counts[index], 0);
+            totals[index] = 0;
+            max[index] = 0;
+        }
+
+        private void publish() {
+            long total = 0;
+            long windowMax = 0;
+            for (int i = 0; i < windows; i++) {
+                total += totals[i];
+                windowMax = Math.max(windowMax, max[i]);
+            }
+            if (total == 0) {
+                return;
+            }
+
+            double p50 = percentile(total, 0.50);
+            double p99 = percentile(total, 0.99);
+
+            p50Publisher.set(p50);
+            p99Publisher.set(p99);
+            maxPublisher.set(windowMax);
+            p50Log.append(p50);
+            p99Log.append(p99);
+            maxLog.append(windowMax);
+        }
+
+        private double percentile(long total, double percentile) {
+            long target = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                for (int i = 0; i < windows; i++) {
+                    seen += counts[i][bucket];
+                }
+                if (seen >= target) {
+                    return bucketValue(bucket);
+                }
+            }
+            return bucketValue(BUCKETS - 1);
+        }
+    }
+}
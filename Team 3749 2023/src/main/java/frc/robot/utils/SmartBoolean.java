@@ -0,0 +1,88 @@
+package frc.robot.utils;
+
+import java.util.EnumSet;
+
+import edu.wpi.first.networktables.BooleanEntry;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * Boolean that can be seen/edited in Smart Dashboard. A NetworkTables listener
+ * caches the value whenever it changes, so get() is a field read with no
+ * boxing or JNI call.
+ */
+public class SmartBoolean {
+    /**
+     * Takes a primitive boolean, so ifChanged() doesn't box
+     */
+    @FunctionalInterface
+    public interface BooleanConsumer {
+        void accept(boolean value);
+    }
+
+    private final BooleanEntry entry;
+
+    private volatile boolean value;
+    // bumped each time the value changes, from the dashboard or set()
+    private volatile int version = 0;
+    private int seenVersion = -1;
+
+    /**
+     * Creates a new SmartBoolean
+     *
+     * @param name       Key on SmartDashboard
+     * @param defaultVal Default value
+     */
+    public SmartBoolean(String name, boolean defaultVal) {
+        NetworkTableInstance instance = NetworkTableInstance.getDefault();
+        entry = instance.getTable("SmartDashboard").getBooleanTopic(name).getEntry(defaultVal);
+        value = defaultVal;
+        entry.set(defaultVal);
+
+        instance.addListener(entry, EnumSet.of(NetworkTableEvent.Kind.kValueAll, NetworkTableEvent.Kind.kImmediate),
+                event -> update(event.valueData.value.getBoolean()));
+    }
+
+    // the listener thread and set() can both get here
+    private synchronized void update(boolean newValue) {
+        if (newValue != value) {
+            value = newValue;
+            version++;
+        }
+    }
+
+    /**
+     * @return the latest value
+     */
+    public boolean get() {
+        return value;
+    }
+
+    /**
+     * Pass the value to a consumer the first time this is called and whenever
+     * it has changed since. Call from one thread only.
+     *
+     * @param consumer
+     * @return true if the consumer was called
+     */
+    public boolean ifChanged(BooleanConsumer consumer) {
+        int currentVersion = version;
+        if (currentVersion == seenVersion) {
+            return false;
+        }
+        seenVersion = currentVersion;
+        consumer.accept(value);
+        return true;
+    }
+
+    /**
+     * Publish a value. get() and ifChanged() see it right away, without waiting
+     * for the listener.
+     *
+     * @param val
+     */
+    public void set(boolean val) {
+        update(val);
+        entry.set(val);
+    }
+}
@@ -0,0 +1,83 @@
+package frc.robot.utils;
+
+import java.util.EnumSet;
+import java.util.function.DoubleConsumer;
+
+import edu.wpi.first.networktables.DoubleEntry;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * Double that can be seen/edited in Smart Dashboard. A NetworkTables listener
+ * caches the value whenever it changes, so get() is a field read with no
+ * boxing or JNI call, and ifChanged() lets a command re-apply a gain only when
+ * it was actually edited.
+ */
+public class SmartDouble {
+    private final DoubleEntry entry;
+
+    private volatile double value;
+    // bumped each time the value changes, from the dashboard or set()
+    private volatile int version = 0;
+    private int seenVersion = -1;
+
+    /**
+     * Creates a new SmartDouble
+     *
+     * @param name       Key on SmartDashboard
+     * @param defaultVal Default value
+     */
+    public SmartDouble(String name, double defaultVal) {
+        NetworkTableInstance instance = NetworkTableInstance.getDefault();
+        entry = instance.getTable("SmartDashboard").getDoubleTopic(name).getEntry(defaultVal);
+        value = defaultVal;
+        entry.set(defaultVal);
+
+        instance.addListener(entry, EnumSet.of(NetworkTableEvent.Kind.kValueAll, NetworkTableEvent.Kind.kImmediate),
+                event -> update(event.valueData.value.getDouble()));
+    }
+
+    // the listener thread and set() can both get here
+    private synchronized void update(double newValue) {
+        if (Double.doubleToLongBits(newValue) != Double.doubleToLongBits(value)) {
+            value = newValue;
+            version++;
+        }
+    }
+
+    /**
+     * @return the latest value
+     */
+    public double get() {
+        return value;
+    }
+
+    /**
+     * Pass the value to a consumer the first time this is called and whenever
+     * it has changed since. Call from one thread only, e.g. a command's
+     * execute().
+     *
+     * @param consumer
+     * @return true if the consumer was called
+     */
+    public boolean ifChanged(DoubleConsumer consumer) {
+        int currentVersion = version;
+        if (currentVersion == seenVersion) {
+            return false;
+        }
+        seenVersion = currentVersion;
+        consumer.accept(value);
+        return true;
+    }
+
+    /**
+     * Publish a value. get() and ifChanged() see it right away, without waiting
+     * for the listener.
+     *
+     * @param val
+     */
+    public void set(double val) {
+        update(val);
+        entry.set(val);
+    }
+}
@@ -0,0 +1,257 @@
+package frc.robot.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import frc.robot.utils.Constants.TelemetryConstants;
+
+/**
+ * Registry of robot telemetry. Subsystems register primitive suppliers once,
+ * and periodic() samples all of them and publishes them as typed
+ * NetworkTables topics under Telemetry (at the dashboard rate) and DataLog
+ * entries (at the log rate). Values that haven't changed since they were
+ * last published are skipped, and nothing is boxed.
+ *
+ * Values that were on the dashboard before this registry existed can keep
+ * their old NetworkTables topic, so saved dashboard layouts still find them.
+ * Their DataLog entry is still under Telemetry.
+ *
+ * Only use it from the main robot thread.
+ */
+public class Telemetry {
+    private static final NetworkTableInstance instance = NetworkTableInstance.getDefault();
+    private static final List<Channel> channels = new ArrayList<>();
+
+    private static final long dashboardPeriodNanos = (long) (1e9 / TelemetryConstants.dashboard_frequency_hz);
+    private static final long logPeriodNanos = (long) (1e9 / TelemetryConstants.log_frequency_hz);
+    private static long nextDashboard = System.nanoTime();
+    private static long nextLog = System.nanoTime();
+
+    /**
+     * Fills a reused array with the current values
+     */
+    @FunctionalInterface
+    public interface DoubleArraySupplier {
+        void get(double[] out);
+    }
+
+    /**
+     * @param key      topic under Telemetry, e.g. "Arm/Shoulder Angle"
+     * @param supplier
+     */
+    public static void addDouble(String key, DoubleSupplier supplier) {
+        addDouble(key, "/Telemetry/" + key, supplier);
+    }
+
+    /**
+     * @param key      log entry under Telemetry
+     * @param topic    full NetworkTables topic, e.g.
+     *                 "/Shuffleboard/Arm/Shoulder Angle"
+     * @param supplier
+     */
+    public static void addDouble(String key, String topic, DoubleSupplier supplier) {
+        channels.add(new DoubleChannel(key, topic, supplier));
+    }
+
+    /**
+     * @param key      topic under Telemetry
+     * @param supplier
+     */
+    public static void addBoolean(String key, BooleanSupplier supplier) {
+        channels.add(new BooleanChannel(key, supplier));
+    }
+
+    /**
+     * Publish several values as one packed array topic
+     *
+     * @param key      topic under Telemetry
+     * @param length   number of values
+     * @param supplier fills the array it is given
+     */
+    public static void addDoubleArray(String key, int length, DoubleArraySupplier supplier) {
+        addDoubleArray(key, "/Telemetry/" + key, length, supplier);
+    }
+
+    /**
+     * @param key      log entry under Telemetry
+     * @param topic    full NetworkTables topic, e.g. "/SmartDashboard/Odometry"
+     * @param length   number of values
+     * @param supplier fills the array it is given
+     */
+    public static void addDoubleArray(String key, String topic, int length, DoubleArraySupplier supplier) {
+        channels.add(new DoubleArrayChannel(key, topic, length, supplier));
+    }
+
+    /**
+     * Sample and publish whatever is due. Call once per loop after the scheduler
+     * has run.
+     */
+    public static void periodic() {
+        long now = System.nanoTime();
+        boolean dashboard = now - nextDashboard >= 0;
+        boolean log = now - nextLog >= 0;
+        if (!dashboard && !log) {
+            return;
+        }
+        if (dashboard) {
+            nextDashboard = now + dashboardPeriodNanos;
+        }
+        if (log) {
+            nextLog = now + logPeriodNanos;
+        }
+
+        for (Channel channel : channels) {
+            channel.sample();
+            if (dashboard) {
+                channel.publish();
+            }
+            if (log) {
+                channel.log();
+            }
+        }
+    }
+
+    private static boolean same(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+    private interface Channel {
+        void sample();
+
+        void publish();
+
+        void log();
+    }
+
+    private static class DoubleChannel implements Channel {
+        private final DoubleSupplier supplier;
+        private final DoublePublisher publisher;
+        private final DoubleLogEntry entry;
+        private double value;
+        private double published = Double.NaN;
+        private double logged = Double.NaN;
+        private boolean everPublished = false;
+        private boolean everLogged = false;
+
+        DoubleChannel(String key, String topic, DoubleSupplier supplier) {
+            this.supplier = supplier;
+            publisher = instance.getDoubleTopic(topic).publish();
+            entry = new DoubleLogEntry(DataLogManager.getLog(), "Telemetry/" + key);
+        }
+
+        public void sample() {
+            value = supplier.getAsDouble();
+        }
+
+        public void publish() {
+            if (!everPublished || !same(value, published)) {
+                publisher.set(value);
+                published = value;
+                everPublished = true;
+            }
+        }
+
+        public void log() {
+            if (!everLogged || !same(value, logged)) {
+                entry.append(value);
+                logged = value;
+                everLogged = true;
+            }
+        }
+    }
+
+    private static class BooleanChannel implements Channel {
+        private final BooleanSupplier supplier;
+        private final BooleanPublisher publisher;
+        private final BooleanLogEntry entry;
+        private boolean value;
+        // 0 never, 1 false, 2 true
+        private int published = 0;
+        private int logged = 0;
+
+        BooleanChannel(String key, BooleanSupplier supplier) {
+            this.supplier = supplier;
+            publisher = instance.getBooleanTopic("/Telemetry/" + key).publish();
+            entry = new BooleanLogEntry(DataLogManager.getLog(), "Telemetry/" + key);
+        }
+
+        public void sample() {
+            value = supplier.getAsBoolean();
+        }
+
+        public void publish() {
+            int state = value ? 2 : 1;
+            if (state != published) {
+                publisher.set(value);
+                published = state;
+            }
+        }
+
+        public void log() {
+            int state = value ? 2 : 1;
+            if (state != logged) {
+                entry.append(value);
+                logged = state;
+            }
+        }
+    }
+
+    private static class DoubleArrayChannel implements Channel {
+        private final DoubleArraySupplier supplier;
+        private final DoubleArrayPublisher publisher;
+        private final DoubleArrayLogEntry entry;
+        private final double[] value;
+        private final double[] published;
+        private final double[] logged;
+        private boolean everPublished = false;
+        private boolean everLogged = false;
+
+        DoubleArrayChannel(String key, String topic, int length, DoubleArraySupplier supplier) {
+            this.supplier = supplier;
+            value = new double[length];
+            published = new double[length];
+            logged = new double[length];
+            publisher = instance.getDoubleArrayTopic(topic).publish();
+            entry = new DoubleArrayLogEntry(DataLogManager.getLog(), "Telemetry/" + key);
+        }
+
+        public void sample() {
+            supplier.get(value);
+        }
+
+        public void publish() {
+            if (!everPublished || changed(published)) {
+                publisher.set(value);
+                System.arraycopy(value, 0, published, 0, value.length);
+                everPublished = true;
+            }
+        }
+
+        public void log() {
+            if (!everLogged || changed(logged)) {
+                entry.append(value);
+                System.arraycopy(value, 0, logged, 0, value.length);
+                everLogged = true;
+            }
+        }
+
+        private boolean changed(double[] last) {
+            for (int i = 0; i < value.length; i++) {
+                if (!same(value[i], last[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package frc.robot.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Logs arm trajectory samples to a CSV file without touching the filesystem on
+ * the robot thread. Samples go into a lock-free single producer, single
+ * consumer ring buffer of primitive doubles, and a background thread drains
+ * it to the file in batches. If the buffer is full the sample is dropped and
+ * counted instead of blocking.
+ *
+ * Only one thread may call log().
+ *
+ * Columns: timestamp, x, y, measured_x, measured_y, shoulder_voltage,
+ * elbow_voltage
+ */
+public class TrajectoryLogger {
+    private static final int FIELDS = 7;
+    private static final String HEADER = "timestamp,x,y,measured_x,measured_y,shoulder_voltage,elbow_voltage";
+
+    private final String path;
+    private final long flushIntervalMillis;
+    private final int mask;
+    private final double[] buffer;
+
+    // head is only written by the producer, tail only by the writer thread
+    private volatile long head = 0;
+    private volatile long tail = 0;
+    private volatile long dropped = 0;
+
+    /**
+     * Create a logger and start its writer thread. Samples are appended to the
+     * file, and the header is only written if the file is new or empty.
+     *
+     * @param path                 file to write
+     * @param capacity             samples the buffer can hold, rounded up to a
+     *                             power of two
+     * @param flushIntervalSeconds how often the writer thread drains the buffer
+     */
+    public TrajectoryLogger(String path, int capacity, double flushIntervalSeconds) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.path = path;
+        this.flushIntervalMillis = Math.max(1, (long) (flushIntervalSeconds * 1000));
+        this.mask = size - 1;
+        this.buffer = new double[size * FIELDS];
+
+        Thread writer = new Thread(this::run, "TrajectoryLogger");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue a sample. Never blocks or allocates.
+     *
+     * @return false if the buffer was full and the sample was dropped
+     */
+    public boolean log(double timestamp, double x, double y, double measuredX, double measuredY,
+            double shoulderVoltage, double elbowVoltage) {
+        long h = head;
+        if (h - tail > mask) {
+            dropped++;
+            return false;
+        }
+
+        int i = (int) (h & mask) * FIELDS;
+        buffer[i] = timestamp;
+        buffer[i + 1] = x;
+        buffer[i + 2] = y;
+        buffer[i + 3] = measuredX;
+        buffer[i + 4] = measuredY;
+        buffer[i + 5] = shoulderVoltage;
+        buffer[i + 6] = elbowVoltage;
+
+        // publishes the sample to the writer thread
+        head = h + 1;
+        return true;
+    }
+
+    /**
+     * @return number of samples dropped because the buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    private void run() {
+        File file = new File(path);
+        boolean needsHeader = file.length() == 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
+            if (needsHeader) {
+                writer.write(HEADER);
+                writer.newLine();
+                writer.flush();
+            }
+
+            StringBuilder line = new StringBuilder(128);
+            long reportedDrops = 0;
+            while (true) {
+                Thread.sleep(flushIntervalMillis);
+
+                long h = head;
+                long t = tail;
+                if (h == t) {
+                    continue;
+                }
+                for (; t < h; t++) {
+                    int i = (int) (t & mask) * FIELDS;
+                    line.setLength(0);
+                    for (int field = 0; field < FIELDS; field++) {
+                        if (field > 0) {
+                            line.append(',');
+                        }
+                        line.append(buffer[i + field]);
+                    }
+                    writer.append(line);
+                    writer.newLine();
+                }
+                // frees the slots for the producer
+                tail = t;
+                writer.flush();
+
+                long drops = dropped;
+                if (drops != reportedDrops) {
+                    System.out.println("TrajectoryLogger dropped " + (drops - reportedDrops) + " samples");
+                    reportedDrops = drops;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
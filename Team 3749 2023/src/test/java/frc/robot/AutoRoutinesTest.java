@@ -0,0 +1,151 @@
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.commands.swerve.AutoCommands;
+import frc.robot.subsystems.arm.Arm;
+import frc.robot.subsystems.swerve.Swerve;
+import frc.robot.utils.Constants.Arm.ArmSetpoints;
+
+/**
+ * Runs every autonomous routine end to end against the swerve and arm sims,
+ * faster than real time, for both alliances. Checks that each one finishes
+ * inside the autonomous period and leaves the robot where its last path ends.
+ * Routines that end balancing on the charge station hold it until the period
+ * is over, so they're cut off there and checked for finishing their paths
+ * with time left to balance.
+ */
+class AutoRoutinesTest {
+    private static final double dt = 0.02;
+
+    // seconds, the autonomous period
+    private static final double max_runtime = 15;
+    // seconds the robot is left to settle before each routine
+    private static final double rest_time = 3;
+    // seconds left after the last path for a routine to balance in
+    private static final double min_balance_time = 1;
+    // meters and degrees from the end of the last path
+    private static final double max_translation_error = 0.2;
+    private static final double max_rotation_error = 10;
+
+    // routines that end in AutoBalancingPID, which runs until autonomous ends
+    private static final Set<String> balancing = Set.of("Top Two Piece Charge");
+
+    private static RobotContainer container;
+    // the last pose a path told the robot to be at, and when
+    private static Pose2d lastTarget;
+    private static double lastTargetTime;
+
+    @BeforeAll
+    static void setup() {
+        assertTrue(HAL.initialize(500, 0));
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setAutonomous(true);
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+
+        // path commands report their target here, so it has to be set before
+        // any routine is built
+        AutoCommands.pathTargetPose = pose -> {
+            lastTarget = pose;
+            lastTargetTime = Timer.getFPGATimestamp();
+        };
+        container = new RobotContainer();
+    }
+
+    @AfterAll
+    static void teardown() {
+        CommandScheduler.getInstance().cancelAll();
+        CommandScheduler.getInstance().unregisterAllSubsystems();
+        SimHooks.resumeTiming();
+    }
+
+    static Stream<Arguments> routines() {
+        Set<String> names = new TreeSet<>(container.getAutoRegistry().getNames());
+        Stream.Builder<Arguments> routines = Stream.builder();
+        for (String name : names) {
+            routines.add(Arguments.of(name, AllianceStationID.Blue1));
+            routines.add(Arguments.of(name, AllianceStationID.Red1));
+        }
+        return routines.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("routines")
+    void runsRoutine(String name, AllianceStationID station) {
+        DriverStationSim.setAllianceStationId(station);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+        String routine = name + " on " + DriverStation.getAlliance();
+
+        // stow the arm and let the robot come to rest
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        scheduler.cancelAll();
+        Swerve swerve = container.getSwerve();
+        Arm arm = container.getArm();
+        arm.setCurrentSetpoint(ArmSetpoints.STOW);
+        arm.setArmPosition(ArmSetpoints.STOW.translation);
+        for (double time = 0; time < rest_time; time += dt) {
+            scheduler.run();
+            SimHooks.stepTiming(dt);
+        }
+        lastTarget = null;
+        Pose2d start = swerve.getPose();
+
+        Command auto = container.getAutoRegistry().get(name);
+        assertNotNull(auto, routine + " didn't build");
+        // the end of the autonomous period
+        Command command = auto.withTimeout(max_runtime);
+        scheduler.schedule(command);
+        double startTime = Timer.getFPGATimestamp();
+        while (scheduler.isScheduled(command)) {
+            scheduler.run();
+            SimHooks.stepTiming(dt);
+        }
+        double runtime = Timer.getFPGATimestamp() - startTime;
+        boolean timedOut = runtime >= max_runtime;
+
+        if (balancing.contains(name)) {
+            assertTrue(timedOut, routine + " stopped balancing after " + runtime + " s");
+            assertNotNull(lastTarget, routine + " didn't follow a path");
+            double pathTime = lastTargetTime - startTime;
+            assertTrue(pathTime < max_runtime - min_balance_time,
+                    routine + " finished its paths after " + pathTime + " s, with no time to balance");
+        } else {
+            assertFalse(timedOut, routine + " still running after " + max_runtime + " s");
+        }
+
+        // routines without a path should stay put
+        Pose2d target = lastTarget == null ? start : lastTarget;
+        Pose2d end = swerve.getPose();
+        double translationError = end.getTranslation().getDistance(target.getTranslation());
+        double rotationError = Math.abs(end.getRotation().minus(target.getRotation()).getDegrees());
+        assertTrue(translationError < max_translation_error,
+                "ended " + translationError + " m from " + target + " running " + routine);
+        assertTrue(rotationError < max_rotation_error,
+                "ended " + rotationError + " degrees from " + target + " running " + routine);
+    }
+}
@@ -0,0 +1,169 @@
+package frc.robot.commands.arm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.subsystems.arm.Arm;
+import frc.robot.subsystems.arm.ArmIOSim;
+import frc.robot.subsystems.arm.ArmKinematics;
+import frc.robot.subsystems.arm.ArmTrajectories;
+import frc.robot.subsystems.arm.ArmTrajectoryTable;
+import frc.robot.subsystems.leds.LEDs;
+import frc.robot.utils.Constants.Arm.ArmSetpoints;
+
+/**
+ * Runs MoveArm over every arm route against ArmSim, faster than real time,
+ * and checks how far the arm strays from the route's path, where it comes to
+ * rest and how long that takes
+ */
+class MoveArmTest {
+    private static final double dt = 0.02;
+    // seconds between the points the path is checked against
+    private static final double path_step = 0.005;
+
+    // meters from the nearest point on the path. The joints only have P and
+    // static feedforward, so they lag the profile by tens of cm, but lagging
+    // along the path doesn't count here
+    private static final double max_path_error = 0.3;
+    // meters from the end of the route once the arm is at rest. Arm's static
+    // feedforward is given degrees, so the joints hold some distance off
+    private static final double max_final_error = 0.3;
+    // meters, the arm is at rest once it stays this close to where it ends up
+    private static final double rest_tolerance = 0.01;
+    // seconds after the trajectory ends
+    private static final double max_settling_time = 2.5;
+    // seconds the arm is held at the end of the route
+    private static final double hold_time = 4;
+
+    private static ArmIOSim io;
+    private static Arm arm;
+    private static ArmTrajectories trajectories;
+    private static LEDs leds;
+
+    @BeforeAll
+    static void setup() {
+        assertTrue(HAL.initialize(500, 0));
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+
+        io = new ArmIOSim();
+        arm = new Arm(io);
+        trajectories = new ArmTrajectories();
+        leds = new LEDs();
+    }
+
+    @AfterAll
+    static void teardown() {
+        CommandScheduler.getInstance().cancelAll();
+        CommandScheduler.getInstance().unregisterAllSubsystems();
+        SimHooks.resumeTiming();
+    }
+
+    static Stream<Arguments> routes() {
+        Stream.Builder<Arguments> routes = Stream.builder();
+        for (ArmSetpoints from : ArmSetpoints.values()) {
+            for (ArmSetpoints to : ArmSetpoints.values()) {
+                if (from != to) {
+                    routes.add(Arguments.of(from, to));
+                }
+            }
+        }
+        return routes.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("routes")
+    void followsRoute(ArmSetpoints from, ArmSetpoints to) {
+        ArmTrajectoryTable route = trajectories.getRoute(from, to);
+        assumeTrue(route != null, "no route from " + from + " to " + to);
+
+        // put the arm at rest at the start
+        double[] start = new double[2];
+        assertEquals(ArmKinematics.OK,
+                ArmKinematics.inverse(from.translation.getX(), from.translation.getY(), start));
+        io.getSim().setState(start[0], start[1]);
+        arm.setCurrentSetpoint(from);
+        arm.setArmPosition(from.translation);
+
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        MoveArm command = new MoveArm(arm, trajectories, null, leds, to);
+        scheduler.schedule(command);
+        double startTime = Timer.getFPGATimestamp();
+
+        Translation2d[] path = samplePath(route);
+        double pathError = 0;
+        while (scheduler.isScheduled(command)) {
+            double time = Timer.getFPGATimestamp() - startTime;
+            assertTrue(time < route.getTotalTimeSeconds() + 1, "MoveArm didn't finish");
+
+            scheduler.run();
+            pathError = Math.max(pathError, distanceToPath(arm.getArmCoordinate(), path));
+            SimHooks.stepTiming(dt);
+        }
+        assertEquals(to, arm.getCurrentSetpoint());
+
+        // hold at the end, recording where the arm is each loop
+        int holdLoops = (int) Math.round(hold_time / dt);
+        Translation2d[] held = new Translation2d[holdLoops];
+        for (int loop = 0; loop < holdLoops; loop++) {
+            scheduler.run();
+            pathError = Math.max(pathError, distanceToPath(arm.getArmCoordinate(), path));
+            held[loop] = arm.getArmCoordinate();
+            SimHooks.stepTiming(dt);
+        }
+        Translation2d rest = held[holdLoops - 1];
+        double settlingTime = 0;
+        for (int loop = 0; loop < holdLoops; loop++) {
+            if (held[loop].getDistance(rest) > rest_tolerance) {
+                settlingTime = (loop + 1) * dt;
+            }
+        }
+        double finalError = rest.getDistance(path[path.length - 1]);
+
+        String name = " from " + from + " to " + to;
+        assertTrue(pathError < max_path_error, "path error " + pathError + " m" + name);
+        assertTrue(finalError < max_final_error, "final error " + finalError + " m" + name);
+        assertTrue(settlingTime < max_settling_time, "settling time " + settlingTime + " s" + name);
+    }
+
+    /**
+     * @return points along the route every path_step seconds, ending at its end
+     */
+    private static Translation2d[] samplePath(ArmTrajectoryTable route) {
+        int count = (int) Math.ceil(route.getTotalTimeSeconds() / path_step) + 1;
+        Translation2d[] path = new Translation2d[count];
+        double[] sample = new double[ArmTrajectoryTable.SAMPLE_SIZE];
+        for (int i = 0; i < count; i++) {
+            route.sample(Math.min(i * path_step, route.getTotalTimeSeconds()), sample);
+            path[i] = new Translation2d(sample[ArmTrajectoryTable.X], sample[ArmTrajectoryTable.Y]);
+        }
+        return path;
+    }
+
+    private static double distanceToPath(Translation2d position, Translation2d[] path) {
+        double distance = Double.POSITIVE_INFINITY;
+        for (Translation2d point : path) {
+            distance = Math.min(distance, position.getDistance(point));
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,84 @@
+package frc.robot.subsystems.arm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import frc.robot.utils.Constants;
+
+/**
+ * Checks the grid inverse kinematics against the closed form over the whole
+ * workspace
+ */
+class ArmKinematicsTest {
+    private static final double reach = Constants.Arm.shoulder_length + Constants.Arm.elbow_length;
+    private static final double innerReach = Math.abs(Constants.Arm.shoulder_length - Constants.Arm.elbow_length);
+    // off the 2 cm grid, so most points land inside a cell
+    private static final double step = 0.013;
+    // points this close to an edge of the workspace are skipped, rounding
+    // decides which side of the edge they're on
+    private static final double edge = 1e-6;
+
+    // degrees
+    private static final double angleTolerance = 0.05;
+    // meters
+    private static final double positionTolerance = 0.001;
+
+    @Test
+    void gridMatchesClosedForm() throws Exception {
+        double[] out = new double[2];
+        int checked = 0;
+        for (double x = -reach; x <= reach; x += step) {
+            for (double y = -reach; y <= reach; y += step) {
+                double dist = Math.hypot(x, y);
+                if (x == 0 || dist > reach - edge || dist < innerReach + edge) {
+                    continue;
+                }
+                String point = "(" + x + ", " + y + ")";
+
+                assertEquals(ArmKinematics.OK, ArmKinematics.inverse(x, y, out), point);
+                var closedForm = ArmKinematics.inverse(x, y);
+                assertEquals(closedForm.getFirst(), out[0], angleTolerance, "shoulder at " + point);
+                assertEquals(closedForm.getSecond(), out[1], angleTolerance, "elbow at " + point);
+
+                Translation2d position = ArmKinematics.forward(Math.toRadians(out[0]), Math.toRadians(out[1]));
+                assertEquals(x, position.getX(), positionTolerance, "x at " + point);
+                assertEquals(y, position.getY(), positionTolerance, "y at " + point);
+                checked++;
+            }
+        }
+        // most of the annulus, so a sweep that skips everything fails
+        assertEquals(Math.PI * (reach * reach - innerReach * innerReach) / (step * step), checked,
+                checked * 0.05);
+    }
+
+    @Test
+    void unreachableOutsideAnnulus() {
+        double[] out = new double[2];
+        for (double x = -reach - 0.2; x <= reach + 0.2; x += step) {
+            for (double y = -reach - 0.2; y <= reach + 0.2; y += step) {
+                double dist = Math.hypot(x, y);
+                if (dist <= reach + edge && dist >= innerReach - edge) {
+                    continue;
+                }
+                out[0] = 1234;
+                out[1] = 5678;
+                assertEquals(ArmKinematics.UNREACHABLE, ArmKinematics.inverse(x, y, out),
+                        "(" + x + ", " + y + ")");
+                assertArrayEquals(new double[] { 1234, 5678 }, out);
+            }
+        }
+    }
+
+    @Test
+    void unreachableNextToShoulder() {
+        double[] out = new double[2];
+        assertEquals(ArmKinematics.UNREACHABLE, ArmKinematics.inverse(0.1, 0.05, out));
+        assertEquals(ArmKinematics.UNREACHABLE, ArmKinematics.inverse(-0.1, 0.05, out));
+        assertEquals(ArmKinematics.UNREACHABLE, ArmKinematics.inverse(0, 0.5, out));
+        assertThrows(Exception.class, () -> ArmKinematics.inverse(0.1, 0.05));
+    }
+}
@@ -0,0 +1,160 @@
+package frc.robot.tools;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Summarizes many logs at once on a ForkJoinPool, one task per file, and
+ * merges the summaries into one report. Each task maps and indexes its own
+ * WpiLog, and large entries inside it are decoded in parallel chunks, so a few
+ * big logs still keep every core busy. Nothing is shared between tasks until
+ * the merge.
+ */
+public class BatchAnalysis {
+    // matches RobotController.setBrownoutVoltage in RobotContainer
+    public static final double brownout_voltage = 7.0;
+
+    // ForkJoinTask is Serializable, but these tasks are never serialized
+    @SuppressWarnings("serial")
+    private static class SummarizeLog extends RecursiveTask<MatchSummary> {
+        private final Path file;
+
+        SummarizeLog(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        protected MatchSummary compute() {
+            try {
+                return MatchSummary.of(new WpiLog(file), brownout_voltage);
+            } catch (IOException | RuntimeException e) {
+                System.out.println(file + ": " + e);
+                return null;
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class SummarizeAll extends RecursiveTask<List<MatchSummary>> {
+        private final List<Path> files;
+
+        SummarizeAll(List<Path> files) {
+            this.files = files;
+        }
+
+        @Override
+        protected List<MatchSummary> compute() {
+            List<SummarizeLog> tasks = new ArrayList<>();
+            for (Path file : files) {
+                tasks.add(new SummarizeLog(file));
+            }
+            invokeAll(tasks);
+
+            // in the order the files were given, whatever order they finished in
+            List<MatchSummary> summaries = new ArrayList<>();
+            for (SummarizeLog task : tasks) {
+                MatchSummary summary = task.join();
+                if (summary != null) {
+                    summaries.add(summary);
+                }
+            }
+            return summaries;
+        }
+    }
+
+    /**
+     * @param files
+     * @param parallelism threads to use
+     * @return a summary of every log that could be read, in the same order
+     */
+    public static List<MatchSummary> summarize(List<Path> files, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new SummarizeAll(files));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Print one line per match, then the totals across all of them
+     *
+     * @param summaries
+     */
+    public static void report(List<MatchSummary> summaries) {
+        System.out.printf("%-28s %-14s %14s %14s %10s %10s %12s%n", "log", "match", "auto rms (m)",
+                "auto max (m)", "brownouts", "arm moves", "intake (A)");
+
+        int brownouts = 0;
+        double worstVoltage = Double.NaN;
+        double worstAutoError = 0;
+        String worstAutoMatch = "";
+        double intakePeak = 0;
+        String intakePeakMatch = "";
+        // move durations by target, sorted so the report is stable
+        Map<String, List<Double>> moveDurations = new TreeMap<>();
+
+        for (MatchSummary summary : summaries) {
+            String match = summary.match.isEmpty() ? "-" : summary.match;
+            LogQueries.AutoPathError auto = summary.autoPathError;
+            LogQueries.Peak intake = summary.intakeCurrentPeak;
+            System.out.printf("%-28s %-14s %14s %14s %10d %10d %12s%n", summary.file, match,
+                    auto == null ? "-" : String.format("%.3f", auto.rmsError),
+                    auto == null ? "-" : String.format("%.3f", auto.maxError),
+                    summary.brownouts.size(), summary.armMoves.size(),
+                    intake == null ? "-" : String.format("%.1f", intake.value));
+
+            brownouts += summary.brownouts.size();
+            for (LogQueries.Brownout brownout : summary.brownouts) {
+                if (!(brownout.minVoltage >= worstVoltage)) {
+                    worstVoltage = brownout.minVoltage;
+                }
+            }
+            if (auto != null && auto.maxError > worstAutoError) {
+                worstAutoError = auto.maxError;
+                worstAutoMatch = summary.file;
+            }
+            if (intake != null && intake.value > intakePeak) {
+                intakePeak = intake.value;
+                intakePeakMatch = summary.file;
+            }
+            for (LogQueries.ArmMove move : summary.armMoves) {
+                moveDurations.computeIfAbsent(move.target, target -> new ArrayList<>()).add(move.duration);
+            }
+        }
+
+        System.out.println();
+        System.out.printf("brownouts below %.1f V: %d%s%n", brownout_voltage, brownouts,
+                brownouts == 0 ? "" : String.format(", lowest %.2f V", worstVoltage));
+        if (!worstAutoMatch.isEmpty()) {
+            System.out.printf("worst auto path error: %.3f m in %s%n", worstAutoError, worstAutoMatch);
+        }
+        if (!intakePeakMatch.isEmpty()) {
+            System.out.printf("intake current peak: %.1f A in %s%n", intakePeak, intakePeakMatch);
+        }
+        for (Map.Entry<String, List<Double>> entry : moveDurations.entrySet()) {
+            double[] durations = entry.getValue().stream().mapToDouble(Double::doubleValue).toArray();
+            System.out.printf("arm move %-24s %4d moves  p50 %.2f s  max %.2f s%n", entry.getKey(),
+                    durations.length, LogQueries.percentile(durations, 0.5),
+                    LogQueries.percentile(durations, 1));
+        }
+    }
+
+    /**
+     * @param summaries
+     * @return total bytes of the logs summarized
+     */
+    public static long totalBytes(List<MatchSummary> summaries) {
+        long bytes = 0;
+        for (MatchSummary summary : summaries) {
+            bytes += summary.bytes;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,296 @@
+package frc.robot.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Questions asked of a WpiLog. Each query only decodes the entries it needs.
+ *
+ * Entries are looked up under the DataLog names the robot logs today (e.g.
+ * "Telemetry/Arm/Arm X"), falling back to the NetworkTables names older logs
+ * captured through DataLogManager.logNetworkTables.
+ */
+public final class LogQueries {
+    private LogQueries() {
+    }
+
+    /**
+     * How closely the arm followed one MoveArm trajectory
+     */
+    public static class ArmMove {
+        public final String target;
+        // seconds since the log started
+        public final double start;
+        public final double duration;
+        // meters, measured position vs the commanded trajectory position
+        public final double rmsError;
+        public final double maxError;
+        public final int samples;
+
+        ArmMove(String target, double start, double duration, double rmsError, double maxError, int samples) {
+            this.target = target;
+            this.start = start;
+            this.duration = duration;
+            this.rmsError = rmsError;
+            this.maxError = maxError;
+            this.samples = samples;
+        }
+    }
+
+    /**
+     * Summary of the LoopProfiler windows logged for one section
+     */
+    public static class LoopTime {
+        public final String section;
+        // microseconds: median of the windows' p50s, p99 of their p99s, and the
+        // worst max
+        public final double p50;
+        public final double p99;
+        public final double max;
+        public final int windows;
+
+        LoopTime(String section, double p50, double p99, double max, int windows) {
+            this.section = section;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+            this.windows = windows;
+        }
+    }
+
+    /**
+     * Path following error while autonomous was enabled
+     */
+    public static class AutoPathError {
+        // meters
+        public final double rmsError;
+        public final double maxError;
+        // degrees
+        public final double maxRotationError;
+        public final int samples;
+
+        AutoPathError(double rmsError, double maxError, double maxRotationError, int samples) {
+            this.rmsError = rmsError;
+            this.maxError = maxError;
+            this.maxRotationError = maxRotationError;
+            this.samples = samples;
+        }
+    }
+
+    /**
+     * A stretch of time the battery was below the brownout voltage
+     */
+    public static class Brownout {
+        // seconds since the log started
+        public final double start;
+        public final double duration;
+        public final double minVoltage;
+
+        Brownout(double start, double duration, double minVoltage) {
+            this.start = start;
+            this.duration = duration;
+            this.minVoltage = minVoltage;
+        }
+    }
+
+    /**
+     * Highest value of a signal and when it happened
+     */
+    public static class Peak {
+        public final double value;
+        // seconds since the log started
+        public final double time;
+
+        Peak(double value, double time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Arm tracking error during every MoveArm. A move runs from a non empty
+     * "MoveArm/Target" record to the next record. Logs from before the marker
+     * existed have no moves.
+     *
+     * @param log
+     * @return one ArmMove per MoveArm that had samples
+     */
+    public static List<ArmMove> armTracking(WpiLog log) {
+        List<ArmMove> moves = new ArrayList<>();
+        WpiLog.StringColumn targets = log.strings("MoveArm/Target");
+
+        WpiLog.DoubleColumn measuredX = log.doubles(
+                log.firstPresent("Telemetry/Arm/Arm X", "NT:/Shuffleboard/Arm/Arm X"));
+        WpiLog.DoubleColumn measuredY = log.doubles(
+                log.firstPresent("Telemetry/Arm/Arm Y", "NT:/Shuffleboard/Arm/Arm Y"));
+        WpiLog.DoubleColumn desiredX = log.doubles(
+                log.firstPresent("Telemetry/Arm/Arm Cache X", "NT:/Shuffleboard/Arm/Arm Cache X"));
+        WpiLog.DoubleColumn desiredY = log.doubles(
+                log.firstPresent("Telemetry/Arm/Arm Cache Y", "NT:/Shuffleboard/Arm/Arm Cache Y"));
+        if (measuredX.size() == 0 || desiredX.size() == 0) {
+            return moves;
+        }
+
+        for (int i = 0; i < targets.size(); i++) {
+            if (targets.values[i].isEmpty()) {
+                continue;
+            }
+            long start = targets.timestamps[i];
+            long end = i + 1 < targets.size() ? targets.timestamps[i + 1] : Long.MAX_VALUE;
+
+            // step through the measured samples inside the move, holding the
+            // latest commanded position for each
+            double sumSquares = 0;
+            double maxError = 0;
+            int samples = 0;
+            long last = start;
+            int first = WpiLog.indexAt(measuredX.timestamps, start) + 1;
+            for (int j = first; j < measuredX.size() && measuredX.timestamps[j] < end; j++) {
+                long time = measuredX.timestamps[j];
+                double error = Math.hypot(measuredX.values[j] - desiredX.valueAt(time),
+                        measuredY.valueAt(time) - desiredY.valueAt(time));
+                if (Double.isNaN(error)) {
+                    continue;
+                }
+                sumSquares += error * error;
+                maxError = Math.max(maxError, error);
+                samples++;
+                last = time;
+            }
+            if (samples > 0) {
+                moves.add(new ArmMove(targets.values[i], start / 1e6, (last - start) / 1e6,
+                        Math.sqrt(sumSquares / samples), maxError, samples));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Loop time percentiles for every LoopProfiler section
+     *
+     * @param log
+     * @return one LoopTime per section
+     */
+    public static List<LoopTime> loopTimes(WpiLog log) {
+        List<LoopTime> times = new ArrayList<>();
+        for (String name : log.namesStartingWith("LoopProfiler/")) {
+            if (!name.endsWith("/p50")) {
+                continue;
+            }
+            String prefix = name.substring(0, name.length() - "/p50".length());
+            double[] p50 = log.doubles(name).values;
+            double[] p99 = log.doubles(prefix + "/p99").values;
+            double[] max = log.doubles(prefix + "/max").values;
+            if (p50.length == 0) {
+                continue;
+            }
+            times.add(new LoopTime(prefix.substring("LoopProfiler/".length()), percentile(p50, 0.5),
+                    percentile(p99, 0.99), percentile(max, 1), p50.length));
+        }
+        return times;
+    }
+
+    /**
+     * @param values left unchanged
+     * @param p      from 0 to 1
+     * @return nearest rank percentile, NaN if there are no values
+     */
+    public static double percentile(double[] values, double p) {
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+
+    /**
+     * Error PPSwerveControllerCommand reported while the robot was enabled in
+     * autonomous
+     *
+     * @param log
+     * @return the error, or null if there were no samples in autonomous
+     */
+    public static AutoPathError autoPathError(WpiLog log) {
+        WpiLog.DoubleColumn xError = log.doubles("NT:/SmartDashboard/PPSwerveControllerCommand/xErrorMeters");
+        WpiLog.DoubleColumn yError = log.doubles("NT:/SmartDashboard/PPSwerveControllerCommand/yErrorMeters");
+        WpiLog.DoubleColumn rotationError = log
+                .doubles("NT:/SmartDashboard/PPSwerveControllerCommand/rotationErrorDegrees");
+        WpiLog.DoubleColumn autonomous = log.doubles("DS:autonomous");
+        WpiLog.DoubleColumn enabled = log.doubles("DS:enabled");
+
+        double sumSquares = 0;
+        double maxError = 0;
+        double maxRotationError = 0;
+        int samples = 0;
+        for (int i = 0; i < xError.size(); i++) {
+            long time = xError.timestamps[i];
+            if (autonomous.valueAt(time) != 1 || enabled.valueAt(time) != 1) {
+                continue;
+            }
+            double error = Math.hypot(xError.values[i], yError.valueAt(time));
+            if (Double.isNaN(error)) {
+                continue;
+            }
+            sumSquares += error * error;
+            maxError = Math.max(maxError, error);
+            double rotation = Math.abs(rotationError.valueAt(time));
+            if (!Double.isNaN(rotation)) {
+                maxRotationError = Math.max(maxRotationError, rotation);
+            }
+            samples++;
+        }
+        return samples == 0 ? null
+                : new AutoPathError(Math.sqrt(sumSquares / samples), maxError, maxRotationError, samples);
+    }
+
+    /**
+     * Every time the logged battery voltage dropped below a threshold
+     *
+     * @param log
+     * @param voltage the brownout voltage the robot was set to
+     * @return the brownouts, empty if the log has no battery voltage
+     */
+    public static List<Brownout> brownouts(WpiLog log, double voltage) {
+        List<Brownout> brownouts = new ArrayList<>();
+        WpiLog.DoubleColumn battery = log.doubles("Telemetry/Robot/Battery Voltage");
+
+        int start = -1;
+        double minVoltage = Double.MAX_VALUE;
+        for (int i = 0; i <= battery.size(); i++) {
+            boolean low = i < battery.size() && battery.values[i] < voltage;
+            if (low) {
+                if (start < 0) {
+                    start = i;
+                    minVoltage = Double.MAX_VALUE;
+                }
+                minVoltage = Math.min(minVoltage, battery.values[i]);
+            } else if (start >= 0) {
+                // ends at the first sample back above the threshold
+                long end = battery.timestamps[Math.min(i, battery.size() - 1)];
+                brownouts.add(new Brownout(battery.timestamps[start] / 1e6,
+                        (end - battery.timestamps[start]) / 1e6, minVoltage));
+                start = -1;
+            }
+        }
+        return brownouts;
+    }
+
+    /**
+     * @param log
+     * @return highest intake motor current in amps, or null if the log has none
+     */
+    public static Peak intakeCurrentPeak(WpiLog log) {
+        WpiLog.DoubleColumn current = log.doubles(log.firstPresent("Telemetry/Arm Intake/Intake Current",
+                "NT:/Shuffleboard/Arm Intake/Intake Current"));
+        int peak = -1;
+        for (int i = 0; i < current.size(); i++) {
+            if (peak < 0 || current.values[i] > current.values[peak]) {
+                peak = i;
+            }
+        }
+        return peak < 0 ? null : new Peak(current.values[peak], current.timestamps[peak] / 1e6);
+    }
+}
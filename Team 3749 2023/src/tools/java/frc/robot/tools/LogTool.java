@@ -0,0 +1,95 @@
+package frc.robot.tools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Desktop report over a set of .wpilog files: arm tracking during every
+ * MoveArm and loop time percentiles. Run with ./gradlew analyzeLogs
+ * -Plogs=<files or directories>.
+ *
+ * With --batch the logs are summarized in parallel by BatchAnalysis and merged
+ * into one report instead, using every core unless --jobs is given.
+ */
+public class LogTool {
+    public static void main(String[] args) throws IOException {
+        long startTime = System.nanoTime();
+        boolean batch = false;
+        int jobs = Runtime.getRuntime().availableProcessors();
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--batch")) {
+                batch = true;
+            } else if (args[i].equals("--jobs") && i + 1 < args.length) {
+                jobs = Integer.parseInt(args[++i]);
+            } else {
+                paths.add(args[i]);
+            }
+        }
+        List<Path> files = findLogs(paths.isEmpty() ? new String[] { "." } : paths.toArray(new String[0]));
+
+        if (batch) {
+            List<MatchSummary> summaries = BatchAnalysis.summarize(files, jobs);
+            BatchAnalysis.report(summaries);
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+            System.out.printf("%d logs, %.1f MB in %.2f s on %d threads (%.1f MB/s)%n", summaries.size(),
+                    BatchAnalysis.totalBytes(summaries) / 1e6, seconds, jobs,
+                    BatchAnalysis.totalBytes(summaries) / 1e6 / seconds);
+            return;
+        }
+
+        for (Path file : files) {
+            WpiLog log;
+            try {
+                log = new WpiLog(file);
+            } catch (IOException e) {
+                System.out.println(e);
+                continue;
+            }
+            report(log);
+        }
+
+        System.out.printf("%d logs in %.2f s%n", files.size(), (System.nanoTime() - startTime) / 1e9);
+    }
+
+    /**
+     * @param args files, or directories to search for .wpilog files
+     * @return the logs, sorted by path
+     */
+    static List<Path> findLogs(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    files.addAll(walk.filter(file -> file.toString().endsWith(".wpilog"))
+                            .collect(Collectors.toList()));
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static void report(WpiLog log) {
+        System.out.printf("%s: %d entries, %d records%n", log.getPath().getFileName(), log.getEntries().size(),
+                log.getRecordCount());
+
+        for (LogQueries.ArmMove move : LogQueries.armTracking(log)) {
+            System.out.printf("  arm %-24s at %7.2f s  %5.2f s  rms %.3f m  max %.3f m%n", move.target,
+                    move.start, move.duration, move.rmsError, move.maxError);
+        }
+        for (LogQueries.LoopTime time : LogQueries.loopTimes(log)) {
+            System.out.printf("  loop %-20s p50 %6.0f us  p99 %6.0f us  max %6.0f us  (%d windows)%n",
+                    time.section, time.p50, time.p99, time.max, time.windows);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package frc.robot.tools;
+
+import java.util.List;
+
+/**
+ * What happened in one log: autonomous path error, brownouts, arm moves and
+ * the intake current peak. Built on the task that read the log, then only
+ * read by BatchAnalysis when it merges the report.
+ */
+public class MatchSummary {
+    public final String file;
+    public final long bytes;
+    // e.g. "CAMP Q12", empty if the robot wasn't on a field
+    public final String match;
+    // null if the log has no autonomous path following
+    public final LogQueries.AutoPathError autoPathError;
+    public final List<LogQueries.Brownout> brownouts;
+    public final List<LogQueries.ArmMove> armMoves;
+    // null if the log has no intake current
+    public final LogQueries.Peak intakeCurrentPeak;
+
+    private MatchSummary(String file, long bytes, String match, LogQueries.AutoPathError autoPathError,
+            List<LogQueries.Brownout> brownouts, List<LogQueries.ArmMove> armMoves,
+            LogQueries.Peak intakeCurrentPeak) {
+        this.file = file;
+        this.bytes = bytes;
+        this.match = match;
+        this.autoPathError = autoPathError;
+        this.brownouts = brownouts;
+        this.armMoves = armMoves;
+        this.intakeCurrentPeak = intakeCurrentPeak;
+    }
+
+    /**
+     * @param log
+     * @param brownoutVoltage the voltage RobotController.setBrownoutVoltage was
+     *                        given
+     * @return the summary
+     */
+    public static MatchSummary of(WpiLog log, double brownoutVoltage) {
+        return new MatchSummary(log.getPath().getFileName().toString(), log.size(), match(log),
+                LogQueries.autoPathError(log), LogQueries.brownouts(log, brownoutVoltage),
+                LogQueries.armTracking(log), LogQueries.intakeCurrentPeak(log));
+    }
+
+    private static String match(WpiLog log) {
+        WpiLog.StringColumn event = log.strings("NT:/FMSInfo/EventName");
+        WpiLog.DoubleColumn type = log.doubles("NT:/FMSInfo/MatchType");
+        WpiLog.DoubleColumn number = log.doubles("NT:/FMSInfo/MatchNumber");
+        if (number.size() == 0 || number.values[number.size() - 1] == 0) {
+            return "";
+        }
+        // MatchType is 1 for practice, 2 for qualification and 3 for elimination
+        String[] prefixes = { "", "P", "Q", "E" };
+        int typeIndex = type.size() == 0 ? 0 : (int) type.values[type.size() - 1];
+        String prefix = typeIndex >= 0 && typeIndex < prefixes.length ? prefixes[typeIndex] : "";
+        String name = event.size() == 0 ? "" : event.values[event.size() - 1] + " ";
+        return name + prefix + (long) number.values[number.size() - 1];
+    }
+}
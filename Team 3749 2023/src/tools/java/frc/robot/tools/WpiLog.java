@@ -0,0 +1,525 @@
+package frc.robot.tools;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reader for WPILib .wpilog files (DataLog format 1.0). The file is memory
+ * mapped, not read into the heap. Opening it walks the record headers once
+ * and indexes where each entry's records are, skipping the payloads. An
+ * entry's payloads are only decoded when it is asked for, into primitive
+ * columns (timestamps and values in parallel arrays) that are then cached.
+ *
+ * When a column is decoded from inside a ForkJoinPool (e.g. by
+ * BatchAnalysis), a large entry is split into chunks of records that are
+ * decoded in parallel.
+ *
+ * Files are limited to 2 GB, the size of one mapping. Not thread safe, use
+ * one WpiLog per task.
+ */
+public class WpiLog {
+    private static final int CONTROL_START = 0;
+    private static final int CONTROL_FINISH = 1;
+    private static final int CONTROL_SET_METADATA = 2;
+    // records decoded by one task, smaller entries aren't split
+    private static final int DECODE_CHUNK = 8192;
+
+    /**
+     * A named, typed series of records
+     */
+    public static class Entry {
+        public final String name;
+        public final String type;
+        public String metadata;
+
+        // timestamp (microseconds), payload offset and size of every record
+        private long[] timestamps = new long[16];
+        private int[] offsets = new int[16];
+        private int[] sizes = new int[16];
+        private int count = 0;
+
+        private Entry(String name, String type, String metadata) {
+            this.name = name;
+            this.type = type;
+            this.metadata = metadata;
+        }
+
+        private void add(long timestamp, int offset, int size) {
+            if (count == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+                sizes = Arrays.copyOf(sizes, count * 2);
+            }
+            timestamps[count] = timestamp;
+            offsets[count] = offset;
+            sizes[count] = size;
+            count++;
+        }
+
+        /**
+         * @return number of records
+         */
+        public int size() {
+            return count;
+        }
+    }
+
+    /**
+     * Numeric records. Booleans are 0 or 1.
+     */
+    public static class DoubleColumn {
+        public final long[] timestamps;
+        public final double[] values;
+
+        private DoubleColumn(long[] timestamps, double[] values) {
+            this.timestamps = timestamps;
+            this.values = values;
+        }
+
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * @param timestamp microseconds
+         * @return the last value recorded at or before the time, or NaN if there
+         *         is none
+         */
+        public double valueAt(long timestamp) {
+            int i = indexAt(timestamps, timestamp);
+            return i < 0 ? Double.NaN : values[i];
+        }
+    }
+
+    /**
+     * Numeric array records, flattened. Record i is values[starts[i]] up to
+     * values[starts[i + 1]].
+     */
+    public static class ArrayColumn {
+        public final long[] timestamps;
+        public final int[] starts;
+        public final double[] values;
+
+        private ArrayColumn(long[] timestamps, int[] starts, double[] values) {
+            this.timestamps = timestamps;
+            this.starts = starts;
+            this.values = values;
+        }
+
+        public int size() {
+            return timestamps.length;
+        }
+
+        public int length(int record) {
+            return starts[record + 1] - starts[record];
+        }
+
+        public double get(int record, int index) {
+            return values[starts[record] + index];
+        }
+    }
+
+    /**
+     * String records
+     */
+    public static class StringColumn {
+        public final long[] timestamps;
+        public final String[] values;
+
+        private StringColumn(long[] timestamps, String[] values) {
+            this.timestamps = timestamps;
+            this.values = values;
+        }
+
+        public int size() {
+            return values.length;
+        }
+    }
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final String extraHeader;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<String, Object> columns = new HashMap<>();
+    private int records = 0;
+
+    /**
+     * Memory map a log and index its records
+     *
+     * @param path
+     * @throws IOException if the file can't be read or isn't a wpilog
+     */
+    public WpiLog(Path path) throws IOException {
+        this.path = path;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        byte[] magic = new byte[6];
+        if (buffer.remaining() < 12) {
+            throw new IOException(path + " is not a wpilog");
+        }
+        buffer.get(magic);
+        int version = buffer.getShort() & 0xffff;
+        if (!"WPILOG".equals(new String(magic, StandardCharsets.US_ASCII)) || version != 0x0100) {
+            throw new IOException(path + " is not a version 1.0 wpilog");
+        }
+        extraHeader = readString(buffer, buffer.position());
+        buffer.position(buffer.position() + 4 + buffer.getInt(buffer.position()));
+
+        index();
+    }
+
+    /**
+     * Walk every record header once, remembering where each entry's payloads
+     * are. A record cut off at the end of the file (the robot lost power) ends
+     * the log.
+     */
+    private void index() {
+        Map<Integer, Entry> active = new HashMap<>();
+        int position = buffer.position();
+        int limit = buffer.limit();
+
+        while (position < limit) {
+            int header = buffer.get(position) & 0xff;
+            int idLength = (header & 0x3) + 1;
+            int sizeLength = ((header >> 2) & 0x3) + 1;
+            int timestampLength = ((header >> 4) & 0x7) + 1;
+            int headerLength = 1 + idLength + sizeLength + timestampLength;
+            if (position + headerLength > limit) {
+                break;
+            }
+
+            int id = (int) readUnsigned(position + 1, idLength);
+            long size = readUnsigned(position + 1 + idLength, sizeLength);
+            long timestamp = readUnsigned(position + 1 + idLength + sizeLength, timestampLength);
+            int payload = position + headerLength;
+            if (payload + size > limit) {
+                break;
+            }
+
+            if (id == 0) {
+                control(active, payload, (int) size);
+            } else {
+                Entry entry = active.get(id);
+                if (entry != null) {
+                    entry.add(timestamp, payload, (int) size);
+                }
+            }
+            records++;
+            position = payload + (int) size;
+        }
+    }
+
+    private void control(Map<Integer, Entry> active, int payload, int size) {
+        if (size < 5) {
+            return;
+        }
+        int type = buffer.get(payload) & 0xff;
+        int id = buffer.getInt(payload + 1);
+        if (type == CONTROL_START) {
+            int position = payload + 5;
+            String name = readString(buffer, position);
+            position += 4 + buffer.getInt(position);
+            String entryType = readString(buffer, position);
+            position += 4 + buffer.getInt(position);
+            String metadata = readString(buffer, position);
+
+            // an entry that is restarted with the same name and type continues
+            Entry entry = entries.get(name);
+            if (entry == null || !entry.type.equals(entryType)) {
+                entry = new Entry(name, entryType, metadata);
+                entries.put(name, entry);
+            }
+            active.put(id, entry);
+        } else if (type == CONTROL_FINISH) {
+            active.remove(id);
+        } else if (type == CONTROL_SET_METADATA) {
+            Entry entry = active.get(id);
+            if (entry != null) {
+                entry.metadata = readString(buffer, payload + 5);
+            }
+        }
+    }
+
+    private long readUnsigned(int position, int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value |= (long) (buffer.get(position + i) & 0xff) << (i * 8);
+        }
+        return value;
+    }
+
+    private static String readString(ByteBuffer buffer, int position) {
+        int length = buffer.getInt(position);
+        return new String(bytes(buffer, position + 4, length), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer, int position, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position);
+        view.get(bytes);
+        return bytes;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return file size in bytes
+     */
+    public long size() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return the free form header the log was started with
+     */
+    public String getExtraHeader() {
+        return extraHeader;
+    }
+
+    /**
+     * @return total records, including control records
+     */
+    public int getRecordCount() {
+        return records;
+    }
+
+    public Collection<Entry> getEntries() {
+        return entries.values();
+    }
+
+    /**
+     * @param name
+     * @return the entry, or null if the log doesn't have it
+     */
+    public Entry getEntry(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * @param names candidates, e.g. the Telemetry name then the NetworkTables
+     *              name an older log used
+     * @return the first name the log has, or null
+     */
+    public String firstPresent(String... names) {
+        for (String name : names) {
+            if (entries.containsKey(name)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decode a double, float, int64 or boolean entry
+     *
+     * @param name
+     * @return the column, empty if the log doesn't have the entry
+     * @throws IllegalArgumentException if the entry isn't numeric
+     */
+    public DoubleColumn doubles(String name) {
+        Object cached = columns.get(name);
+        if (cached instanceof DoubleColumn) {
+            return (DoubleColumn) cached;
+        }
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            return new DoubleColumn(new long[0], new double[0]);
+        }
+
+        double[] values = new double[entry.count];
+        DecodeDoubles decode = new DecodeDoubles(entry, values, 0, entry.count);
+        if (ForkJoinTask.inForkJoinPool()) {
+            decode.invoke();
+        } else {
+            decode.decode();
+        }
+        DoubleColumn column = new DoubleColumn(Arrays.copyOf(entry.timestamps, entry.count), values);
+        columns.put(name, column);
+        return column;
+    }
+
+    /**
+     * Decode a double[], float[], int64[] or boolean[] entry
+     *
+     * @param name
+     * @return the column, empty if the log doesn't have the entry
+     * @throws IllegalArgumentException if the entry isn't a numeric array
+     */
+    public ArrayColumn arrays(String name) {
+        Object cached = columns.get(name);
+        if (cached instanceof ArrayColumn) {
+            return (ArrayColumn) cached;
+        }
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            return new ArrayColumn(new long[0], new int[] { 0 }, new double[0]);
+        }
+        if (!entry.type.endsWith("[]")) {
+            throw new IllegalArgumentException(name + " is " + entry.type + ", not an array");
+        }
+
+        String elementType = entry.type.substring(0, entry.type.length() - 2);
+        int elementSize = elementSize(elementType);
+        int total = 0;
+        int[] starts = new int[entry.count + 1];
+        for (int i = 0; i < entry.count; i++) {
+            starts[i] = total;
+            total += entry.sizes[i] / elementSize;
+        }
+        starts[entry.count] = total;
+
+        double[] values = new double[total];
+        for (int i = 0; i < entry.count; i++) {
+            for (int j = starts[i]; j < starts[i + 1]; j++) {
+                values[j] = readNumber(elementType, entry.offsets[i], (j - starts[i]) * elementSize);
+            }
+        }
+        ArrayColumn column = new ArrayColumn(Arrays.copyOf(entry.timestamps, entry.count), starts, values);
+        columns.put(name, column);
+        return column;
+    }
+
+    /**
+     * Decode a string or json entry
+     *
+     * @param name
+     * @return the column, empty if the log doesn't have the entry
+     */
+    public StringColumn strings(String name) {
+        Object cached = columns.get(name);
+        if (cached instanceof StringColumn) {
+            return (StringColumn) cached;
+        }
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            return new StringColumn(new long[0], new String[0]);
+        }
+
+        String[] values = new String[entry.count];
+        for (int i = 0; i < entry.count; i++) {
+            values[i] = new String(bytes(buffer, entry.offsets[i], entry.sizes[i]), StandardCharsets.UTF_8);
+        }
+        StringColumn column = new StringColumn(Arrays.copyOf(entry.timestamps, entry.count), values);
+        columns.put(name, column);
+        return column;
+    }
+
+    /**
+     * @param prefix
+     * @return names of every entry starting with the prefix
+     */
+    public List<String> namesStartingWith(String prefix) {
+        List<String> names = new ArrayList<>();
+        for (String name : entries.keySet()) {
+            if (name.startsWith(prefix)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Decodes a range of an entry's records into a shared array, splitting it in
+     * half until it is at most DECODE_CHUNK records. Every task writes its own
+     * part of the array and only does absolute reads from the mapping, so the
+     * tasks don't interfere.
+     */
+    // ForkJoinTask is Serializable, but these are never serialized
+    @SuppressWarnings("serial")
+    private class DecodeDoubles extends RecursiveAction {
+        private final Entry entry;
+        private final double[] values;
+        private final int from;
+        private final int to;
+
+        DecodeDoubles(Entry entry, double[] values, int from, int to) {
+            this.entry = entry;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= DECODE_CHUNK) {
+                decode();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new DecodeDoubles(entry, values, from, middle), new DecodeDoubles(entry, values, middle, to));
+        }
+
+        void decode() {
+            for (int i = from; i < to; i++) {
+                values[i] = readNumber(entry.type, entry.offsets[i], 0);
+            }
+        }
+    }
+
+    private double readNumber(String type, int offset, int index) {
+        switch (type) {
+            case "double":
+                return buffer.getDouble(offset + index);
+            case "float":
+                return buffer.getFloat(offset + index);
+            case "int64":
+                return buffer.getLong(offset + index);
+            case "boolean":
+                return buffer.get(offset + index) != 0 ? 1 : 0;
+            default:
+                throw new IllegalArgumentException("Can't read " + type + " as a number");
+        }
+    }
+
+    private static int elementSize(String type) {
+        switch (type) {
+            case "double":
+            case "int64":
+                return 8;
+            case "float":
+                return 4;
+            case "boolean":
+                return 1;
+            default:
+                throw new IllegalArgumentException("Can't read " + type + "[] as numbers");
+        }
+    }
+
+    /**
+     * @param timestamps sorted
+     * @param timestamp
+     * @return index of the last timestamp at or before the time, or -1
+     */
+    public static int indexAt(long[] timestamps, long timestamp) {
+        int i = Arrays.binarySearch(timestamps, timestamp);
+        if (i >= 0) {
+            // several records can share a timestamp, take the last
+            while (i + 1 < timestamps.length && timestamps[i + 1] == timestamp) {
+                i++;
+            }
+            return i;
+        }
+        return -i - 2;
+    }
+}